@@ -2,17 +2,26 @@ package cop4331.taskflow;
 
 import cop4331.taskflow.command.CommandManager;
 import cop4331.taskflow.controller.TaskController;
+import cop4331.taskflow.model.ModelEvent;
 import cop4331.taskflow.model.Task;
 import cop4331.taskflow.model.TaskModel;
 import cop4331.taskflow.model.ModelListener;
+import cop4331.taskflow.persistence.AutoSaveScheduler;
+import cop4331.taskflow.persistence.BinaryPersistenceService;
 import cop4331.taskflow.persistence.JsonPersistenceService;
+import cop4331.taskflow.persistence.MappedTaskStore;
+import cop4331.taskflow.persistence.PersistenceService;
+import cop4331.taskflow.persistence.ShardedTaskStore;
+import cop4331.taskflow.persistence.TaskJournal;
 import cop4331.taskflow.reminder.ReminderService;
 import cop4331.taskflow.view.MainFrame;
 
 import javax.swing.*;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -26,10 +35,32 @@ import java.util.List;
  */
 public class TaskFlowApp {
 
-    private static final Path DATA_FILE = Paths.get("taskflow_data.json");
-    private static JsonPersistenceService persistenceService;
+    private static final Path JSON_DATA_FILE = Paths.get("taskflow_data.json");
+    // Data file format: "json" (readable), "binary" (smaller, much faster to load) or
+    // "mapped" (memory-mapped, for very large archives); -Dtaskflow.format=binary
+    private static final String DATA_FORMAT = System.getProperty("taskflow.format", "json").toLowerCase();
+    private static final Path DATA_FILE = DATA_FORMAT.equals("binary") ? Paths.get("taskflow_data.bin")
+            : DATA_FORMAT.equals("mapped") ? Paths.get("taskflow_data.tfm")
+            : JSON_DATA_FILE;
+    // GZIP level for the data file, 0 (off) to 9; -Dtaskflow.compression=6 trades some CPU for much
+    // less I/O. Compressed files are detected on load. The mapped format can't be compressed.
+    private static final int COMPRESSION_LEVEL = Integer.getInteger("taskflow.compression", 0);
+    // Sharded layout: -Dtaskflow.shards=category or month keeps one file per category or due month
+    // in taskflow_data/ and only loads the shards with pending tasks at startup. Replaces the journal.
+    private static final String SHARD_KEY = System.getProperty("taskflow.shards", "").toLowerCase();
+    private static final Path SHARD_DIR = Paths.get("taskflow_data");
+    // Journal mode appends each change instead of rewriting the file; opt in with -Dtaskflow.journal=true
+    private static final boolean JOURNAL_ENABLED =
+            Boolean.parseBoolean(System.getProperty("taskflow.journal", "false"));
+    // Changes within this many milliseconds are saved together; -Dtaskflow.autosave.delay=... changes it
+    private static final int AUTO_SAVE_DELAY_MS = Integer.getInteger("taskflow.autosave.delay", 500);
+    private static PersistenceService persistenceService;
+    private static TaskJournal journal;
+    private static ShardedTaskStore shardStore;
+    private static AutoSaveScheduler autoSave;
     private static ReminderService reminderService;
     private static TaskModel model;
+    private static MainFrame mainFrame;
 
     /**
      * Entry point for TaskFlow.
@@ -43,7 +74,11 @@ public class TaskFlowApp {
         SwingUtilities.invokeLater(() -> {
             try {
                 // Initialize services
-                persistenceService = new JsonPersistenceService();
+                persistenceService = createPersistenceService();
+                shardStore = createShardStore();
+                if (JOURNAL_ENABLED && shardStore == null) {
+                    journal = new TaskJournal(DATA_FILE, persistenceService);
+                }
                 model = new TaskModel();
                 
                 // Load persisted data (hopefully my tasks are still there!)
@@ -55,15 +90,49 @@ public class TaskFlowApp {
                 // Show missed reminders on startup
                 reminderService.showMissedReminders();
                 
-                // Set up auto-save on model changes
-                model.addListener(() -> saveData());
+                // Set up auto-save on model changes (a sort order change alone doesn't need a save).
+                // Saves are batched and written on a background thread so editing never waits for the disk.
+                autoSave = new AutoSaveScheduler(AUTO_SAVE_DELAY_MS, TaskFlowApp::snapshotForSave,
+                        TaskFlowApp::showAutoSaveError);
+                autoSave.setRecoveryHandler(() -> {
+                    if (mainFrame != null) {
+                        mainFrame.clearSaveError();
+                    }
+                });
+                model.addListener(new ModelListener() {
+                    @Override
+                    public void modelChanged() {
+                        autoSave.changed();
+                    }
+
+                    @Override
+                    public void modelChanged(ModelEvent event) {
+                        if (!event.hasDataChanges()) {
+                            return;
+                        }
+                        if (journal != null) {
+                            journal.stage(event, model);
+                        }
+                        if (shardStore != null) {
+                            shardStore.stage(event, model);
+                        }
+                        autoSave.changed();
+                    }
+                });
                 
                 CommandManager commandManager = CommandManager.getInstance();
                 TaskController controller = new TaskController(model, commandManager);
 
                 MainFrame frame = new MainFrame(controller, model, TaskFlowApp::saveData);
+                if (shardStore != null) {
+                    // Old months live in archived shards - read them when the calendar gets there
+                    frame.getCalendarView().setRangeLoader(TaskFlowApp::loadShardsDueBetween);
+                    // The rest (e.g. finished tasks without a due date) before export, trash, analytics and search
+                    frame.setArchiveLoader(TaskFlowApp::loadArchivedShards);
+                }
                 frame.setLocationRelativeTo(null);
                 frame.setVisible(true);
+                mainFrame = frame;
                 
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(null,
@@ -75,6 +144,32 @@ public class TaskFlowApp {
         });
     }
 
+    private static PersistenceService createPersistenceService() {
+        switch (DATA_FORMAT) {
+            case "binary":
+                BinaryPersistenceService binaryService = new BinaryPersistenceService();
+                binaryService.setCompressionLevel(COMPRESSION_LEVEL);
+                return binaryService;
+            case "mapped":
+                return new MappedTaskStore();
+            default:
+                JsonPersistenceService jsonService = new JsonPersistenceService();
+                jsonService.setCompressionLevel(COMPRESSION_LEVEL);
+                return jsonService;
+        }
+    }
+
+    private static ShardedTaskStore createShardStore() {
+        switch (SHARD_KEY) {
+            case "category":
+                return new ShardedTaskStore(SHARD_DIR, ShardedTaskStore.ShardKey.CATEGORY, persistenceService);
+            case "month":
+                return new ShardedTaskStore(SHARD_DIR, ShardedTaskStore.ShardKey.DUE_MONTH, persistenceService);
+            default:
+                return null;
+        }
+    }
+
     /**
      * Loads tasks from the persistence file.
      * 
@@ -82,10 +177,30 @@ public class TaskFlowApp {
      */
     private static void loadData() {
         try {
-            List<Task> tasks = persistenceService.load(DATA_FILE);
-            for (Task task : tasks) {
-                model.addTask(task);
+            if (shardStore != null && shardStore.exists()) {
+                model.replaceAll(shardStore.load());
+                return;
+            }
+            List<Task> tasks;
+            if (journal != null) {
+                tasks = journal.load();
+            } else {
+                // Picks up records left by an earlier run in journal mode too
+                TaskJournal leftover = new TaskJournal(DATA_FILE, persistenceService);
+                tasks = leftover.load();
+                if (shardStore == null && Files.exists(leftover.getJournalFile())) {
+                    leftover.compact(tasks); // Fold them into the data file and drop the journal
+                }
+            }
+            if (!DATA_FILE.equals(JSON_DATA_FILE) && tasks.isEmpty() && !Files.exists(DATA_FILE)
+                    && Files.exists(JSON_DATA_FILE)) {
+                // First start with another format - pick up the JSON data; it's converted on the next save
+                tasks = new JsonPersistenceService().load(JSON_DATA_FILE);
             }
+            if (shardStore != null) {
+                shardStore.saveAll(tasks); // First start with shards - split the data file up
+            }
+            model.replaceAll(tasks); // One notification for the whole file, not one per task
         } catch (IOException e) {
             // File doesn't exist or can't be read - start with empty model
             // (This is fine, we all start somewhere... like my task list)
@@ -94,20 +209,107 @@ public class TaskFlowApp {
     }
 
     /**
-     * Saves tasks to the persistence file.
+     * Saves tasks to the persistence file. Called when the window closes.
+     * 
+     * <p>Waits for background saves to finish first, then writes everything
+     * synchronously (in journal mode a fresh snapshot, emptying the journal;
+     * with shards only the dirty ones).
      * 
-     * <p><b>Postconditions:</b> All tasks are saved to JSON file
+     * <p><b>Postconditions:</b> All tasks are saved to the data file
      */
     private static void saveData() {
+        if (autoSave != null) {
+            autoSave.close();
+        }
         try {
             List<Task> tasks = model.getTasks();
-            persistenceService.save(tasks, DATA_FILE);
+            if (shardStore != null) {
+                if (shardStore.hasStagedChanges()) {
+                    shardStore.write(shardStore.drain(model));
+                }
+            } else if (journal != null) {
+                journal.compact(tasks);
+                journal.close();
+            } else {
+                persistenceService.save(tasks, DATA_FILE);
+            }
         } catch (IOException e) {
-            JOptionPane.showMessageDialog(null,
-                "Error saving data: " + e.getMessage(),
-                "Save Error",
-                JOptionPane.ERROR_MESSAGE);
+            showSaveError(e);
         }
     }
-}
 
+    /**
+     * Copies what needs saving, on the EDT, and returns the job that writes it in the background.
+     * 
+     * @return the save job, or null if there is nothing to write
+     */
+    private static AutoSaveScheduler.SaveJob snapshotForSave() {
+        if (shardStore != null) {
+            if (!shardStore.hasStagedChanges()) {
+                return null;
+            }
+            ShardedTaskStore.PendingWrite pending = shardStore.drain(model);
+            return () -> shardStore.write(pending);
+        }
+        if (journal != null) {
+            if (!journal.hasStagedChanges()) {
+                return null;
+            }
+            TaskJournal.PendingWrite pending = journal.drain(model);
+            return () -> journal.write(pending);
+        }
+        PersistenceService.Snapshot snapshot = persistenceService.snapshot(model.getTasks());
+        return () -> snapshot.writeTo(DATA_FILE);
+    }
+
+    /**
+     * Adds the tasks of archived shards due in a date range to the model, if they aren't loaded yet.
+     */
+    private static void loadShardsDueBetween(LocalDate from, LocalDate to) {
+        try {
+            List<Task> tasks = shardStore.loadDueBetween(from, to);
+            if (!tasks.isEmpty()) {
+                model.addAll(tasks);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not load archived tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the tasks of every shard not loaded yet to the model.
+     */
+    private static void loadArchivedShards() {
+        if (shardStore.isFullyLoaded()) {
+            return;
+        }
+        try {
+            List<Task> tasks = shardStore.loadArchived();
+            if (!tasks.isEmpty()) {
+                model.addAll(tasks);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not load archived tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shows that background saves are failing, without a dialog. The scheduler
+     * only calls this once per failure streak and keeps retrying.
+     */
+    private static void showAutoSaveError(IOException e) {
+        String message = "Changes aren't being saved (" + e.getMessage() + "). Retrying...";
+        if (mainFrame != null) {
+            mainFrame.showSaveError(message);
+        } else {
+            System.err.println(message);
+        }
+    }
+
+    private static void showSaveError(IOException e) {
+        JOptionPane.showMessageDialog(null,
+            "Error saving data: " + e.getMessage(),
+            "Save Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+}
@@ -74,7 +74,8 @@ public class EditTaskCommand implements Command {
     @Override
     public void execute() {
         Optional<Task> opt = model.findById(taskId);
-        opt.ifPresent(task -> {
+        // Batch the field updates so listeners see one edit, not one per field
+        opt.ifPresent(task -> model.batch(() -> {
             oldSnapshot = task.createSnapshot();
             oldCategory = task.getCategory();
             oldRecurrenceType = task.getRecurrenceType();
@@ -88,7 +89,7 @@ public class EditTaskCommand implements Command {
             if (newRecurrenceType != null) {
                 task.setRecurrenceType(newRecurrenceType);
             }
-        });
+        }));
     }
 
     @Override
@@ -96,11 +97,11 @@ public class EditTaskCommand implements Command {
         if (oldSnapshot == null) {
             return;
         }
-        model.findById(taskId).ifPresent(task -> {
+        model.findById(taskId).ifPresent(task -> model.batch(() -> {
             task.restore(oldSnapshot);
             task.setCategory(oldCategory);
             task.setRecurrenceType(oldRecurrenceType);
-        });
+        }));
     }
 }
 
@@ -0,0 +1,209 @@
+package cop4331.taskflow.command;
+
+import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command for merging imported tasks into the model by task ID.
+ *
+ * <p>Tasks with a new ID are added. A task whose ID is already in the model
+ * is merged into the existing task according to a {@link ConflictPolicy},
+ * so importing the same file twice doesn't duplicate anything. Tasks that
+ * appear more than once in the import are settled the same way first.
+ *
+ * <p>The merge is a hash join: the import is keyed by ID once and each key
+ * is looked up in the model's ID index, so the cost grows linearly with the
+ * size of the import and the model. The whole merge is one batch (one model
+ * event, one save) and one undo step.
+ *
+ * <p><b>Preconditions:</b> model, tasks and policy must be non-null
+ *
+ * <p><b>Postconditions:</b> New tasks are added and conflicting tasks merged on execute;
+ * undo removes the added tasks and puts the merged ones back as they were
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class ImportTasksCommand implements Command {
+
+    /**
+     * Decides what happens when an imported task has the ID of a task that's already there.
+     */
+    public enum ConflictPolicy {
+        /** The task with the later updatedAt wins; on a tie the existing task is kept. */
+        NEWEST_UPDATED_AT,
+        /** The imported task always wins. */
+        INCOMING,
+        /** The existing task always wins, so only new tasks are imported. */
+        KEEP_EXISTING;
+
+        /**
+         * Checks whether an incoming task should replace the one already there.
+         *
+         * @param existing the task already there (required, non-null)
+         * @param incoming the task with the same ID being imported (required, non-null)
+         * @return true if the incoming task wins
+         */
+        boolean prefersIncoming(Task existing, Task incoming) {
+            switch (this) {
+                case INCOMING:
+                    return true;
+                case KEEP_EXISTING:
+                    return false;
+                default:
+                    return incoming.getUpdatedAt().isAfter(existing.getUpdatedAt());
+            }
+        }
+    }
+
+    private final TaskModel model;
+    private final List<Task> tasks;
+    private final ConflictPolicy policy;
+
+    // What the last execute did, so undo can take it back
+    private final List<Task> added = new ArrayList<>();
+    private final List<Task> merged = new ArrayList<>(); // Tasks in the model that were overwritten
+    private final List<Task> originals = new ArrayList<>(); // Copies of those as they were before
+    private int skipped = 0;
+    private int duplicates = 0;
+
+    /**
+     * Creates a new ImportTasksCommand.
+     *
+     * @param model the task model (required, non-null)
+     * @param tasks the imported tasks (required, non-null, no null elements)
+     * @param policy how to settle tasks whose ID is already there (required, non-null)
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public ImportTasksCommand(TaskModel model, Collection<Task> tasks, ConflictPolicy policy) {
+        if (model == null) {
+            throw new IllegalArgumentException("TaskModel must be non-null");
+        }
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks must be non-null");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Conflict policy must be non-null");
+        }
+        this.model = model;
+        this.tasks = new ArrayList<>(tasks);
+        this.policy = policy;
+    }
+
+    /**
+     * Executes the command by merging the imported tasks into the model.
+     *
+     * <p><b>Postconditions:</b> Every imported ID is in the model; listeners are notified once
+     */
+    @Override
+    public void execute() {
+        added.clear();
+        merged.clear();
+        originals.clear();
+        skipped = 0;
+        duplicates = 0;
+
+        // Build side: the import keyed by ID, duplicates settled by the policy
+        Map<String, Task> incoming = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            Task earlier = incoming.putIfAbsent(task.getId(), task);
+            if (earlier != null) {
+                duplicates++; // One of the two copies is dropped here, whichever the policy picks
+                if (policy.prefersIncoming(earlier, task)) {
+                    incoming.put(task.getId(), task);
+                }
+            }
+        }
+
+        // Probe side: the model's ID index
+        model.batch(() -> {
+            for (Task task : incoming.values()) {
+                Task existing = model.findById(task.getId()).orElse(null);
+                if (existing == null) {
+                    added.add(task);
+                } else if (policy.prefersIncoming(existing, task)) {
+                    originals.add(copyOf(existing));
+                    merged.add(existing);
+                    existing.copyFrom(task);
+                } else {
+                    skipped++;
+                }
+            }
+            model.addAll(added);
+        });
+    }
+
+    /**
+     * Undoes the command by removing the added tasks and restoring the merged ones.
+     *
+     * <p><b>Postconditions:</b> The model holds the same tasks as before execute; listeners are notified once
+     */
+    @Override
+    public void undo() {
+        model.batch(() -> {
+            List<String> addedIds = new ArrayList<>(added.size());
+            for (Task task : added) {
+                addedIds.add(task.getId());
+            }
+            model.removeAll(addedIds);
+            for (int i = 0; i < merged.size(); i++) {
+                merged.get(i).copyFrom(originals.get(i));
+            }
+        });
+    }
+
+    /**
+     * Gets how many tasks the last execute added.
+     *
+     * @return the number of new tasks
+     */
+    public int getAddedCount() {
+        return added.size();
+    }
+
+    /**
+     * Gets how many existing tasks the last execute overwrote.
+     *
+     * @return the number of merged tasks
+     */
+    public int getMergedCount() {
+        return merged.size();
+    }
+
+    /**
+     * Gets how many imported tasks the last execute left out because the
+     * conflict policy kept the task already in the model.
+     *
+     * @return the number of skipped tasks
+     */
+    public int getSkippedCount() {
+        return skipped;
+    }
+
+    /**
+     * Gets how many imported tasks the last execute dropped because another
+     * task with the same ID in the import superseded them.
+     *
+     * @return the number of in-import duplicates
+     */
+    public int getDuplicateCount() {
+        return duplicates;
+    }
+
+    /**
+     * Makes a detached copy of a task, timestamps included.
+     */
+    private static Task copyOf(Task task) {
+        Task copy = new Task(task.getId(), task.getTitle(), task.getDescription(), task.getDueDateTime(),
+                task.getPriority(), task.getStatus(), task.getTags(), task.getReminderTime());
+        copy.copyFrom(task);
+        copy.restoreTimestamps(task.getCreatedAt(), task.getUpdatedAt());
+        return copy;
+    }
+}
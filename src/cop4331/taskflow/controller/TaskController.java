@@ -200,11 +200,14 @@ public class TaskController {
         if (taskIds == null || taskIds.isEmpty()) {
             return; // Nothing to delete, nothing to do
         }
-        for (String id : taskIds) {
-            if (id != null && !id.isBlank()) {
-                deleteTask(id); // Delete each one - mass deletion mode activated
+        // One batch so views and the auto-save see a single change, not one per task
+        model.batch(() -> {
+            for (String id : taskIds) {
+                if (id != null && !id.isBlank()) {
+                    deleteTask(id); // Delete each one - mass deletion mode activated
+                }
             }
-        }
+        });
     }
     
     /**
@@ -218,11 +221,14 @@ public class TaskController {
         if (taskIds == null || taskIds.isEmpty()) {
             return; // Nothing to complete
         }
-        for (String id : taskIds) {
-            if (id != null && !id.isBlank()) {
-                completeTask(id); // Mark each one as done - productivity mode!
+        // One batch so views and the auto-save see a single change, not one per task
+        model.batch(() -> {
+            for (String id : taskIds) {
+                if (id != null && !id.isBlank()) {
+                    completeTask(id); // Mark each one as done - productivity mode!
+                }
             }
-        }
+        });
     }
 
     /**
@@ -0,0 +1,213 @@
+package cop4331.taskflow.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes what changed in a {@link TaskModel}.
+ *
+ * <p>Carries the IDs of added, removed and updated tasks plus the fields that
+ * changed on each updated task, so listeners can patch only what they show
+ * instead of rebuilding everything. Events are immutable.
+ *
+ * <p>A task that was added and then edited within the same event only shows up
+ * as added; a task that was added and removed again doesn't show up at all.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class ModelEvent {
+
+    private final Set<String> addedIds;
+    private final Set<String> removedIds;
+    private final Map<String, Set<TaskField>> updatedFields;
+    private final boolean reloaded;
+    private final boolean sortOrderChanged;
+
+    private ModelEvent(Builder builder) {
+        this.addedIds = Collections.unmodifiableSet(new LinkedHashSet<>(builder.addedIds));
+        this.removedIds = Collections.unmodifiableSet(new LinkedHashSet<>(builder.removedIds));
+        Map<String, Set<TaskField>> updated = new LinkedHashMap<>();
+        for (Map.Entry<String, Set<TaskField>> entry : builder.updatedFields.entrySet()) {
+            updated.put(entry.getKey(), Collections.unmodifiableSet(EnumSet.copyOf(entry.getValue())));
+        }
+        this.updatedFields = Collections.unmodifiableMap(updated);
+        this.reloaded = builder.reloaded;
+        this.sortOrderChanged = builder.sortOrderChanged;
+    }
+
+    /**
+     * Gets the IDs of tasks added to the model.
+     *
+     * @return the added task IDs (never null, may be empty)
+     */
+    public Set<String> getAddedIds() {
+        return addedIds;
+    }
+
+    /**
+     * Gets the IDs of tasks removed from the model.
+     *
+     * @return the removed task IDs (never null, may be empty)
+     */
+    public Set<String> getRemovedIds() {
+        return removedIds;
+    }
+
+    /**
+     * Gets the IDs of existing tasks whose fields changed.
+     *
+     * @return the updated task IDs (never null, may be empty)
+     */
+    public Set<String> getUpdatedIds() {
+        return updatedFields.keySet();
+    }
+
+    /**
+     * Gets the fields that changed on an updated task.
+     *
+     * @param id the task ID (may be null)
+     * @return the changed fields (never null, empty if the task wasn't updated)
+     */
+    public Set<TaskField> getChangedFields(String id) {
+        Set<TaskField> fields = updatedFields.get(id);
+        return fields != null ? fields : Collections.emptySet();
+    }
+
+    /**
+     * Gets every field that changed on any updated task.
+     *
+     * @return the union of all changed fields (never null, may be empty)
+     */
+    public Set<TaskField> getAllChangedFields() {
+        Set<TaskField> all = EnumSet.noneOf(TaskField.class);
+        for (Set<TaskField> fields : updatedFields.values()) {
+            all.addAll(fields);
+        }
+        return all;
+    }
+
+    /**
+     * Checks whether the whole task list was replaced (for example on load).
+     *
+     * <p>When true the individual ID sets are not filled in - listeners
+     * should rebuild from scratch.
+     *
+     * @return true if the model was reloaded
+     */
+    public boolean isReloaded() {
+        return reloaded;
+    }
+
+    /**
+     * Checks whether the sort strategy changed.
+     *
+     * @return true if the sort order of the model changed
+     */
+    public boolean isSortOrderChanged() {
+        return sortOrderChanged;
+    }
+
+    /**
+     * Checks whether any task data changed (as opposed to only the sort order).
+     *
+     * @return true if tasks were added, removed, updated or reloaded
+     */
+    public boolean hasDataChanges() {
+        return reloaded || !addedIds.isEmpty() || !removedIds.isEmpty() || !updatedFields.isEmpty();
+    }
+
+    /**
+     * Checks whether this event could change anything that depends on the given fields.
+     *
+     * <p>Added, removed and reloaded tasks and sort order changes always count;
+     * updates only count if one of the given fields changed.
+     *
+     * @param fields the fields the caller cares about (required, non-null)
+     * @return true if a listener depending on those fields should update
+     */
+    public boolean affects(Set<TaskField> fields) {
+        if (reloaded || sortOrderChanged || !addedIds.isEmpty() || !removedIds.isEmpty()) {
+            return true;
+        }
+        for (Set<TaskField> changed : updatedFields.values()) {
+            for (TaskField field : changed) {
+                if (fields.contains(field)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether this event carries no changes at all.
+     *
+     * @return true if nothing changed
+     */
+    public boolean isEmpty() {
+        return !hasDataChanges() && !sortOrderChanged;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelEvent[added=" + addedIds + ", removed=" + removedIds
+                + ", updated=" + updatedFields + ", reloaded=" + reloaded
+                + ", sortOrderChanged=" + sortOrderChanged + "]";
+    }
+
+    /**
+     * Collects changes for one event. Only {@link TaskModel} builds events.
+     */
+    static class Builder {
+        private final Set<String> addedIds = new LinkedHashSet<>();
+        private final Set<String> removedIds = new LinkedHashSet<>();
+        private final Map<String, Set<TaskField>> updatedFields = new LinkedHashMap<>();
+        private boolean reloaded;
+        private boolean sortOrderChanged;
+
+        void taskAdded(String id) {
+            if (reloaded) return;
+            removedIds.remove(id);
+            updatedFields.remove(id);
+            addedIds.add(id);
+        }
+
+        void taskRemoved(String id) {
+            if (reloaded) return;
+            updatedFields.remove(id);
+            if (!addedIds.remove(id)) {
+                removedIds.add(id);
+            }
+        }
+
+        void taskUpdated(String id, TaskField field) {
+            if (reloaded || addedIds.contains(id)) return;
+            updatedFields.computeIfAbsent(id, k -> EnumSet.noneOf(TaskField.class)).add(field);
+        }
+
+        void reloaded() {
+            reloaded = true;
+            addedIds.clear();
+            removedIds.clear();
+            updatedFields.clear();
+        }
+
+        void sortOrderChanged() {
+            sortOrderChanged = true;
+        }
+
+        boolean isEmpty() {
+            return !reloaded && !sortOrderChanged
+                    && addedIds.isEmpty() && removedIds.isEmpty() && updatedFields.isEmpty();
+        }
+
+        ModelEvent build() {
+            return new ModelEvent(this);
+        }
+    }
+}
@@ -4,6 +4,23 @@ package cop4331.taskflow.model;
  * Observer for model changes (Observer pattern).
  */
 public interface ModelListener {
+
+    /**
+     * Called after the model changed, without details.
+     * 
+     * <p>Simple listeners that just rebuild everything only implement this.
+     */
     void modelChanged();
-}
 
+    /**
+     * Called after the model changed, with details of what changed.
+     * 
+     * <p>The default adapter ignores the details and calls {@link #modelChanged()}.
+     * Override it to patch only the affected tasks.
+     * 
+     * @param event what changed (never null)
+     */
+    default void modelChanged(ModelEvent event) {
+        modelChanged();
+    }
+}
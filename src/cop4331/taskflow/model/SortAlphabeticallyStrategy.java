@@ -1,8 +1,6 @@
 package cop4331.taskflow.model;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 
 /**
  * Sorting strategy that sorts tasks alphabetically by title.
@@ -11,13 +9,13 @@ import java.util.List;
  */
 public class SortAlphabeticallyStrategy implements TaskSortStrategy {
     
+    // Sort alphabetically - A to Z, because organization is key (or so I tell myself)
+    private static final Comparator<Task> COMPARATOR = Comparator.comparing(Task::getTitle, 
+        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+    
     @Override
-    public List<Task> sort(List<Task> tasks) {
-        List<Task> sorted = new ArrayList<>(tasks);
-        // Sort alphabetically - A to Z, because organization is key (or so I tell myself)
-        sorted.sort(Comparator.comparing(Task::getTitle, 
-            Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
-        return sorted;
+    public Comparator<Task> getComparator() {
+        return COMPARATOR;
     }
 }
 
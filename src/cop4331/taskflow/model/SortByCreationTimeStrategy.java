@@ -1,8 +1,6 @@
 package cop4331.taskflow.model;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 
 /**
  * Sorting strategy that sorts tasks by creation time (newest first).
@@ -11,13 +9,13 @@ import java.util.List;
  */
 public class SortByCreationTimeStrategy implements TaskSortStrategy {
     
+    // Sort by creation time, newest first - because I want to see what I just added
+    private static final Comparator<Task> COMPARATOR = Comparator.comparing(Task::getCreatedAt, 
+        Comparator.nullsLast(Comparator.reverseOrder()));
+    
     @Override
-    public List<Task> sort(List<Task> tasks) {
-        List<Task> sorted = new ArrayList<>(tasks);
-        // Sort by creation time, newest first - because I want to see what I just added
-        sorted.sort(Comparator.comparing(Task::getCreatedAt, 
-            Comparator.nullsLast(Comparator.reverseOrder())));
-        return sorted;
+    public Comparator<Task> getComparator() {
+        return COMPARATOR;
     }
 }
 
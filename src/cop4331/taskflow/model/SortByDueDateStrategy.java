@@ -1,17 +1,14 @@
 package cop4331.taskflow.model;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 
 public class SortByDueDateStrategy implements TaskSortStrategy {
 
+    private static final Comparator<Task> COMPARATOR = Comparator.comparing(Task::getDueDateTime,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
     @Override
-    public List<Task> sort(List<Task> tasks) {
-        List<Task> copy = new ArrayList<>(tasks);
-        copy.sort(Comparator.comparing(Task::getDueDateTime,
-                Comparator.nullsLast(Comparator.naturalOrder())));
-        return copy;
+    public Comparator<Task> getComparator() {
+        return COMPARATOR;
     }
 }
-
@@ -1,16 +1,13 @@
 package cop4331.taskflow.model;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
 
 public class SortByPriorityStrategy implements TaskSortStrategy {
 
+    private static final Comparator<Task> COMPARATOR = Comparator.comparing(Task::getPriority);
+
     @Override
-    public List<Task> sort(List<Task> tasks) {
-        List<Task> copy = new ArrayList<>(tasks);
-        copy.sort(Comparator.comparing(Task::getPriority));
-        return copy;
+    public Comparator<Task> getComparator() {
+        return COMPARATOR;
     }
 }
-
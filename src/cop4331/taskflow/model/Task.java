@@ -3,6 +3,7 @@ package cop4331.taskflow.model;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -35,6 +36,13 @@ public class Task {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime reminderTime;
+    private long version = 0; // Bumped by every change, see touch()
+    private TaskChangeListener changeListener; // Set by the owning TaskModel so it can keep its indexes up to date
+    // Cold fields a storage backend decodes on access; each flag is cleared once its field is set
+    private DeferredFields deferredFields;
+    private boolean descriptionDeferred = false;
+    private boolean tagsDeferred = false;
+    private boolean dependenciesDeferred = false;
     
     /**
      * Enum for recurring task types.
@@ -43,6 +51,37 @@ public class Task {
         NONE, DAILY, WEEKLY, MONTHLY
     }
 
+    /**
+     * Decodes the bulky fields of a stored task on demand.
+     * 
+     * <p>A task created with one of these doesn't keep its description, tags
+     * or dependencies on the heap: every read decodes them from storage again,
+     * until the field is set and the task holds it itself. Implementations must
+     * return new lists and must be safe to call from any thread.
+     */
+    public interface DeferredFields {
+        /**
+         * Decodes the description.
+         * 
+         * @return the description (may be null)
+         */
+        String description();
+
+        /**
+         * Decodes the tags.
+         * 
+         * @return a new list of tags (never null, may be empty)
+         */
+        List<String> tags();
+
+        /**
+         * Decodes the dependency IDs.
+         * 
+         * @return a new list of task IDs (never null, may be empty)
+         */
+        List<String> dependencies();
+    }
+
     /**
      * Creates a new task with the specified properties.
      * 
@@ -154,6 +193,40 @@ public class Task {
         this.reminderTime = reminderTime;
     }
 
+    /**
+     * Creates a task whose description, tags and dependencies stay in storage
+     * until they are read (used for loading from persistence).
+     * 
+     * <p><b>Preconditions:</b> id, title, priority, status and deferredFields must be non-null; id and title non-blank
+     * 
+     * <p><b>Postconditions:</b> createdAt and updatedAt are set to current time
+     * 
+     * @param id the unique task identifier (required, non-null)
+     * @param title the task title (required, non-null, non-blank)
+     * @param dueDateTime the due date and time (may be null)
+     * @param priority the task priority (required, non-null)
+     * @param status the task status (required, non-null)
+     * @param reminderTime the reminder time (may be null)
+     * @param deferredFields decodes the description, tags and dependencies (required, non-null)
+     * @throws IllegalArgumentException if required parameters are null or blank
+     */
+    public Task(String id,
+                String title,
+                LocalDateTime dueDateTime,
+                TaskPriority priority,
+                TaskStatus status,
+                LocalDateTime reminderTime,
+                DeferredFields deferredFields) {
+        this(id, title, null, dueDateTime, priority, status, null, reminderTime);
+        if (deferredFields == null) {
+            throw new IllegalArgumentException("Deferred fields must be non-null");
+        }
+        this.deferredFields = deferredFields;
+        this.descriptionDeferred = true;
+        this.tagsDeferred = true;
+        this.dependenciesDeferred = true;
+    }
+
     /**
      * Gets the unique identifier of this task.
      * 
@@ -186,8 +259,9 @@ public class Task {
         if (title == null || title.isBlank()) {
             throw new IllegalArgumentException("Title must be non-null and non-blank");
         }
+        String oldTitle = this.title;
         this.title = title;
-        touch();
+        touch(TaskField.TITLE, oldTitle, title);
     }
 
     /**
@@ -196,7 +270,7 @@ public class Task {
      * @return the task description (may be null)
      */
     public String getDescription() {
-        return description;
+        return descriptionDeferred ? deferredFields.description() : description;
     }
 
     /**
@@ -207,8 +281,10 @@ public class Task {
      * @param description the new description (may be null)
      */
     public void setDescription(String description) {
+        String oldDescription = getDescription();
         this.description = description;
-        touch();
+        this.descriptionDeferred = false;
+        touch(TaskField.DESCRIPTION, oldDescription, description);
     }
 
     /**
@@ -228,8 +304,9 @@ public class Task {
      * @param dueDateTime the new due date/time (may be null)
      */
     public void setDueDateTime(LocalDateTime dueDateTime) {
+        LocalDateTime oldDueDateTime = this.dueDateTime;
         this.dueDateTime = dueDateTime;
-        touch();
+        touch(TaskField.DUE_DATE, oldDueDateTime, dueDateTime);
     }
 
     /**
@@ -249,8 +326,9 @@ public class Task {
      * @param dueDateString the new due date string (may be null)
      */
     public void setDueDateString(String dueDateString) {
+        String oldDueDateString = this.dueDateString;
         this.dueDateString = dueDateString;
-        touch();
+        touch(TaskField.DUE_DATE_STRING, oldDueDateString, dueDateString);
     }
 
     /**
@@ -276,8 +354,9 @@ public class Task {
         if (priority == null) {
             throw new IllegalArgumentException("Priority must be non-null");
         }
+        TaskPriority oldPriority = this.priority;
         this.priority = priority;
-        touch();
+        touch(TaskField.PRIORITY, oldPriority, priority);
     }
 
     /**
@@ -303,8 +382,9 @@ public class Task {
         if (status == null) {
             throw new IllegalArgumentException("Status must be non-null");
         }
+        TaskStatus oldStatus = this.status;
         this.status = status;
-        touch();
+        touch(TaskField.STATUS, oldStatus, status);
     }
 
     /**
@@ -313,7 +393,7 @@ public class Task {
      * @return a new list containing all tags (never null, may be empty)
      */
     public List<String> getTags() {
-        return new ArrayList<>(tags);
+        return tagsDeferred ? deferredFields.tags() : new ArrayList<>(tags);
     }
 
     /**
@@ -324,11 +404,13 @@ public class Task {
      * @param tags the new list of tags (may be null, will be treated as empty list)
      */
     public void setTags(List<String> tags) {
+        List<String> oldTags = getTags();
+        tagsDeferred = false;
         this.tags.clear();
         if (tags != null) {
             this.tags.addAll(tags);
         }
-        touch();
+        touch(TaskField.TAGS, oldTags, this.tags);
     }
 
     /**
@@ -349,6 +431,119 @@ public class Task {
         return updatedAt;
     }
 
+    /**
+     * Gets the change counter of this task.
+     * 
+     * <p>Every setter bumps it, so persistence can tell whether a task changed
+     * again after it was written.
+     * 
+     * @return the number of changes since the task was created or loaded
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Puts back the timestamps of a task read from a file.
+     *
+     * <p>Every setter stamps updatedAt with the current time, so loaders call
+     * this after all other fields are set. It isn't a change: the version
+     * stays the same and the owning model isn't told. Only meant for tasks that
+     * aren't in a model yet, since the model sorts by createdAt.
+     *
+     * @param createdAt the stored creation time (null keeps the current one)
+     * @param updatedAt the stored last update time (null keeps the current one)
+     */
+    public void restoreTimestamps(LocalDateTime createdAt, LocalDateTime updatedAt) {
+        if (createdAt != null) {
+            this.createdAt = createdAt;
+        }
+        if (updatedAt != null) {
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    /**
+     * Overwrites this task with the fields of another task with the same ID.
+     *
+     * <p>Goes through the setters, so the owning model is told about each
+     * field that really changed. Afterwards updatedAt is the source's, since
+     * this task now holds the source's version of the data. createdAt is kept.
+     *
+     * <p><b>Preconditions:</b> source must be non-null and have the same ID
+     *
+     * <p><b>Postconditions:</b> All fields except id and createdAt equal the source's
+     *
+     * @param source the task to copy from (required, non-null, same ID)
+     * @throws IllegalArgumentException if source is null or has a different ID
+     */
+    public void copyFrom(Task source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source must be non-null");
+        }
+        if (!id.equals(source.getId())) {
+            throw new IllegalArgumentException("Source must have the same ID");
+        }
+        setTitle(source.getTitle());
+        setDescription(source.getDescription());
+        setDueDateTime(source.getDueDateTime());
+        setDueDateString(source.getDueDateString());
+        setPriority(source.getPriority());
+        setStatus(source.getStatus());
+        setTags(source.getTags());
+        setCategory(source.getCategory());
+        setDependencies(source.getDependencies());
+        setRecurrenceType(source.getRecurrenceType());
+        setReminderTime(source.getReminderTime());
+        this.updatedAt = source.getUpdatedAt();
+    }
+
+    /**
+     * Checks whether the description or tags are still read from storage.
+     * 
+     * <p>The model doesn't index the text of such tasks until a search or tag
+     * filter needs it, so attaching a big archive doesn't decode every record.
+     * 
+     * @return true if the description or tags haven't been set since loading
+     */
+    public boolean hasDeferredText() {
+        return descriptionDeferred || tagsDeferred;
+    }
+
+    /**
+     * Takes a copy of the description, tags and dependencies that another
+     * thread can read while this task keeps changing.
+     * 
+     * <p>Fields that are still deferred aren't decoded: the copy reads them
+     * from storage when asked, so taking it is cheap for a loaded archive.
+     * Fields that were set are copied right away.
+     * 
+     * @return the current cold fields (never null)
+     */
+    public DeferredFields copyColdFields() {
+        DeferredFields source = deferredFields;
+        String descriptionCopy = descriptionDeferred ? null : description;
+        List<String> tagsCopy = tagsDeferred ? null : new ArrayList<>(tags);
+        List<String> dependenciesCopy = dependenciesDeferred ? null : new ArrayList<>(dependencies);
+        boolean descriptionFromSource = descriptionDeferred;
+        return new DeferredFields() {
+            @Override
+            public String description() {
+                return descriptionFromSource ? source.description() : descriptionCopy;
+            }
+
+            @Override
+            public List<String> tags() {
+                return tagsCopy == null ? source.tags() : new ArrayList<>(tagsCopy);
+            }
+
+            @Override
+            public List<String> dependencies() {
+                return dependenciesCopy == null ? source.dependencies() : new ArrayList<>(dependenciesCopy);
+            }
+        };
+    }
+
     /**
      * Gets the reminder time for this task.
      * 
@@ -366,8 +561,9 @@ public class Task {
      * @param reminderTime the new reminder time (may be null)
      */
     public void setReminderTime(LocalDateTime reminderTime) {
+        LocalDateTime oldReminderTime = this.reminderTime;
         this.reminderTime = reminderTime;
-        touch();
+        touch(TaskField.REMINDER, oldReminderTime, reminderTime);
     }
 
     /**
@@ -387,8 +583,9 @@ public class Task {
      * @param category the new category/project name (may be null)
      */
     public void setCategory(String category) {
+        String oldCategory = this.category;
         this.category = category;
-        touch();
+        touch(TaskField.CATEGORY, oldCategory, category);
     }
 
     /**
@@ -397,7 +594,7 @@ public class Task {
      * @return a new list containing all dependency task IDs (never null, may be empty)
      */
     public List<String> getDependencies() {
-        return new ArrayList<>(dependencies);
+        return dependenciesDeferred ? deferredFields.dependencies() : new ArrayList<>(dependencies);
     }
 
     /**
@@ -408,11 +605,13 @@ public class Task {
      * @param dependencies the new list of dependency task IDs (may be null, will be treated as empty list)
      */
     public void setDependencies(List<String> dependencies) {
+        List<String> oldDependencies = getDependencies();
+        dependenciesDeferred = false;
         this.dependencies.clear();
         if (dependencies != null) {
             this.dependencies.addAll(dependencies);
         }
-        touch();
+        touch(TaskField.DEPENDENCIES, oldDependencies, this.dependencies);
     }
 
     /**
@@ -429,9 +628,11 @@ public class Task {
         if (taskId == null || taskId.isBlank()) {
             throw new IllegalArgumentException("Task ID must be non-null and non-blank");
         }
+        loadDependencies();
         if (!this.dependencies.contains(taskId)) {
+            List<String> oldDependencies = new ArrayList<>(this.dependencies);
             this.dependencies.add(taskId);
-            touch();
+            touch(TaskField.DEPENDENCIES, oldDependencies, this.dependencies);
         }
     }
 
@@ -443,8 +644,10 @@ public class Task {
      * @param taskId the ID of the task to remove from dependencies (may be null)
      */
     public void removeDependency(String taskId) {
+        loadDependencies();
+        List<String> oldDependencies = new ArrayList<>(this.dependencies);
         if (this.dependencies.remove(taskId)) {
-            touch();
+            touch(TaskField.DEPENDENCIES, oldDependencies, this.dependencies);
         }
     }
 
@@ -465,12 +668,53 @@ public class Task {
      * @param recurrenceType the new recurrence type (may be null, will default to NONE)
      */
     public void setRecurrenceType(RecurrenceType recurrenceType) {
+        RecurrenceType oldRecurrenceType = this.recurrenceType;
         this.recurrenceType = recurrenceType != null ? recurrenceType : RecurrenceType.NONE;
-        touch();
+        touch(TaskField.RECURRENCE, oldRecurrenceType, this.recurrenceType);
     }
 
-    private void touch() {
+    /**
+     * Moves deferred dependencies onto the heap before they are edited in place.
+     */
+    private void loadDependencies() {
+        if (dependenciesDeferred) {
+            dependencies.addAll(deferredFields.dependencies());
+            dependenciesDeferred = false;
+        }
+    }
+
+    /**
+     * Bumps updatedAt and the version and tells the owning model which field changed.
+     * 
+     * <p>The model is only told when the value really changed, so setting a
+     * field to the value it already has doesn't churn the indexes.
+     */
+    private void touch(TaskField field, Object oldValue, Object newValue) {
         this.updatedAt = LocalDateTime.now();
+        this.version++;
+        if (changeListener != null && !Objects.equals(oldValue, newValue)) {
+            changeListener.taskChanged(this, field, oldValue);
+        }
+    }
+
+    /**
+     * Attaches the hook that gets told about field changes.
+     * 
+     * <p>Only the owning {@link TaskModel} calls this.
+     * 
+     * @param changeListener the hook to notify (may be null to detach)
+     */
+    void setChangeListener(TaskChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Gets the hook currently attached to this task.
+     * 
+     * @return the attached hook (may be null)
+     */
+    TaskChangeListener getChangeListener() {
+        return changeListener;
     }
 
     /**
@@ -481,7 +725,7 @@ public class Task {
      * @return a snapshot of the current task state (never null)
      */
     public EditSnapshot createSnapshot() {
-        return new EditSnapshot(title, description, dueDateTime, priority, status);
+        return new EditSnapshot(title, getDescription(), dueDateTime, priority, status);
     }
 
     /**
@@ -498,13 +742,19 @@ public class Task {
         if (snapshot == null) {
             throw new IllegalArgumentException("Snapshot must be non-null");
         }
+        EditSnapshot before = createSnapshot();
         this.title = snapshot.title;
         this.description = snapshot.description;
+        this.descriptionDeferred = false;
         this.dueDateTime = snapshot.dueDateTime;
         this.priority = snapshot.priority;
         this.status = snapshot.status;
         // Note: dueDateString is not in snapshot, will be preserved or can be regenerated
-        touch();
+        touch(TaskField.TITLE, before.title, title);
+        touch(TaskField.DESCRIPTION, before.description, description);
+        touch(TaskField.DUE_DATE, before.dueDateTime, dueDateTime);
+        touch(TaskField.PRIORITY, before.priority, priority);
+        touch(TaskField.STATUS, before.status, status);
     }
 
     public static class EditSnapshot {
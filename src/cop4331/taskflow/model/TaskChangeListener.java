@@ -0,0 +1,19 @@
+package cop4331.taskflow.model;
+
+/**
+ * Hook that lets the owning model find out when a task's fields change.
+ * 
+ * <p>Package-private on purpose - only {@link TaskModel} attaches itself to
+ * tasks, so it can keep its indexes in step with the setters.
+ */
+interface TaskChangeListener {
+
+    /**
+     * Called after a field of the task has been changed.
+     * 
+     * @param task the task that changed (never null)
+     * @param field the field that changed (never null)
+     * @param oldValue the value of the field before the change (may be null)
+     */
+    void taskChanged(Task task, TaskField field, Object oldValue);
+}
@@ -0,0 +1,21 @@
+package cop4331.taskflow.model;
+
+/**
+ * The editable fields of a {@link Task}.
+ * 
+ * <p>Used to tell listeners which part of a task changed, so indexes and
+ * views only have to react to the fields they care about.
+ */
+public enum TaskField {
+    TITLE,
+    DESCRIPTION,
+    DUE_DATE,
+    DUE_DATE_STRING,
+    PRIORITY,
+    STATUS,
+    TAGS,
+    CATEGORY,
+    DEPENDENCIES,
+    RECURRENCE,
+    REMINDER
+}
@@ -1,9 +1,25 @@
 package cop4331.taskflow.model;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
 
 /**
  * Model for managing tasks. Notifies views when data changes.
@@ -12,9 +28,21 @@ import java.util.stream.Collectors;
  * the Observer pattern to notify registered listeners of changes. It also
  * uses the Strategy pattern for sorting tasks.
  * 
+ * <p>Besides the task list the model keeps an id index and secondary indexes
+ * on status, priority, category, tag and due date, plus a full-text index
+ * for {@link #searchAllTerms(String)}. Tasks report their own field changes
+ * back to the model (see {@link TaskChangeListener}), so the indexes stay
+ * correct even when a task is edited directly through its setters.
+ * 
+ * <p>Sorted results are cached per sort strategy class. Adding or editing a
+ * task repairs the cached order by binary insertion, so repeated calls to
+ * {@link #getTasks()} don't re-sort anything.
+ * 
  * <p><b>Preconditions:</b> All public methods that accept IDs require non-null, non-blank IDs.
  * 
- * <p><b>Postconditions:</b> All mutating operations notify registered listeners.
+ * <p><b>Postconditions:</b> All mutating operations notify registered listeners with a
+ * {@link ModelEvent} describing the change. Editing a task in the model through its
+ * setters notifies listeners too.
  * 
  * @author TaskFlow Team
  * @version 1.0
@@ -22,6 +50,18 @@ import java.util.stream.Collectors;
 public class TaskModel {
 
     private final List<Task> tasks = new ArrayList<>();
+    private final Map<String, Task> tasksById = new HashMap<>(); // id index so findById doesn't scan the list
+    private final Map<TaskStatus, Set<Task>> tasksByStatus = new EnumMap<>(TaskStatus.class);
+    private final Map<TaskPriority, Set<Task>> tasksByPriority = new EnumMap<>(TaskPriority.class);
+    private final Map<String, Set<Task>> tasksByCategory = new HashMap<>();
+    private final Map<String, Set<Task>> tasksByTag = new HashMap<>();
+    private final Set<Task> untaggedTasks = new HashSet<>(); // Tags still in storage, not in tasksByTag yet
+    private final NavigableMap<LocalDate, Set<Task>> tasksByDueDate = new TreeMap<>();
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private final TaskChangeListener taskChangeHook = this::onTaskChanged;
+    private final Map<Class<?>, SortedView> sortedViews = new HashMap<>();
+    private ModelEvent.Builder pendingEvent = new ModelEvent.Builder(); // Changes not yet sent to listeners
+    private int batchDepth = 0; // > 0 while a batch is open - notifications wait until it closes
     private final List<ModelListener> listeners = new ArrayList<>();
     private TaskSortStrategy sortStrategy = new SortByDueDateStrategy();
 
@@ -60,13 +100,93 @@ public class TaskModel {
     }
 
     /**
-     * Notifies all registered listeners of model changes.
+     * Notifies all registered listeners of the changes collected so far.
      * 
-     * <p><b>Postconditions:</b> All registered listeners receive modelChanged() call
+     * <p>Does nothing if no change was recorded, so listeners never see empty events,
+     * and does nothing while a batch is open - the changes are sent when it closes.
+     * 
+     * <p><b>Postconditions:</b> All registered listeners receive a modelChanged(ModelEvent) call
+     * and the pending changes are cleared
      */
     private void notifyListeners() {
+        if (batchDepth > 0 || pendingEvent.isEmpty()) {
+            return;
+        }
+        ModelEvent event = pendingEvent.build();
+        pendingEvent = new ModelEvent.Builder();
         for (ModelListener l : new ArrayList<>(listeners)) {
-            l.modelChanged();
+            l.modelChanged(event);
+        }
+    }
+
+    /**
+     * Opens a batch: listener notifications are held back until it is closed,
+     * then sent as one merged {@link ModelEvent}.
+     * 
+     * <p>Meant for try-with-resources:
+     * <pre>
+     * try (TaskModel.Batch batch = model.beginBatch()) {
+     *     for (String id : ids) {
+     *         model.markCompleted(id);
+     *     }
+     * }
+     * </pre>
+     * Batches nest; only closing the outermost one notifies listeners.
+     * 
+     * <p><b>Postconditions:</b> Notifications are suspended until the returned batch is closed
+     * 
+     * @return the open batch (never null)
+     */
+    public Batch beginBatch() {
+        batchDepth++;
+        return new Batch();
+    }
+
+    /**
+     * Runs an action as one batch, so listeners get a single merged event
+     * no matter how many changes the action makes.
+     * 
+     * <p><b>Preconditions:</b> action must be non-null
+     * 
+     * <p><b>Postconditions:</b> The action has run and listeners were notified at most once
+     * (also if the action throws)
+     * 
+     * @param action the changes to make (required, non-null)
+     * @throws IllegalArgumentException if action is null
+     */
+    public void batch(Runnable action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action must be non-null");
+        }
+        Batch batch = beginBatch();
+        try {
+            action.run();
+        } finally {
+            batch.close();
+        }
+    }
+
+    /**
+     * An open notification batch, see {@link #beginBatch()}.
+     */
+    public final class Batch implements AutoCloseable {
+        private boolean closed = false;
+
+        private Batch() {
+        }
+
+        /**
+         * Closes the batch. Closing the outermost batch sends the merged event.
+         * Closing the same batch twice has no effect.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            batchDepth--;
+            notifyListeners();
         }
     }
 
@@ -85,18 +205,23 @@ public class TaskModel {
             throw new IllegalArgumentException("Strategy must be non-null");
         }
         this.sortStrategy = strategy;
+        pendingEvent.sortOrderChanged();
         notifyListeners();
     }
 
     /**
      * Gets all tasks sorted according to the current sort strategy.
      * 
-     * <p><b>Postconditions:</b> Returns a new list (defensive copy) sorted by current strategy
+     * <p>The result is a cached snapshot: calling this again without any change
+     * in between returns the same list without sorting or copying.
+     * 
+     * <p><b>Postconditions:</b> Returns an unmodifiable snapshot sorted by current strategy
+     * that does not change when the model changes later
      * 
      * @return a sorted list of all tasks (never null, may be empty)
      */
     public List<Task> getTasks() {
-        return sortStrategy.sort(tasks);
+        return currentView().snapshot();
     }
 
     /**
@@ -114,9 +239,84 @@ public class TaskModel {
             throw new IllegalArgumentException("Task must be non-null");
         }
         tasks.add(task);
+        attach(task);
+        for (SortedView view : sortedViews.values()) {
+            view.insert(task);
+        }
+        pendingEvent.taskAdded(task.getId());
         notifyListeners(); // (Observer pattern doing its thing)
     }
 
+    /**
+     * Adds a collection of tasks to the model in one step.
+     *
+     * <p>Listeners are notified once for the whole collection instead of once
+     * per task, so an import of thousands of tasks triggers a single save.
+     *
+     * <p><b>Preconditions:</b> newTasks must be non-null and must not contain null elements
+     *
+     * <p><b>Postconditions:</b> All tasks are added to the model and listeners are notified once
+     * (no notification if the collection is empty)
+     *
+     * @param newTasks the tasks to add (required, non-null, no null elements)
+     * @throws IllegalArgumentException if newTasks is null or contains a null task
+     */
+    public void addAll(Collection<Task> newTasks) {
+        if (newTasks == null) {
+            throw new IllegalArgumentException("Tasks must be non-null");
+        }
+        for (Task task : newTasks) {
+            if (task == null) {
+                throw new IllegalArgumentException("Task must be non-null");
+            }
+        }
+        if (newTasks.isEmpty()) {
+            return;
+        }
+        tasks.addAll(newTasks);
+        for (Task task : newTasks) {
+            attach(task);
+            pendingEvent.taskAdded(task.getId());
+        }
+        sortedViews.clear(); // One re-sort on the next read beats thousands of single insertions
+        notifyListeners();
+    }
+
+    /**
+     * Replaces every task in the model with the given collection.
+     *
+     * <p>Used when loading persisted data so the model ends up in exactly the
+     * stored state with a single notification.
+     *
+     * <p><b>Preconditions:</b> newTasks must be non-null and must not contain null elements
+     *
+     * <p><b>Postconditions:</b> The model contains exactly the given tasks and listeners are notified once
+     *
+     * @param newTasks the tasks that should make up the model (required, non-null, no null elements)
+     * @throws IllegalArgumentException if newTasks is null or contains a null task
+     */
+    public void replaceAll(Collection<Task> newTasks) {
+        if (newTasks == null) {
+            throw new IllegalArgumentException("Tasks must be non-null");
+        }
+        for (Task task : newTasks) {
+            if (task == null) {
+                throw new IllegalArgumentException("Task must be non-null");
+            }
+        }
+        for (Task task : tasks) {
+            detach(task);
+        }
+        tasks.clear();
+        tasks.addAll(newTasks);
+        for (Task task : newTasks) {
+            attach(task);
+        }
+        sortedViews.clear();
+        pendingEvent.reloaded();
+        notifyListeners();
+    }
+
     /**
      * Finds a task by its unique identifier.
      * 
@@ -130,9 +330,7 @@ public class TaskModel {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("ID must be non-null and non-blank");
         }
-        return tasks.stream()
-                .filter(t -> t.getId().equals(id))
-                .findFirst();
+        return Optional.ofNullable(tasksById.get(id));
     }
 
     /**
@@ -149,10 +347,214 @@ public class TaskModel {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("ID must be non-null and non-blank");
         }
-        tasks.removeIf(t -> t.getId().equals(id));
+        if (tasksById.containsKey(id)) {
+            Iterator<Task> it = tasks.iterator();
+            while (it.hasNext()) {
+                Task task = it.next();
+                if (task.getId().equals(id)) {
+                    it.remove();
+                    detach(task);
+                    for (SortedView view : sortedViews.values()) {
+                        view.remove(task);
+                    }
+                }
+            }
+            pendingEvent.taskRemoved(id);
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Permanently deletes several tasks from the model in one pass.
+     *
+     * <p>{@link #deleteTask(String)} walks the task list once per call, which
+     * adds up when undoing a large import; this walks it once in total.
+     * IDs that aren't in the model are ignored.
+     *
+     * <p><b>Preconditions:</b> ids must be non-null
+     *
+     * <p><b>Postconditions:</b> No task with one of the IDs is left and listeners are notified once
+     * (no notification if nothing was removed)
+     *
+     * @param ids the identifiers of the tasks to delete (required, non-null)
+     * @throws IllegalArgumentException if ids is null
+     */
+    public void removeAll(Collection<String> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("IDs must be non-null");
+        }
+        Set<String> doomed = new HashSet<>(ids);
+        boolean removed = tasks.removeIf(task -> { // removeIf compacts the list once instead of per element
+            if (!doomed.contains(task.getId())) {
+                return false;
+            }
+            detach(task);
+            pendingEvent.taskRemoved(task.getId());
+            return true;
+        });
+        if (removed) {
+            sortedViews.clear();
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Adds a task to all indexes and starts listening to its field changes.
+     * 
+     * <p>If a task with the same ID is already indexed the first one wins for
+     * {@link #findById(String)}, matching the old behavior of returning the
+     * first match in list order.
+     * 
+     * @param task the task to index (required, non-null)
+     */
+    private void attach(Task task) {
+        if (tasksById.putIfAbsent(task.getId(), task) == null) {
+            searchIndex.index(task);
+        }
+        addToIndex(tasksByStatus, task.getStatus(), task);
+        addToIndex(tasksByPriority, task.getPriority(), task);
+        addToIndex(tasksByCategory, task.getCategory(), task);
+        if (task.hasDeferredText()) {
+            untaggedTasks.add(task); // Decoded when tags are first asked for
+        } else {
+            for (String tag : task.getTags()) {
+                addToIndex(tasksByTag, tag, task);
+            }
+        }
+        addToIndex(tasksByDueDate, dueDay(task.getDueDateTime()), task);
+        task.setChangeListener(taskChangeHook);
+    }
+
+    /**
+     * Removes a task from all indexes and stops listening to its field changes.
+     * 
+     * @param task the task to remove from the indexes (required, non-null)
+     */
+    private void detach(Task task) {
+        if (tasksById.get(task.getId()) == task) {
+            tasksById.remove(task.getId());
+            searchIndex.remove(task.getId());
+        }
+        removeFromIndex(tasksByStatus, task.getStatus(), task);
+        removeFromIndex(tasksByPriority, task.getPriority(), task);
+        removeFromIndex(tasksByCategory, task.getCategory(), task);
+        if (!untaggedTasks.remove(task)) {
+            for (String tag : task.getTags()) {
+                removeFromIndex(tasksByTag, tag, task);
+            }
+        }
+        removeFromIndex(tasksByDueDate, dueDay(task.getDueDateTime()), task);
+        if (task.getChangeListener() == taskChangeHook) {
+            task.setChangeListener(null);
+        }
+    }
+
+    /**
+     * Keeps the indexes and sorted views in step when a task field changes,
+     * and tells listeners which field of which task changed.
+     * 
+     * @param task the task that changed
+     * @param field the field that changed
+     * @param oldValue the value before the change
+     */
+    private void onTaskChanged(Task task, TaskField field, Object oldValue) {
+        for (SortedView view : sortedViews.values()) {
+            view.reposition(task);
+        }
+        updateIndexes(task, field, oldValue);
+        pendingEvent.taskUpdated(task.getId(), field);
         notifyListeners();
     }
 
+    /**
+     * Moves a changed task between index buckets.
+     * 
+     * @param task the task that changed
+     * @param field the field that changed
+     * @param oldValue the value before the change
+     */
+    @SuppressWarnings("unchecked")
+    private void updateIndexes(Task task, TaskField field, Object oldValue) {
+        switch (field) {
+            case STATUS:
+                removeFromIndex(tasksByStatus, (TaskStatus) oldValue, task);
+                addToIndex(tasksByStatus, task.getStatus(), task);
+                break;
+            case PRIORITY:
+                removeFromIndex(tasksByPriority, (TaskPriority) oldValue, task);
+                addToIndex(tasksByPriority, task.getPriority(), task);
+                break;
+            case CATEGORY:
+                removeFromIndex(tasksByCategory, (String) oldValue, task);
+                addToIndex(tasksByCategory, task.getCategory(), task);
+                break;
+            case TAGS:
+                if (!untaggedTasks.remove(task)) {
+                    for (String tag : (List<String>) oldValue) {
+                        removeFromIndex(tasksByTag, tag, task);
+                    }
+                }
+                for (String tag : task.getTags()) {
+                    addToIndex(tasksByTag, tag, task);
+                }
+                break;
+            case DUE_DATE:
+                removeFromIndex(tasksByDueDate, dueDay((LocalDateTime) oldValue), task);
+                addToIndex(tasksByDueDate, dueDay(task.getDueDateTime()), task);
+                break;
+            default:
+                break; // Not indexed
+        }
+        switch (field) {
+            case TITLE:
+            case DESCRIPTION:
+            case CATEGORY:
+            case TAGS:
+                if (tasksById.get(task.getId()) == task) {
+                    searchIndex.index(task);
+                }
+                break;
+            default:
+                break; // Not searchable
+        }
+    }
+
+    /**
+     * Adds the tags of tasks attached with their tags still in storage to the tag index.
+     */
+    private void indexUntaggedTasks() {
+        for (Task task : untaggedTasks) {
+            for (String tag : task.getTags()) {
+                addToIndex(tasksByTag, tag, task);
+            }
+        }
+        untaggedTasks.clear();
+    }
+
+    private static LocalDate dueDay(LocalDateTime dueDateTime) {
+        return dueDateTime == null ? null : dueDateTime.toLocalDate();
+    }
+
+    private static <K> void addToIndex(Map<K, Set<Task>> index, K key, Task task) {
+        if (key == null || "".equals(key)) {
+            return;
+        }
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(task);
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Task>> index, K key, Task task) {
+        if (key == null) {
+            return;
+        }
+        Set<Task> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(task);
+            if (bucket.isEmpty()) {
+                index.remove(key); // Drop empty buckets so getCategories()/getTagNames() stay accurate
+            }
+        }
+    }
+
     /**
      * Moves a task to the trash (sets status to TRASHED).
      * 
@@ -167,8 +569,7 @@ public class TaskModel {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("ID must be non-null and non-blank");
         }
-        findById(id).ifPresent(t -> t.setStatus(TaskStatus.TRASHED));
-        notifyListeners();
+        findById(id).ifPresent(t -> t.setStatus(TaskStatus.TRASHED)); // The task reports the change itself
     }
 
     /**
@@ -185,8 +586,7 @@ public class TaskModel {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("ID must be non-null and non-blank");
         }
-        findById(id).ifPresent(t -> t.setStatus(TaskStatus.COMPLETED));
-        notifyListeners();
+        findById(id).ifPresent(t -> t.setStatus(TaskStatus.COMPLETED)); // The task reports the change itself
     }
 
     /**
@@ -203,8 +603,7 @@ public class TaskModel {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("ID must be non-null and non-blank");
         }
-        findById(id).ifPresent(t -> t.setStatus(TaskStatus.PENDING));
-        notifyListeners();
+        findById(id).ifPresent(t -> t.setStatus(TaskStatus.PENDING)); // The task reports the change itself
     }
 
     /**
@@ -220,9 +619,390 @@ public class TaskModel {
         if (status == null) {
             throw new IllegalArgumentException("Status must be non-null");
         }
-        return tasks.stream()
-                .filter(t -> t.getStatus() == status)
-                .collect(java.util.stream.Collectors.toList());
+        return new ArrayList<>(tasksByStatus.getOrDefault(status, Collections.emptySet()));
+    }
+
+    /**
+     * Counts the tasks with a specific status.
+     * 
+     * <p><b>Preconditions:</b> status must be non-null
+     * 
+     * @param status the status to count (required, non-null)
+     * @return the number of tasks with the status
+     * @throws IllegalArgumentException if status is null
+     */
+    public int countByStatus(TaskStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status must be non-null");
+        }
+        return tasksByStatus.getOrDefault(status, Collections.emptySet()).size();
+    }
+
+    /**
+     * Gets the total number of tasks in the model.
+     * 
+     * @return the number of tasks
+     */
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    /**
+     * Gets every category used by at least one task.
+     * 
+     * @return the category names in alphabetical order (never null, may be empty)
+     */
+    public List<String> getCategories() {
+        return new ArrayList<>(new TreeSet<>(tasksByCategory.keySet()));
+    }
+
+    /**
+     * Gets every tag used by at least one task.
+     * 
+     * @return the tags in alphabetical order (never null, may be empty)
+     */
+    public List<String> getTagNames() {
+        indexUntaggedTasks();
+        return new ArrayList<>(new TreeSet<>(tasksByTag.keySet()));
+    }
+
+    /**
+     * Finds the tasks whose text matches every term of a search.
+     * 
+     * <p>The search text is split into words; each word matches any word in a
+     * task's title, description, category or tags that starts with it,
+     * ignoring case. So "rep fin" finds a task titled "Final report".
+     * 
+     * <p>Backed by an inverted index that is updated as tasks change, so the
+     * cost depends on the number of matches rather than the size of the store.
+     * Unlike the rest of the model this may be called from any thread, so a
+     * background search doesn't have to wait for the EDT.
+     * 
+     * <p><b>Preconditions:</b> text must be non-null
+     * 
+     * @param text the search text (required, non-null)
+     * @return a new set with the IDs of matching tasks (empty if the text has no words)
+     * @throws IllegalArgumentException if text is null
+     */
+    public Set<String> searchAllTerms(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Search text must be non-null");
+        }
+        return searchIndex.matchAll(text);
+    }
+
+    /**
+     * Finds the tasks whose text matches at least one term of a search.
+     * 
+     * <p>Same matching rules and threading as {@link #searchAllTerms(String)},
+     * but the words are combined with OR instead of AND.
+     * 
+     * <p><b>Preconditions:</b> text must be non-null
+     * 
+     * @param text the search text (required, non-null)
+     * @return a new set with the IDs of matching tasks (empty if the text has no words)
+     * @throws IllegalArgumentException if text is null
+     */
+    public Set<String> searchAnyTerm(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Search text must be non-null");
+        }
+        return searchIndex.matchAny(text);
+    }
+
+    /**
+     * Finds the tasks matching a query, sorted by the current sort strategy.
+     * 
+     * <p>Instead of scanning every task, this intersects the index sets for the
+     * criteria that are set: it walks the smallest matching index set and
+     * checks membership in the others.
+     * 
+     * <p><b>Preconditions:</b> query must be non-null
+     * 
+     * @param query the filter criteria (required, non-null)
+     * @return the matching tasks in sort order (never null, may be empty)
+     * @throws IllegalArgumentException if query is null
+     */
+    public List<Task> query(TaskQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query must be non-null");
+        }
+        // Each criterion offers the tasks it could match (from its index) and a cheap check.
+        // We walk the smallest candidate group and run every check on it.
+        List<Criterion> criteria = new ArrayList<>();
+        Set<TaskStatus> statuses = query.getStatuses();
+        if (statuses != null) {
+            List<Collection<Task>> buckets = new ArrayList<>();
+            for (TaskStatus status : statuses) {
+                buckets.add(tasksByStatus.getOrDefault(status, Collections.emptySet()));
+            }
+            criteria.add(new Criterion(buckets, t -> statuses.contains(t.getStatus())));
+        }
+        if (query.getPriority() != null) {
+            TaskPriority priority = query.getPriority();
+            criteria.add(new Criterion(List.of(tasksByPriority.getOrDefault(priority, Collections.emptySet())),
+                    t -> t.getPriority() == priority));
+        }
+        if (query.getCategory() != null) {
+            String category = query.getCategory();
+            criteria.add(new Criterion(List.of(tasksByCategory.getOrDefault(category, Collections.emptySet())),
+                    t -> category.equals(t.getCategory())));
+        }
+        if (query.getTag() != null) {
+            indexUntaggedTasks();
+            Set<Task> tagged = tasksByTag.getOrDefault(query.getTag(), Collections.emptySet());
+            criteria.add(new Criterion(List.of(tagged), tagged::contains));
+        }
+        if (query.getDueFrom() != null || query.getDueTo() != null) {
+            LocalDate from = query.getDueFrom();
+            LocalDate to = query.getDueTo();
+            criteria.add(new Criterion(new ArrayList<>(dueRange(from, to).values()), t -> {
+                if (t.getDueDateTime() == null) return false;
+                LocalDate due = t.getDueDateTime().toLocalDate();
+                return (from == null || !due.isBefore(from)) && (to == null || !due.isAfter(to));
+            }));
+        }
+
+        Criterion driver = null;
+        for (Criterion criterion : criteria) {
+            if (driver == null || criterion.size < driver.size) {
+                driver = criterion;
+            }
+        }
+        List<Collection<Task>> candidates = driver != null ? driver.candidates : List.of(tasks);
+
+        List<Task> result = new ArrayList<>();
+        for (Collection<Task> group : candidates) {
+            for (Task task : group) {
+                boolean matches = true;
+                for (Criterion criterion : criteria) {
+                    if (criterion != driver && !criterion.check.test(task)) {
+                        matches = false;
+                        break;
+                    }
+                }
+                if (matches) {
+                    result.add(task);
+                }
+            }
+        }
+        return sortInViewOrder(result);
+    }
+
+    /**
+     * Gets the tasks due between two dates, sorted by the current sort strategy.
+     * 
+     * <p>Backed by a due-date index, so the cost depends on the number of tasks
+     * in the range rather than the size of the whole store. Tasks of every status
+     * are included; combine with {@link TaskQuery#withStatuses} via
+     * {@link #query(TaskQuery)} to narrow it down.
+     * 
+     * <p><b>Preconditions:</b> from and to must be non-null, from must not be after to
+     * 
+     * @param from the first day of the range, inclusive (required, non-null)
+     * @param to the last day of the range, inclusive (required, non-null)
+     * @return the tasks due in the range (never null, may be empty)
+     * @throws IllegalArgumentException if from or to is null, or from is after to
+     */
+    public List<Task> getTasksDueBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates must be non-null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        List<Task> result = new ArrayList<>();
+        for (Set<Task> day : dueRange(from, to).values()) {
+            result.addAll(day);
+        }
+        return sortInViewOrder(result);
+    }
+
+    /**
+     * Gets the slice of the due-date index between two dates.
+     * 
+     * @param from the first day, inclusive (null for no lower bound)
+     * @param to the last day, inclusive (null for no upper bound)
+     * @return a view of the matching index entries (never null)
+     */
+    private NavigableMap<LocalDate, Set<Task>> dueRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            return tasksByDueDate.subMap(from, true, to, true);
+        } else if (from != null) {
+            return tasksByDueDate.tailMap(from, true);
+        } else if (to != null) {
+            return tasksByDueDate.headMap(to, true);
+        }
+        return tasksByDueDate;
+    }
+
+    /**
+     * One query criterion: the index buckets it can match plus a per-task check.
+     */
+    private static class Criterion {
+        private final List<Collection<Task>> candidates;
+        private final Predicate<Task> check;
+        private final int size;
+
+        Criterion(List<Collection<Task>> candidates, Predicate<Task> check) {
+            this.candidates = candidates;
+            this.check = check;
+            int total = 0;
+            for (Collection<Task> group : candidates) {
+                total += group.size();
+            }
+            this.size = total;
+        }
     }
-}
 
+    /**
+     * Gets the cached sorted view for the current strategy, building it if needed.
+     * 
+     * @return the sorted view (never null)
+     */
+    private SortedView currentView() {
+        return sortedViews.computeIfAbsent(sortStrategy.getClass(),
+                k -> new SortedView(sortStrategy.getComparator(), tasks));
+    }
+
+    /**
+     * Sorts a subset of the tasks by the current strategy.
+     * 
+     * <p>Small subsets are sorted directly. Large ones are picked out of the
+     * cached sorted view in one pass, which beats an n log n sort.
+     * 
+     * @param subset the tasks to sort (required, non-null)
+     * @return the tasks in sort order (never null)
+     */
+    private List<Task> sortInViewOrder(List<Task> subset) {
+        if (subset.size() < tasks.size() / 8) {
+            return sortStrategy.sort(subset);
+        }
+        Map<Task, Boolean> wanted = new IdentityHashMap<>(subset.size());
+        for (Task task : subset) {
+            wanted.put(task, Boolean.TRUE);
+        }
+        List<Task> sorted = new ArrayList<>(subset.size());
+        for (Task task : currentView().snapshot()) {
+            if (wanted.remove(task) != null) {
+                sorted.add(task);
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Cached, incrementally maintained sort order for one sort strategy.
+     * 
+     * <p>Added and changed tasks aren't placed right away; they're collected
+     * and merged into the backing list in one pass the next time the order is
+     * read. So a setter call costs a hash lookup here, and a batch of changes
+     * costs one merge instead of one search per change. Once so many tasks are
+     * waiting that a merge is no cheaper than a sort, tracking stops and the
+     * next read just re-sorts. Tasks the comparator calls equal stay in
+     * whatever order they ended up in, which can differ from the task list's.
+     * Readers get an unmodifiable snapshot copy that is only rebuilt after a
+     * change, so handing the same snapshot out repeatedly costs nothing.
+     */
+    private static class SortedView {
+        private final Comparator<Task> comparator;
+        private List<Task> sorted;
+        private final List<Task> added = new ArrayList<>(); // Not in sorted yet
+        private final Map<Task, Boolean> changed = new IdentityHashMap<>(); // In sorted, maybe in the wrong spot
+        private boolean unsorted = false; // Too many changes to track - re-sort on the next read
+        private List<Task> snapshot;
+
+        SortedView(Comparator<Task> comparator, List<Task> tasks) {
+            this.comparator = comparator;
+            this.sorted = new ArrayList<>(tasks);
+            this.sorted.sort(comparator);
+        }
+
+        List<Task> snapshot() {
+            if (unsorted) {
+                sorted.sort(comparator); // Stable, and mostly in order already
+                unsorted = false;
+            } else if (!added.isEmpty() || !changed.isEmpty()) {
+                place();
+            }
+            if (snapshot == null) {
+                snapshot = Collections.unmodifiableList(new ArrayList<>(sorted));
+            }
+            return snapshot;
+        }
+
+        void insert(Task task) {
+            if (unsorted) {
+                sorted.add(task);
+            } else {
+                added.add(task);
+                checkBacklog();
+            }
+            snapshot = null;
+        }
+
+        void remove(Task task) {
+            if (sorted.remove(task) || added.remove(task)) { // Task uses identity equals
+                changed.remove(task);
+                snapshot = null;
+            }
+        }
+
+        /**
+         * Notes that a task changed, so its spot has to be checked on the next read.
+         */
+        void reposition(Task task) {
+            if (!unsorted) {
+                changed.put(task, Boolean.TRUE);
+                checkBacklog();
+            }
+            snapshot = null;
+        }
+
+        private void checkBacklog() {
+            if (added.size() + changed.size() > sorted.size() / 8 + 64) {
+                sorted.addAll(added);
+                added.clear();
+                changed.clear();
+                unsorted = true;
+            }
+        }
+
+        /**
+         * Takes the changed tasks out and merges them back in with the added
+         * ones. A placed task lands after any equal task that stayed put, and
+         * placed tasks that tie keep their current order (changed ones first,
+         * then added ones in insertion order). That isn't necessarily where a
+         * fresh sort of the task list would put them - ties are only ordered
+         * by the comparator, not by list position.
+         */
+        private void place() {
+            List<Task> incoming = new ArrayList<>(changed.size() + added.size());
+            List<Task> kept = new ArrayList<>(sorted.size());
+            for (Task task : sorted) {
+                if (changed.containsKey(task)) {
+                    incoming.add(task);
+                } else {
+                    kept.add(task);
+                }
+            }
+            incoming.addAll(added);
+            incoming.sort(comparator); // Stable, so equal ones keep their order
+            added.clear();
+            changed.clear();
+
+            List<Task> merged = new ArrayList<>(kept.size() + incoming.size());
+            int next = 0;
+            for (Task task : kept) {
+                while (next < incoming.size() && comparator.compare(incoming.get(next), task) < 0) {
+                    merged.add(incoming.get(next++));
+                }
+                merged.add(task);
+            }
+            while (next < incoming.size()) {
+                merged.add(incoming.get(next++));
+            }
+            sorted = merged;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package cop4331.taskflow.model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filter criteria for {@link TaskModel#query(TaskQuery)}.
+ *
+ * <p>Every criterion is optional - a null (or unset) criterion matches every
+ * task. The criteria that are set are combined with AND. Setters return
+ * {@code this} so a query can be built in one expression:
+ *
+ * <pre>
+ * model.query(new TaskQuery()
+ *         .withStatuses(TaskStatus.PENDING)
+ *         .withCategory("School"));
+ * </pre>
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class TaskQuery {
+
+    private Set<TaskStatus> statuses;
+    private TaskPriority priority;
+    private String category;
+    private String tag;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+
+    /**
+     * Restricts the query to tasks whose status is one of the given statuses.
+     *
+     * @param statuses the allowed statuses (null or empty means any status)
+     * @return this query
+     */
+    public TaskQuery withStatuses(TaskStatus... statuses) {
+        if (statuses == null || statuses.length == 0) {
+            this.statuses = null;
+        } else {
+            this.statuses = EnumSet.noneOf(TaskStatus.class);
+            Collections.addAll(this.statuses, statuses);
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the query to tasks with the given priority.
+     *
+     * @param priority the priority to match (null means any priority)
+     * @return this query
+     */
+    public TaskQuery withPriority(TaskPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Restricts the query to tasks in the given category.
+     *
+     * @param category the category to match exactly (null or empty means any category)
+     * @return this query
+     */
+    public TaskQuery withCategory(String category) {
+        this.category = category == null || category.isEmpty() ? null : category;
+        return this;
+    }
+
+    /**
+     * Restricts the query to tasks carrying the given tag.
+     *
+     * @param tag the tag to match exactly (null or empty means any tag)
+     * @return this query
+     */
+    public TaskQuery withTag(String tag) {
+        this.tag = tag == null || tag.isEmpty() ? null : tag;
+        return this;
+    }
+
+    /**
+     * Restricts the query to tasks due within a date range (both ends inclusive).
+     *
+     * <p>Tasks without a due date never match once a range is set.
+     *
+     * @param from the first day of the range (null for no lower bound)
+     * @param to the last day of the range (null for no upper bound)
+     * @return this query
+     */
+    public TaskQuery withDueBetween(LocalDate from, LocalDate to) {
+        this.dueFrom = from;
+        this.dueTo = to;
+        return this;
+    }
+
+    /**
+     * Gets the allowed statuses.
+     *
+     * @return the allowed statuses, or null if any status matches
+     */
+    public Set<TaskStatus> getStatuses() {
+        return statuses == null ? null : Collections.unmodifiableSet(statuses);
+    }
+
+    /**
+     * Gets the priority to match.
+     *
+     * @return the priority, or null if any priority matches
+     */
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the category to match.
+     *
+     * @return the category, or null if any category matches
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets the tag to match.
+     *
+     * @return the tag, or null if any tag matches
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Gets the first day of the due-date range.
+     *
+     * @return the first day, or null if there is no lower bound
+     */
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    /**
+     * Gets the last day of the due-date range.
+     *
+     * @return the last day, or null if there is no upper bound
+     */
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+}
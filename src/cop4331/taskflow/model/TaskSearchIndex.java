@@ -0,0 +1,281 @@
+package cop4331.taskflow.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted full-text index over task title, description, category and tags.
+ *
+ * <p>Text is split into lower-case tokens of letters and digits. Each token
+ * maps to the IDs of the tasks that contain it, and the tokens are kept
+ * sorted so a search term matches every token it is a prefix of ("rep"
+ * finds "report" and "repair").
+ *
+ * <p>{@link TaskModel} updates the index on the EDT as tasks change; searches
+ * may run on any thread. A read/write lock keeps the two apart.
+ *
+ * <p>The description and tags of a task that still reads them from storage
+ * (see {@link Task#hasDeferredText()}) aren't decoded when it's indexed.
+ * The first search after that decodes them on the searching thread and adds
+ * their tokens, so loading a big archive doesn't tokenize every record up front.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+class TaskSearchIndex {
+
+    private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> tokensById = new HashMap<>(); // What to remove on re-index
+    private final Map<String, Task.DeferredFields> coldText = new HashMap<>(); // Text not tokenized yet
+    private volatile boolean hasColdText = false;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes a task, replacing whatever was indexed for its ID before.
+     *
+     * @param task the task to index (required, non-null)
+     */
+    void index(Task task) {
+        Set<String> tokens = new HashSet<>();
+        tokenize(task.getTitle(), tokens);
+        tokenize(task.getCategory(), tokens);
+        Task.DeferredFields cold = null;
+        if (task.hasDeferredText()) {
+            cold = task.copyColdFields(); // Tokenized by the next search
+        } else {
+            tokenize(task.getDescription(), tokens);
+            for (String tag : task.getTags()) {
+                tokenize(tag, tokens);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (cold != null) {
+                coldText.put(task.getId(), cold);
+                hasColdText = true;
+            } else {
+                coldText.remove(task.getId());
+            }
+            Set<String> old = tokensById.put(task.getId(), tokens);
+            if (old != null) {
+                for (String token : old) {
+                    if (!tokens.contains(token)) {
+                        removePosting(token, task.getId());
+                    }
+                }
+            }
+            for (String token : tokens) {
+                if (old == null || !old.contains(token)) {
+                    postings.computeIfAbsent(token, k -> new HashSet<>()).add(task.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a task ID from the index.
+     *
+     * @param id the task ID (required, non-null)
+     */
+    void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            coldText.remove(id);
+            Set<String> old = tokensById.remove(id);
+            if (old != null) {
+                for (String token : old) {
+                    removePosting(token, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the tasks that match every term in the text.
+     *
+     * <p>Only the term with the fewest matches is looked up in the postings;
+     * the other terms are checked against each candidate's own tokens, so a
+     * short, common term doesn't cost a huge union.
+     *
+     * @param text the search text (required, non-null)
+     * @return a new set with the matching task IDs (empty if the text has no terms)
+     */
+    Set<String> matchAll(String text) {
+        List<String> terms = new ArrayList<>(tokenize(text, new HashSet<>()));
+        if (terms.isEmpty()) {
+            return new HashSet<>();
+        }
+        // Longer terms usually match fewer tasks; sizing them first lets the others stop early
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+
+        indexColdText();
+        lock.readLock().lock();
+        try {
+            String driver = null;
+            int driverSize = Integer.MAX_VALUE;
+            for (String term : terms) {
+                int size = 0;
+                for (Set<String> ids : prefixRange(term).values()) {
+                    size += ids.size();
+                    if (size >= driverSize) {
+                        break; // Already worse than the best term
+                    }
+                }
+                if (size < driverSize) {
+                    driver = term;
+                    driverSize = size;
+                }
+            }
+
+            Set<String> result = new HashSet<>();
+            for (Set<String> ids : prefixRange(driver).values()) {
+                result.addAll(ids);
+            }
+            for (String term : terms) {
+                if (!term.equals(driver)) {
+                    result.removeIf(id -> !hasTokenStartingWith(tokensById.get(id), term));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the tasks that match at least one term in the text.
+     *
+     * @param text the search text (required, non-null)
+     * @return a new set with the matching task IDs (empty if the text has no terms)
+     */
+    Set<String> matchAny(String text) {
+        Set<String> terms = tokenize(text, new HashSet<>());
+        indexColdText();
+        lock.readLock().lock();
+        try {
+            Set<String> result = new HashSet<>();
+            for (String term : terms) {
+                for (Set<String> ids : prefixRange(term).values()) {
+                    result.addAll(ids);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tokenizes the description and tags of tasks indexed without them.
+     *
+     * <p>The decoding happens outside the lock, so the EDT can keep updating
+     * the index meanwhile; a task that was re-indexed in the meantime is left alone.
+     */
+    private void indexColdText() {
+        if (!hasColdText) {
+            return;
+        }
+        Map<String, Task.DeferredFields> pending;
+        lock.readLock().lock();
+        try {
+            pending = new HashMap<>(coldText);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Set<String>> decoded = new HashMap<>(pending.size() * 2);
+        for (Map.Entry<String, Task.DeferredFields> entry : pending.entrySet()) {
+            Set<String> tokens = new HashSet<>();
+            tokenize(entry.getValue().description(), tokens);
+            for (String tag : entry.getValue().tags()) {
+                tokenize(tag, tokens);
+            }
+            decoded.put(entry.getKey(), tokens);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Set<String>> entry : decoded.entrySet()) {
+                String id = entry.getKey();
+                if (coldText.get(id) != pending.get(id)) {
+                    continue; // Re-indexed or removed since
+                }
+                coldText.remove(id);
+                Set<String> tokens = tokensById.get(id);
+                for (String token : entry.getValue()) {
+                    if (tokens.add(token)) {
+                        postings.computeIfAbsent(token, k -> new HashSet<>()).add(id);
+                    }
+                }
+            }
+            hasColdText = !coldText.isEmpty();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the postings for every token starting with the given prefix.
+     * Must be called with the read lock held.
+     */
+    private NavigableMap<String, Set<String>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean hasTokenStartingWith(Set<String> tokens, String prefix) {
+        for (String token : tokens) {
+            if (token.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removePosting(String token, String id) {
+        Set<String> ids = postings.get(token);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Splits text into lower-case runs of letters and digits and adds them to tokens.
+     *
+     * @param text the text to split (may be null)
+     * @param tokens the set to add the tokens to
+     * @return the tokens set
+     */
+    static Set<String> tokenize(String text, Set<String> tokens) {
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
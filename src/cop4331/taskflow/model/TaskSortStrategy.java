@@ -1,8 +1,30 @@
 package cop4331.taskflow.model;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public interface TaskSortStrategy {
-    List<Task> sort(List<Task> tasks);
-}
 
+    /**
+     * Gets the ordering this strategy sorts by.
+     * 
+     * <p>{@link TaskModel} uses it to keep a cached sorted view and to insert
+     * changed tasks at the right spot without re-sorting everything.
+     * 
+     * @return the comparator for this strategy (never null)
+     */
+    Comparator<Task> getComparator();
+
+    /**
+     * Sorts a copy of the given tasks.
+     * 
+     * @param tasks the tasks to sort (required, non-null, not modified)
+     * @return a new sorted list (never null)
+     */
+    default List<Task> sort(List<Task> tasks) {
+        List<Task> copy = new ArrayList<>(tasks);
+        copy.sort(getComparator());
+        return copy;
+    }
+}
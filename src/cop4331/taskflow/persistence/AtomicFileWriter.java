@@ -0,0 +1,141 @@
+package cop4331.taskflow.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files so that a crash never leaves a half-written one behind.
+ *
+ * <p>The new content goes to a sibling {@code .tmp} file first and is forced
+ * to disk. The current file is then hard-linked (or, where links aren't
+ * supported, copied) to {@code .bak}, keeping one previous generation, and
+ * the temp file is atomically renamed over it. The target is never missing:
+ * at any moment it's either the complete old file or the complete new one.
+ * {@link #resolveForRead(Path)} still falls back to the backup for files
+ * left behind by older versions, which moved the old file away first.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+final class AtomicFileWriter {
+
+    static final String TEMP_SUFFIX = ".tmp";
+    static final String BACKUP_SUFFIX = ".bak";
+
+    /**
+     * Writes the content of a file to a stream.
+     */
+    @FunctionalInterface
+    interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Atomically replaces a file, keeping the old version as a backup.
+     *
+     * @param target the file to write (required, non-null)
+     * @param content writes the new file content (required, non-null)
+     * @throws IOException if writing fails; the target is left as it was
+     */
+    static void write(Path target, Content content) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Path dir = absolute.getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path temp = sibling(absolute, TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+            content.writeTo(out);
+            out.flush(); // Don't close - that would close the channel before force()
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (Files.exists(absolute)) {
+            keepBackup(absolute);
+        }
+        move(temp, absolute); // Replaces the old file in one step
+        syncDirectory(dir);
+    }
+
+    /**
+     * Gets the backup path for a file.
+     *
+     * @param target the file (required, non-null)
+     * @return the path of its previous generation
+     */
+    static Path backupOf(Path target) {
+        return sibling(target, BACKUP_SUFFIX);
+    }
+
+    /**
+     * Gets the file to read for a target: the target itself, or its backup if a
+     * crash happened between moving the old file away and moving the new one in.
+     *
+     * @param target the file to read (required, non-null)
+     * @return the path to read; doesn't exist if neither file does
+     */
+    static Path resolveForRead(Path target) {
+        if (!Files.exists(target) && Files.exists(backupOf(target))) {
+            return backupOf(target);
+        }
+        return target;
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName().toString() + suffix);
+    }
+
+    /**
+     * Makes the backup a second name for the current file, so the file itself
+     * stays where it is. Falls back to a copy where the file system has no hard links.
+     */
+    private static void keepBackup(Path file) throws IOException {
+        Path backup = backupOf(file);
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, file);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(file, backup, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Makes the renames themselves durable. Not every platform lets you open a
+     * directory (Windows doesn't), so this is best effort.
+     */
+    private static void syncDirectory(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported here - the file contents are already forced
+        }
+    }
+}
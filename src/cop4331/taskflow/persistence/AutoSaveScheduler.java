@@ -0,0 +1,223 @@
+package cop4331.taskflow.persistence;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces model changes into background saves.
+ *
+ * <p>Call {@link #changed()} (on the EDT) whenever something needs saving.
+ * The first call starts a window of {@code delayMillis}; further changes in
+ * that window ride along. When the window closes, the snapshot supplier is
+ * called on the EDT to copy whatever needs writing, and the returned
+ * {@link SaveJob} runs on a dedicated save thread. So a burst of edits costs
+ * one write, and the EDT never waits for the disk.
+ *
+ * <p>Save errors are handed to the error handler on the EDT, after the fact,
+ * so a failing disk doesn't block the UI either. A failed job isn't dropped:
+ * it's retried, before any newer one, on the next save. While saves keep
+ * failing (a full disk, say) the error handler only hears about the first
+ * failure and the retries back off, doubling up to a minute apart; the first
+ * save that works again ends the streak and runs the recovery handler.
+ *
+ * <p><b>Preconditions:</b> {@link #changed()}, {@link #flush()} and
+ * {@link #close()} must be called on the EDT.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class AutoSaveScheduler implements AutoCloseable {
+
+    private static final int MIN_RETRY_DELAY_MS = 1000;
+    private static final int MAX_RETRY_DELAY_MS = 60_000;
+
+    /**
+     * Writes a snapshot that was taken on the EDT. Runs on the save thread.
+     */
+    @FunctionalInterface
+    public interface SaveJob {
+        /**
+         * Writes the snapshot.
+         *
+         * @throws IOException if the write fails
+         */
+        void save() throws IOException;
+    }
+
+    private final int delayMillis;
+    private final Supplier<SaveJob> snapshotter;
+    private final Consumer<IOException> errorHandler;
+    private Runnable recoveryHandler = null;
+    private int failureStreak = 0; // Failed saves in a row; only touched on the EDT
+    private final Timer windowTimer;
+    private final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "TaskFlow-AutoSave");
+        thread.setDaemon(true); // flush() on shutdown makes sure nothing is lost
+        return thread;
+    });
+    private Future<?> lastSave;
+    private boolean closed = false;
+    private final Deque<SaveJob> unsaved = new ArrayDeque<>(); // Only touched on the save thread
+    private volatile boolean retryPending = false;
+
+    /**
+     * Creates a scheduler.
+     *
+     * <p><b>Preconditions:</b> snapshotter and errorHandler must be non-null, delayMillis must not be negative
+     *
+     * @param delayMillis how long to collect changes before saving, in milliseconds
+     * @param snapshotter called on the EDT to copy the data and return the job that writes it (required, non-null)
+     * @param errorHandler called on the EDT when a save fails after one that worked; other exceptions arrive
+     *                     wrapped in an IOException (required, non-null)
+     * @throws IllegalArgumentException if snapshotter or errorHandler is null, or delayMillis is negative
+     */
+    public AutoSaveScheduler(int delayMillis, Supplier<SaveJob> snapshotter, Consumer<IOException> errorHandler) {
+        if (snapshotter == null) {
+            throw new IllegalArgumentException("Snapshotter must be non-null");
+        }
+        if (errorHandler == null) {
+            throw new IllegalArgumentException("Error handler must be non-null");
+        }
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        this.delayMillis = delayMillis;
+        this.snapshotter = snapshotter;
+        this.errorHandler = errorHandler;
+        this.windowTimer = new Timer(delayMillis, e -> saveNow());
+        this.windowTimer.setRepeats(false);
+    }
+
+    /**
+     * Sets what to run, on the EDT, when a save works again after failing.
+     *
+     * @param recoveryHandler called once at the end of each failure streak (may be null for nothing)
+     */
+    public void setRecoveryHandler(Runnable recoveryHandler) {
+        this.recoveryHandler = recoveryHandler;
+    }
+
+    /**
+     * Notes that something changed and schedules a save at the end of the current window.
+     *
+     * <p><b>Postconditions:</b> A save will run within the configured delay
+     */
+    public void changed() {
+        if (!closed && !windowTimer.isRunning()) {
+            windowTimer.start(); // Not restart() - a steady stream of edits must still get saved
+        }
+    }
+
+    /**
+     * Saves any pending changes now and waits until every save has finished.
+     *
+     * <p>Meant for shutdown; errors still go to the error handler.
+     */
+    public void flush() {
+        if (windowTimer.isRunning() || retryPending) {
+            windowTimer.stop();
+            saveNow(); // Also retries a failed save whose new window hasn't started yet
+        }
+        if (lastSave != null) {
+            try {
+                lastSave.get(); // The executor is single-threaded, so this is the newest save
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Can't happen - saveNow's task catches everything and reports it
+            }
+        }
+    }
+
+    /**
+     * Flushes pending changes and stops the save thread.
+     *
+     * <p><b>Postconditions:</b> Every change reported so far is saved; later changes are ignored
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        saveExecutor.shutdown();
+        try {
+            saveExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void saveNow() {
+        SaveJob job = snapshotter.get();
+        if (job == null && !retryPending) {
+            return; // Nothing to write after all
+        }
+        lastSave = saveExecutor.submit(() -> {
+            if (job != null) {
+                unsaved.addLast(job);
+            }
+            // Oldest first, so e.g. journal records still land in order
+            while (!unsaved.isEmpty()) {
+                try {
+                    unsaved.peekFirst().save();
+                } catch (IOException | RuntimeException e) {
+                    reportFailure(e);
+                    return;
+                }
+                unsaved.removeFirst();
+            }
+            if (retryPending) {
+                retryPending = false;
+                SwingUtilities.invokeLater(this::recovered);
+            }
+        });
+    }
+
+    /**
+     * Passes a save error on to the EDT. Runs on the save thread.
+     */
+    private void reportFailure(Exception e) {
+        retryPending = true;
+        IOException error = e instanceof IOException ? (IOException) e : new IOException("Unexpected error: " + e, e);
+        SwingUtilities.invokeLater(() -> failed(error));
+    }
+
+    /**
+     * Reports the first failure of a streak and schedules the retry, further off after each failure.
+     */
+    private void failed(IOException error) {
+        failureStreak++;
+        if (failureStreak == 1) {
+            errorHandler.accept(error); // Once - the same error every few seconds helps nobody
+        }
+        long backoff = (long) Math.max(delayMillis, MIN_RETRY_DELAY_MS) << Math.min(failureStreak - 1, 16);
+        windowTimer.setInitialDelay((int) Math.min(backoff, MAX_RETRY_DELAY_MS));
+        changed();
+    }
+
+    /**
+     * Ends a failure streak once a save worked again.
+     */
+    private void recovered() {
+        if (failureStreak == 0) {
+            return;
+        }
+        failureStreak = 0;
+        windowTimer.setInitialDelay(delayMillis);
+        if (recoveryHandler != null) {
+            recoveryHandler.run();
+        }
+    }
+}
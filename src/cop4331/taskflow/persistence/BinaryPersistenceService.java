@@ -0,0 +1,417 @@
+package cop4331.taskflow.persistence;
+
+import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskPriority;
+import cop4331.taskflow.model.TaskStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipException;
+
+/**
+ * Service for persisting tasks in a compact binary file.
+ *
+ * <p>Loading JSON spends most of its time parsing date strings and looking up
+ * enum names. This format stores the same data in a form that needs no
+ * parsing at all: numbers are varints, dates are epoch seconds, enums are
+ * ordinals and tags and categories are indexes into a string table that
+ * holds each distinct value once. IDs in the usual UUID form take 16 bytes.
+ *
+ * <p>File layout (version 1):
+ * <pre>
+ * "TFBN" version
+ * priority names, status names, recurrence names   (count, then strings)
+ * string table                                     (count, then strings)
+ * task count, then per task:
+ *   flags, id, title, [description], [due], [due string],
+ *   priority, status, recurrence, tag indexes, [category index],
+ *   dependencies, [reminder], [createdAt], [updatedAt]
+ * </pre>
+ * Fields in brackets are only present if their flag is set. The enum names
+ * are stored so that reordering an enum can't silently change saved values.
+ *
+ * <p>Saves are atomic and keep a backup, exactly like {@link JsonPersistenceService};
+ * a truncated or damaged file falls back to the backup on load. JSON stays
+ * the format for exports and for reading files by hand. Files can also be
+ * GZIP compressed (see {@link #setCompressionLevel(int)}).
+ *
+ * <p><b>Preconditions:</b> File paths must be valid and writable for save operations.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class BinaryPersistenceService implements PersistenceService {
+
+    private static final byte[] MAGIC = {'T', 'F', 'B', 'N'};
+    private static final int VERSION = 1;
+
+    // Task record flags
+    private static final int UUID_ID = 1;
+    private static final int HAS_DESCRIPTION = 1 << 1;
+    private static final int HAS_DUE = 1 << 2;
+    private static final int HAS_DUE_STRING = 1 << 3;
+    private static final int HAS_CATEGORY = 1 << 4;
+    private static final int HAS_REMINDER = 1 << 5;
+    private static final int HAS_CREATED = 1 << 6;
+    private static final int HAS_UPDATED = 1 << 7;
+
+    private static final int MAX_COUNT = Integer.MAX_VALUE - 8;
+
+    private int compressionLevel = Compression.NONE;
+
+    /**
+     * Sets how much data files are compressed.
+     *
+     * <p>The binary format is already compact, but long descriptions still
+     * compress well. Loading detects compression by itself.
+     *
+     * @param compressionLevel 0 for no compression (the default), 1 (fastest) to 9 (smallest)
+     * @throws IllegalArgumentException if the level is out of range
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        Compression.checkLevel(compressionLevel);
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Gets how much data files are compressed.
+     *
+     * @return the compression level, 0 if files aren't compressed
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    @Override
+    public void save(List<Task> tasks, Path filePath) throws IOException {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks list must be non-null");
+        }
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+
+        AtomicFileWriter.write(filePath, Compression.compress(compressionLevel, out -> {
+            BinaryStreamWriter writer = new BinaryStreamWriter(out);
+            writeTasks(writer, tasks);
+            writer.flush();
+        }));
+    }
+
+    /**
+     * Encodes the tasks right away; only the disk write happens when the snapshot is written.
+     */
+    @Override
+    public Snapshot snapshot(List<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks list must be non-null");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            BinaryStreamWriter writer = new BinaryStreamWriter(bytes);
+            writeTasks(writer, tasks);
+            writer.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e); // ByteArrayOutputStream doesn't throw
+        }
+        AtomicFileWriter.Content content = Compression.compress(compressionLevel, bytes::writeTo);
+        return filePath -> AtomicFileWriter.write(filePath, content);
+    }
+
+    @Override
+    public List<Task> load(Path filePath) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        Path source = AtomicFileWriter.resolveForRead(filePath); // The backup if a save died mid-rename
+        if (!Files.exists(source)) {
+            return new ArrayList<>();
+        }
+
+        // Saves always write at least the header, so an empty, short or broken file
+        // means a save was cut short - use the last good one
+        Path backup = AtomicFileWriter.backupOf(filePath);
+        boolean canFallBack = !source.equals(backup) && Files.exists(backup);
+        List<Task> tasks;
+        try {
+            tasks = readTasks(source);
+        } catch (EOFException | StreamCorruptedException | ZipException e) {
+            if (!canFallBack) {
+                throw e;
+            }
+            System.err.println("Data file is damaged, loading backup: " + e.getMessage());
+            tasks = readTasks(backup);
+        }
+        if (tasks == null && canFallBack) {
+            System.err.println("Data file is empty, loading backup");
+            tasks = readTasks(backup);
+        }
+        return tasks != null ? tasks : new ArrayList<>();
+    }
+
+    private static void writeTasks(BinaryStreamWriter writer, List<Task> tasks) throws IOException {
+        // Tags and categories repeat a lot - each distinct one is stored once
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Task task : tasks) {
+            for (String tag : task.getTags()) {
+                intern(tag, stringIndex, strings);
+            }
+            if (hasText(task.getCategory())) {
+                intern(task.getCategory(), stringIndex, strings);
+            }
+        }
+
+        writer.writeBytes(MAGIC);
+        writer.writeVarLong(VERSION);
+        writeNames(writer, TaskPriority.values());
+        writeNames(writer, TaskStatus.values());
+        writeNames(writer, Task.RecurrenceType.values());
+        writer.writeVarLong(strings.size());
+        for (String string : strings) {
+            writer.writeString(string);
+        }
+
+        writer.writeVarLong(tasks.size());
+        for (Task task : tasks) {
+            writeTask(writer, task, stringIndex);
+        }
+    }
+
+    private static void writeTask(BinaryStreamWriter writer, Task task, Map<String, Integer> stringIndex)
+            throws IOException {
+        UUID uuid = asUuid(task.getId());
+        int flags = (uuid != null ? UUID_ID : 0)
+                | (hasText(task.getDescription()) ? HAS_DESCRIPTION : 0)
+                | (task.getDueDateTime() != null ? HAS_DUE : 0)
+                | (hasText(task.getDueDateString()) ? HAS_DUE_STRING : 0)
+                | (hasText(task.getCategory()) ? HAS_CATEGORY : 0)
+                | (task.getReminderTime() != null ? HAS_REMINDER : 0)
+                | (task.getCreatedAt() != null ? HAS_CREATED : 0)
+                | (task.getUpdatedAt() != null ? HAS_UPDATED : 0);
+        writer.writeVarLong(flags);
+
+        if (uuid != null) {
+            writer.writeLong(uuid.getMostSignificantBits());
+            writer.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            writer.writeString(task.getId());
+        }
+        writer.writeString(task.getTitle());
+        if ((flags & HAS_DESCRIPTION) != 0) {
+            writer.writeString(task.getDescription());
+        }
+        if ((flags & HAS_DUE) != 0) {
+            writeTime(writer, task.getDueDateTime());
+        }
+        if ((flags & HAS_DUE_STRING) != 0) {
+            writer.writeString(task.getDueDateString());
+        }
+        writer.writeVarLong(task.getPriority().ordinal());
+        writer.writeVarLong(task.getStatus().ordinal());
+        writer.writeVarLong(task.getRecurrenceType().ordinal());
+
+        List<String> tags = task.getTags();
+        writer.writeVarLong(tags.size());
+        for (String tag : tags) {
+            writer.writeVarLong(stringIndex.get(tag));
+        }
+        if ((flags & HAS_CATEGORY) != 0) {
+            writer.writeVarLong(stringIndex.get(task.getCategory()));
+        }
+        List<String> dependencies = task.getDependencies();
+        writer.writeVarLong(dependencies.size());
+        for (String depId : dependencies) {
+            writer.writeString(depId);
+        }
+
+        if ((flags & HAS_REMINDER) != 0) {
+            writeTime(writer, task.getReminderTime());
+        }
+        if ((flags & HAS_CREATED) != 0) {
+            writeTime(writer, task.getCreatedAt());
+        }
+        if ((flags & HAS_UPDATED) != 0) {
+            writeTime(writer, task.getUpdatedAt());
+        }
+    }
+
+    /**
+     * Reads a whole data file.
+     *
+     * @return the tasks, or null if the file is empty
+     */
+    private static List<Task> readTasks(Path file) throws IOException {
+        try (BinaryStreamReader reader = new BinaryStreamReader(Compression.decompress(Files.newInputStream(file)))) {
+            if (reader.atEnd()) {
+                return null;
+            }
+            for (byte b : MAGIC) {
+                if (reader.readByte() != (b & 0xFF)) {
+                    throw new StreamCorruptedException("Not a TaskFlow binary data file");
+                }
+            }
+            long version = reader.readVarLong();
+            if (version != VERSION) {
+                throw new IOException("Unsupported data file version " + version);
+            }
+
+            TaskPriority[] priorities = readNames(reader, TaskPriority.class, null);
+            TaskStatus[] statuses = readNames(reader, TaskStatus.class, null);
+            Task.RecurrenceType[] recurrenceTypes =
+                    readNames(reader, Task.RecurrenceType.class, Task.RecurrenceType.NONE);
+            String[] strings = new String[reader.readVarInt(MAX_COUNT)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = reader.readString();
+            }
+
+            int count = reader.readVarInt(MAX_COUNT);
+            List<Task> tasks = new ArrayList<>(Math.min(count, 1 << 16)); // Don't trust a damaged count
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(reader, priorities, statuses, recurrenceTypes, strings));
+            }
+            if (!reader.atEnd()) {
+                throw new StreamCorruptedException("Unexpected data after the last task");
+            }
+            return tasks;
+        }
+    }
+
+    private static Task readTask(BinaryStreamReader reader, TaskPriority[] priorities, TaskStatus[] statuses,
+                                 Task.RecurrenceType[] recurrenceTypes, String[] strings) throws IOException {
+        int flags = reader.readVarInt(0xFF);
+        String id = (flags & UUID_ID) != 0
+                ? new UUID(reader.readLong(), reader.readLong()).toString()
+                : reader.readString();
+        String title = reader.readString();
+        String description = (flags & HAS_DESCRIPTION) != 0 ? reader.readString() : null;
+        LocalDateTime due = (flags & HAS_DUE) != 0 ? readTime(reader) : null;
+        String dueDateString = (flags & HAS_DUE_STRING) != 0 ? reader.readString() : null;
+        TaskPriority priority = lookUp(priorities, reader.readVarInt(MAX_COUNT), "priority");
+        TaskStatus status = lookUp(statuses, reader.readVarInt(MAX_COUNT), "status");
+        Task.RecurrenceType recurrenceType = lookUp(recurrenceTypes, reader.readVarInt(MAX_COUNT), "recurrence");
+
+        int tagCount = reader.readVarInt(MAX_COUNT);
+        List<String> tags = new ArrayList<>(Math.min(tagCount, 64));
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(lookUp(strings, reader.readVarInt(MAX_COUNT), "tag"));
+        }
+        String category = (flags & HAS_CATEGORY) != 0
+                ? lookUp(strings, reader.readVarInt(MAX_COUNT), "category")
+                : null;
+        int dependencyCount = reader.readVarInt(MAX_COUNT);
+        List<String> dependencies = new ArrayList<>(Math.min(dependencyCount, 64));
+        for (int i = 0; i < dependencyCount; i++) {
+            dependencies.add(reader.readString());
+        }
+        LocalDateTime reminder = (flags & HAS_REMINDER) != 0 ? readTime(reader) : null;
+        LocalDateTime createdAt = (flags & HAS_CREATED) != 0 ? readTime(reader) : null;
+        LocalDateTime updatedAt = (flags & HAS_UPDATED) != 0 ? readTime(reader) : null;
+
+        Task task;
+        try {
+            task = new Task(id, title, description, due, priority, status, tags, reminder);
+        } catch (IllegalArgumentException e) {
+            throw new StreamCorruptedException("Invalid task: " + e.getMessage());
+        }
+        // Only call setters that change something - each one stamps updatedAt
+        if (dueDateString != null) {
+            task.setDueDateString(dueDateString);
+        }
+        if (category != null) {
+            task.setCategory(category);
+        }
+        if (!dependencies.isEmpty()) {
+            task.setDependencies(dependencies);
+        }
+        if (recurrenceType != Task.RecurrenceType.NONE) {
+            task.setRecurrenceType(recurrenceType);
+        }
+        task.restoreTimestamps(createdAt, updatedAt);
+        return task;
+    }
+
+    private static <E extends Enum<E>> void writeNames(BinaryStreamWriter writer, E[] values) throws IOException {
+        writer.writeVarLong(values.length);
+        for (E value : values) {
+            writer.writeString(value.name());
+        }
+    }
+
+    /**
+     * Reads the enum names stored in the file and maps each stored ordinal to
+     * today's constant with that name.
+     *
+     * @param fallback used for names that no longer exist, or null if they can't be loaded
+     */
+    private static <E extends Enum<E>> E[] readNames(BinaryStreamReader reader, Class<E> type, E fallback)
+            throws IOException {
+        E[] values = Arrays.copyOf(type.getEnumConstants(), reader.readVarInt(MAX_COUNT));
+        for (int i = 0; i < values.length; i++) {
+            String name = reader.readString();
+            try {
+                values[i] = Enum.valueOf(type, name);
+            } catch (IllegalArgumentException e) {
+                values[i] = fallback; // Only an error if a task actually uses it
+            }
+        }
+        return values;
+    }
+
+    private static <T> T lookUp(T[] table, int index, String what) throws StreamCorruptedException {
+        if (index >= table.length || table[index] == null) {
+            throw new StreamCorruptedException("Unknown " + what + " " + index);
+        }
+        return table[index];
+    }
+
+    private static void writeTime(BinaryStreamWriter writer, LocalDateTime time) throws IOException {
+        writer.writeSignedVarLong(time.toEpochSecond(ZoneOffset.UTC)); // Local time, so no real zone
+    }
+
+    private static LocalDateTime readTime(BinaryStreamReader reader) throws IOException {
+        try {
+            return LocalDateTime.ofEpochSecond(reader.readSignedVarLong(), 0, ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            throw new StreamCorruptedException("Invalid date: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the ID as a UUID if it is one in canonical form, so it can be stored in 16 bytes.
+     */
+    private static UUID asUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null; // Upper case etc. must survive unchanged
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> index, List<String> strings) {
+        if (index.putIfAbsent(value, strings.size()) == null) {
+            strings.add(value);
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -0,0 +1,172 @@
+package cop4331.taskflow.persistence;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads what {@link BinaryStreamWriter} writes.
+ *
+ * <p>Reads the stream in large chunks into an internal buffer and decodes
+ * straight from it, so strings are the only objects created per value.
+ * A file that ends early is reported as {@link EOFException}, a value that
+ * can't be right as {@link StreamCorruptedException}.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+final class BinaryStreamReader implements Closeable {
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[65536];
+    private int pos = 0;
+    private int limit = 0;
+
+    /**
+     * Creates a reader.
+     *
+     * @param in the bytes to read (required, non-null); closed by {@link #close()}
+     */
+    BinaryStreamReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Checks whether the stream has been read to the end.
+     *
+     * @return true if no bytes are left
+     * @throws IOException if reading fails
+     */
+    boolean atEnd() throws IOException {
+        return pos == limit && !fill();
+    }
+
+    /**
+     * Reads one byte.
+     *
+     * @return the byte, 0 to 255
+     * @throws IOException if reading fails or the stream has ended
+     */
+    int readByte() throws IOException {
+        if (pos == limit && !fill()) {
+            throw new EOFException("Unexpected end of file");
+        }
+        return buffer[pos++] & 0xFF;
+    }
+
+    /**
+     * Reads a fixed-width 8-byte number, high byte first.
+     *
+     * @return the number
+     * @throws IOException if reading fails or the stream ends first
+     */
+    long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    /**
+     * Reads a varint.
+     *
+     * @return the number
+     * @throws IOException if reading fails or the varint is too long
+     */
+    long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    /**
+     * Reads a varint that must fit a non-negative int, such as a length or count.
+     *
+     * @param max the largest value that makes sense here
+     * @return the number
+     * @throws IOException if reading fails or the number is out of range
+     */
+    int readVarInt(int max) throws IOException {
+        long value = readVarLong();
+        if (value < 0 || value > max) {
+            throw new StreamCorruptedException("Value " + value + " is out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a zigzag varint.
+     *
+     * @return the number
+     * @throws IOException if reading fails or the varint is too long
+     */
+    long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @return the string
+     * @throws IOException if reading fails or the length is out of range
+     */
+    String readString() throws IOException {
+        int length = readVarInt(Integer.MAX_VALUE - 8);
+        if (length <= limit - pos) {
+            String value = new String(buffer, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+        // Straddles a refill or is longer than the buffer. Grow as bytes arrive, so a
+        // damaged length hits the end of the file before it can exhaust the heap.
+        byte[] bytes = new byte[Math.min(length, buffer.length)];
+        int done = 0;
+        while (done < length) {
+            if (pos == limit && !fill()) {
+                throw new EOFException("Unexpected end of file");
+            }
+            if (done == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, bytes.length * 2L));
+            }
+            int n = Math.min(bytes.length - done, limit - pos);
+            System.arraycopy(buffer, pos, bytes, done, n);
+            pos += n;
+            done += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Refills the buffer once it has been used up.
+     */
+    private boolean fill() throws IOException {
+        pos = 0;
+        limit = 0;
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,162 @@
+package cop4331.taskflow.persistence;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the primitives of the binary data file format to a stream.
+ *
+ * <p>Integers are written as varints (7 bits per byte, low bits first, high
+ * bit set on every byte but the last), so small numbers take one byte.
+ * Signed values are zigzag-encoded first so small negative numbers stay
+ * small too. Strings are a varint byte length followed by UTF-8.
+ *
+ * <p>Bytes collect in an internal buffer and go to the stream in large
+ * chunks, so the stream itself doesn't need to be buffered.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+final class BinaryStreamWriter implements Closeable, Flushable {
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[65536];
+    private int count = 0;
+    private long written = 0; // Bytes already handed to the stream
+
+    /**
+     * Creates a writer.
+     *
+     * @param out where the bytes go (required, non-null); closed by {@link #close()}
+     */
+    BinaryStreamWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes one byte.
+     *
+     * @param value the byte, in the low 8 bits
+     * @throws IOException if writing fails
+     */
+    void writeByte(int value) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = (byte) value;
+    }
+
+    /**
+     * Writes bytes as they are.
+     *
+     * @param bytes the bytes (required, non-null)
+     * @throws IOException if writing fails
+     */
+    void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - count) {
+            drain();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                written += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    /**
+     * Writes a fixed-width 4-byte number, high byte first.
+     *
+     * @param value the number
+     * @throws IOException if writing fails
+     */
+    void writeInt(int value) throws IOException {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            writeByte(value >>> shift);
+        }
+    }
+
+    /**
+     * Writes a fixed-width 8-byte number, high byte first.
+     *
+     * @param value the number
+     * @throws IOException if writing fails
+     */
+    void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * Writes a non-negative number as a varint.
+     *
+     * @param value the number; negative values take the full 10 bytes
+     * @throws IOException if writing fails
+     */
+    void writeVarLong(long value) throws IOException {
+        if (buffer.length - count < 10) {
+            drain();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[count++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[count++] = (byte) value;
+    }
+
+    /**
+     * Writes a number that may be negative as a zigzag varint.
+     *
+     * @param value the number
+     * @throws IOException if writing fails
+     */
+    void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes.
+     *
+     * @param value the string (required, non-null)
+     * @throws IOException if writing fails
+     */
+    void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Gets the number of bytes written so far, including those still buffered.
+     *
+     * @return the offset the next byte will have in the output
+     */
+    long position() {
+        return written + count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            written += count;
+            count = 0;
+        }
+    }
+}
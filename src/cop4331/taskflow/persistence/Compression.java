@@ -0,0 +1,130 @@
+package cop4331.taskflow.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP compression for data files and exports.
+ *
+ * <p>Compressed files are plain GZIP, so they can be inspected with
+ * {@code zcat}. Reading never needs to be told whether a file is compressed:
+ * {@link #decompress(InputStream)} looks at the first two bytes, which are
+ * always 0x1f 0x8b for GZIP and can't start a JSON, CSV, XML or binary data
+ * file.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+final class Compression {
+
+    /** Level that turns compression off. */
+    static final int NONE = 0;
+    /** Level used when a file has to be compressed but no level was chosen. */
+    static final int DEFAULT_LEVEL = 6;
+    static final int MAX_LEVEL = 9;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Compression() {
+    }
+
+    /**
+     * Checks a compression level.
+     *
+     * @param level 0 for no compression, 1 (fastest) to 9 (smallest)
+     * @throws IllegalArgumentException if the level is out of range
+     */
+    static void checkLevel(int level) {
+        if (level < NONE || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9");
+        }
+    }
+
+    /**
+     * Wraps file content so it's written compressed.
+     *
+     * <p>The GZIP trailer is written without closing the stream, so this
+     * works with {@link AtomicFileWriter}, which needs the file open until
+     * it has been forced to disk. The native deflater is released right
+     * away, also if writing fails, rather than whenever it's garbage collected.
+     *
+     * @param level 0 to write the content unchanged, otherwise 1 to 9
+     * @param content the uncompressed content (required, non-null)
+     * @return content that writes the compressed bytes
+     */
+    static AtomicFileWriter.Content compress(int level, AtomicFileWriter.Content content) {
+        if (level == NONE) {
+            return content;
+        }
+        return out -> {
+            LevelGZIPOutputStream gzip = new LevelGZIPOutputStream(out, level);
+            try {
+                content.writeTo(gzip);
+                gzip.finish();
+            } finally {
+                gzip.release();
+            }
+        };
+    }
+
+    /**
+     * Wraps a stream so everything written to it is compressed. Closing the
+     * returned stream finishes the GZIP data and closes the original stream.
+     *
+     * @param out the stream to write to (required, non-null)
+     * @param level 0 to return the stream itself, otherwise 1 to 9
+     * @return the stream to write the uncompressed content to
+     * @throws IOException if the GZIP header can't be written
+     */
+    static OutputStream compress(OutputStream out, int level) throws IOException {
+        return level == NONE ? out : new LevelGZIPOutputStream(out, level);
+    }
+
+    /**
+     * Wraps a stream so it reads the same way whether the file is compressed or not.
+     *
+     * @param in the raw file stream (required, non-null); closed with the returned stream
+     * @return a buffered stream of the uncompressed content
+     * @throws IOException if the stream can't be read or the GZIP header is invalid
+     */
+    static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        boolean gzip = buffered.read() == GZIP_MAGIC_1 && buffered.read() == GZIP_MAGIC_2;
+        buffered.reset();
+        return gzip ? new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE) : buffered;
+    }
+
+    /**
+     * GZIPOutputStream always uses the default level; this one takes it as a parameter.
+     * Finishing also frees the deflater, since nothing can be written after the trailer anyway.
+     */
+    private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+        LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            try {
+                super.finish();
+            } finally {
+                release();
+            }
+        }
+
+        /**
+         * Frees the native deflater. Safe to call more than once.
+         */
+        void release() {
+            def.end();
+        }
+    }
+}
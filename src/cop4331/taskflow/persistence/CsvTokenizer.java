@@ -0,0 +1,256 @@
+package cop4331.taskflow.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Splits CSV text into records and fields, following RFC 4180.
+ *
+ * <p>A single pass over a reusable {@link CharBuffer} handles quoted fields
+ * containing commas, quotes ({@code ""}) and line breaks, and records ending
+ * in CRLF, LF or a lone CR. Quoted fields are unescaped in place, so each
+ * field is just a start and end offset into the buffer: {@link #field(int)}
+ * returns a view of it without copying, and only {@link #fieldString(int)}
+ * creates a string.
+ *
+ * <p>Text after a closing quote is kept as is ({@code "a"b} reads as
+ * {@code ab}), and a quote inside an unquoted field is an ordinary character.
+ * A file that ends inside a quoted field ends the last field there.
+ *
+ * <p>Fields are only valid until the next call to {@link #nextRecord()}.
+ * Not thread-safe.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+final class CsvTokenizer implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private char[] buffer;
+    private CharBuffer view;
+    private int position = 0; // Next character to scan
+    private int limit = 0; // End of the characters read so far
+    private boolean endOfInput = false;
+    private boolean afterCarriageReturn = false; // The last record ended in CR; skip a LF right after it
+
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount = 0;
+    private long recordNumber = 0;
+
+    /**
+     * Creates a tokenizer reading from a character stream.
+     *
+     * @param reader the CSV text (required, non-null); closed with the tokenizer
+     */
+    CsvTokenizer(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    CsvTokenizer(Reader reader, int bufferSize) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader must be non-null");
+        }
+        this.reader = reader;
+        this.buffer = new char[Math.max(bufferSize, 16)];
+        this.view = CharBuffer.wrap(buffer);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return true if there was one, false at the end of the input
+     * @throws IOException if reading fails
+     */
+    boolean nextRecord() throws IOException {
+        fieldCount = 0;
+        if (position >= limit && !fill()) {
+            return false;
+        }
+        if (afterCarriageReturn) {
+            afterCarriageReturn = false;
+            if (buffer[position] == '\n') { // CR LF is one line break
+                position++;
+                if (position >= limit && !fill()) {
+                    return false;
+                }
+            }
+        }
+
+        int recordStart = position;
+        int start = position;
+        int out = position; // Where the unescaped text goes; never ahead of position
+        boolean quoted = false;
+        boolean afterQuote = false; // Just saw a quote inside a quoted field: closing or the first of ""
+
+        while (true) {
+            if (position >= limit) {
+                int shift = compact(recordStart);
+                recordStart -= shift;
+                start -= shift;
+                out -= shift;
+                if (!fill()) {
+                    addField(start, out); // End of input ends the record (and any open quote)
+                    recordNumber++;
+                    return true;
+                }
+            }
+            char c = buffer[position++];
+            if (quoted) {
+                if (afterQuote) {
+                    afterQuote = false;
+                    if (c == '"') {
+                        buffer[out++] = '"'; // "" inside quotes
+                        continue;
+                    }
+                    quoted = false; // That was the closing quote - handle c below
+                } else if (c == '"') {
+                    afterQuote = true;
+                    continue;
+                } else {
+                    buffer[out++] = c;
+                    continue;
+                }
+            }
+            if (c == ',') {
+                addField(start, out);
+                start = position;
+                out = position;
+            } else if (c == '\n' || c == '\r') {
+                addField(start, out);
+                afterCarriageReturn = c == '\r';
+                recordNumber++;
+                return true;
+            } else if (c == '"' && out == start) {
+                quoted = true;
+            } else {
+                buffer[out++] = c;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of fields in the current record. An empty line has one empty field.
+     *
+     * @return the field count
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets a field as a view into the buffer, without copying it.
+     *
+     * <p>The same view object is reused for every call.
+     *
+     * @param index the field, 0 to fieldCount() - 1
+     * @return the field text, valid until the next call to this method or {@link #nextRecord()}
+     */
+    CharBuffer field(int index) {
+        checkIndex(index);
+        view.limit(ends[index]).position(starts[index]);
+        return view;
+    }
+
+    /**
+     * Gets a field as a string.
+     *
+     * @param index the field, 0 to fieldCount() - 1
+     * @return the field text (never null, may be empty)
+     */
+    String fieldString(int index) {
+        checkIndex(index);
+        return new String(buffer, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Gets the length of a field.
+     *
+     * @param index the field, 0 to fieldCount() - 1
+     * @return the number of characters in the field
+     */
+    int fieldLength(int index) {
+        checkIndex(index);
+        return ends[index] - starts[index];
+    }
+
+    /**
+     * Gets how many records have been read, counting the current one.
+     *
+     * @return the record number, 1 for the first record
+     */
+    long recordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+    }
+
+    /**
+     * Moves the current record to the front of the buffer, growing the buffer
+     * if the record already fills it, so there's room to read more.
+     *
+     * @param recordStart where the current record starts
+     * @return how far everything moved to the left
+     */
+    private int compact(int recordStart) {
+        int kept = limit - recordStart;
+        if (kept == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2); // One record bigger than the buffer
+            view = CharBuffer.wrap(buffer);
+        } else if (recordStart > 0) {
+            System.arraycopy(buffer, recordStart, buffer, 0, kept);
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            starts[i] -= recordStart;
+            ends[i] -= recordStart;
+        }
+        position -= recordStart;
+        limit = kept;
+        return recordStart;
+    }
+
+    /**
+     * Reads more characters after the limit.
+     *
+     * @return false if the input is used up
+     */
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        if (limit == buffer.length) {
+            compact(position);
+        }
+        int n = reader.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            endOfInput = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+}
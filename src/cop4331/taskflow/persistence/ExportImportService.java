@@ -1,5 +1,7 @@
 package cop4331.taskflow.persistence;
 
+import cop4331.taskflow.command.CommandManager;
+import cop4331.taskflow.command.ImportTasksCommand;
 import cop4331.taskflow.model.Task;
 import cop4331.taskflow.model.TaskModel;
 import cop4331.taskflow.model.TaskPriority;
@@ -8,21 +10,37 @@ import cop4331.taskflow.model.TaskStatus;
 import javax.swing.*;
 import java.awt.Component;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
- * Service for exporting and importing tasks to/from various formats (JSON, CSV, XML).
+ * Service for exporting and importing tasks to/from various formats (JSON, NDJSON, CSV, XML).
  * 
- * <p>This service provides functionality to export tasks to JSON, CSV, or XML formats
+ * <p>This service provides functionality to export tasks to JSON, NDJSON, CSV, or XML formats
  * and import tasks from these formats.
  * 
+ * <p>Exports are GZIP compressed if a compression level is set or the file
+ * name ends in {@code .gz}. Imports detect compressed files by themselves.
+ * 
  * @author TaskFlow Team
  * @version 1.0
  */
@@ -30,6 +48,54 @@ public class ExportImportService {
     
     private static final DateTimeFormatter DATE_FORMATTER = 
             DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final long PROGRESS_INTERVAL = 1 << 20; // Report import progress once per MB
+    private static final int IMPORT_CHUNK_SIZE = 8 << 20; // Bytes per parallel import chunk
+    private static final int MAX_IMPORT_CHUNK = 256 << 20; // A chunk is read into memory whole, so cap it
+
+    private int compressionLevel = Compression.NONE;
+    private ImportTasksCommand.ConflictPolicy conflictPolicy = ImportTasksCommand.ConflictPolicy.NEWEST_UPDATED_AT;
+
+    /**
+     * Sets how much exported files are compressed.
+     * 
+     * @param compressionLevel 0 for no compression (the default), 1 (fastest) to 9 (smallest)
+     * @throws IllegalArgumentException if the level is out of range
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        Compression.checkLevel(compressionLevel);
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Gets how much exported files are compressed.
+     * 
+     * @return the compression level, 0 if exports aren't compressed
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets what an import into a model does with tasks whose ID is already there.
+     * 
+     * @param conflictPolicy the policy (required, non-null); the newest updatedAt wins by default
+     * @throws IllegalArgumentException if conflictPolicy is null
+     */
+    public void setConflictPolicy(ImportTasksCommand.ConflictPolicy conflictPolicy) {
+        if (conflictPolicy == null) {
+            throw new IllegalArgumentException("Conflict policy must be non-null");
+        }
+        this.conflictPolicy = conflictPolicy;
+    }
+
+    /**
+     * Gets what an import into a model does with tasks whose ID is already there.
+     * 
+     * @return the conflict policy (never null)
+     */
+    public ImportTasksCommand.ConflictPolicy getConflictPolicy() {
+        return conflictPolicy;
+    }
     
     /**
      * Exports tasks to a JSON file.
@@ -41,6 +107,7 @@ public class ExportImportService {
     public void exportToJSON(List<Task> tasks, Path filePath) throws IOException {
         // Export to JSON - because sometimes I need to backup my tasks (or share them)
         JsonPersistenceService jsonService = new JsonPersistenceService();
+        jsonService.setCompressionLevel(levelFor(filePath));
         jsonService.save(tasks, filePath);
     }
     
@@ -53,7 +120,7 @@ public class ExportImportService {
      */
     public void exportToCSV(List<Task> tasks, Path filePath) throws IOException {
         // CSV export - for when I want to open my tasks in Excel (because why not?)
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
+        try (BufferedWriter writer = newWriter(filePath)) {
             // Write CSV header - all the columns I care about
             writer.write("ID,Title,Description,Due Date,Due Date String,Priority,Status,Category,Tags,Reminder Time,Created At,Updated At,Dependencies");
             writer.newLine();
@@ -103,7 +170,7 @@ public class ExportImportService {
      */
     public void exportToXML(List<Task> tasks, Path filePath) throws IOException {
         // XML export - because XML is still a thing, I guess? (Honestly, I prefer JSON)
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
+        try (BufferedWriter writer = newWriter(filePath)) {
             writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
             writer.newLine();
             writer.write("<tasks>");
@@ -165,6 +232,85 @@ public class ExportImportService {
             writer.newLine();
         }
     }
+
+    /**
+     * Exports tasks to a newline-delimited JSON (NDJSON) file.
+     * 
+     * <p>Each line is one compact task object, the same fields as the JSON
+     * export, and every line ends in a line feed. Line breaks inside text are
+     * escaped, so a file can be cut at any line feed ({@code split -l},
+     * {@link #importFromNDJSONParallel(Path, ForkJoinPool)}) and the pieces
+     * joined again with {@code cat}. Tasks are written as they're
+     * serialized; nothing is built in memory.
+     * 
+     * @param tasks the tasks to export (required, non-null)
+     * @param filePath the path to save the NDJSON file (required, non-null)
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if tasks or filePath is null
+     */
+    public void exportToNDJSON(Collection<Task> tasks, Path filePath) throws IOException {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks must be non-null");
+        }
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        try (BufferedWriter writer = newWriter(filePath, levelFor(filePath))) {
+            writeNDJSON(tasks, writer);
+        }
+    }
+
+    /**
+     * Appends tasks to the end of an NDJSON file, creating it if needed.
+     * 
+     * <p>Meant for incremental exports: only the new or changed tasks are
+     * written each time, and the existing lines are never read or rewritten.
+     * A compressed file gets another GZIP member, which reads back as one
+     * stream. If an earlier append was cut off mid-line, the new tasks start
+     * on a fresh line so only the cut-off task is lost (it's skipped on import).
+     * 
+     * @param tasks the tasks to append (required, non-null)
+     * @param filePath the NDJSON file (required, non-null)
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if tasks or filePath is null
+     */
+    public void appendToNDJSON(Collection<Task> tasks, Path filePath) throws IOException {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks must be non-null");
+        }
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        int level = levelFor(filePath);
+        boolean startNewLine = false;
+        if (Files.exists(filePath) && Files.size(filePath) > 0) {
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                if (isCompressed(channel)) {
+                    level = level != Compression.NONE ? level : Compression.DEFAULT_LEVEL;
+                } else {
+                    level = Compression.NONE; // Must match what's there already
+                    ByteBuffer last = ByteBuffer.allocate(1);
+                    channel.read(last, channel.size() - 1);
+                    startNewLine = last.get(0) != '\n';
+                }
+            }
+        }
+        try (BufferedWriter writer = newWriter(filePath, level,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (startNewLine) {
+                writer.write('\n');
+            }
+            writeNDJSON(tasks, writer);
+        }
+    }
+
+    private static void writeNDJSON(Collection<Task> tasks, Writer writer) throws IOException {
+        JsonStreamWriter json = new JsonStreamWriter(writer, 0); // Not closed - the caller owns the writer
+        for (Task task : tasks) {
+            JsonPersistenceService.writeTask(json, task);
+            writer.write('\n');
+        }
+    }
     
     /**
      * Imports tasks from a JSON file.
@@ -187,59 +333,542 @@ public class ExportImportService {
      */
     public List<Task> importFromCSV(Path filePath) throws IOException {
         List<Task> tasks = new ArrayList<>();
-        List<String> lines = Files.readAllLines(filePath);
-        
-        if (lines.isEmpty()) {
-            return tasks;
+        importFromCSV(filePath, tasks::add, null);
+        return tasks;
+    }
+
+    /**
+     * Streams tasks out of a CSV file, one record at a time.
+     * 
+     * <p>Only the current record is held in memory, so files far larger
+     * than the heap can be imported as long as the sink doesn't keep every
+     * task. Records that can't be parsed are skipped, as before.
+     * 
+     * <p><b>Preconditions:</b> filePath and sink must be non-null
+     * 
+     * @param filePath the path to the CSV file, optionally GZIP compressed (required, non-null)
+     * @param sink receives each task as soon as it has been parsed (required, non-null)
+     * @param progress told how many bytes of the file have been read so far,
+     *                 about once per megabyte and once at the end (may be null)
+     * @return the number of tasks passed to the sink
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if filePath or sink is null
+     */
+    public long importFromCSV(Path filePath, Consumer<Task> sink, LongConsumer progress) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
         }
-        
-        // Skip header line
-        for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i);
-            if (line.trim().isEmpty()) continue;
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink must be non-null");
+        }
+        CountingInputStream counted = new CountingInputStream(Files.newInputStream(filePath), progress);
+        long imported;
+        try (CsvTokenizer csv = new CsvTokenizer(new InputStreamReader(
+                Compression.decompress(counted), StandardCharsets.UTF_8))) {
+            csv.nextRecord(); // Skip header line
+            imported = parseCSVRecords(csv, sink);
+        }
+        counted.reportProgress();
+        return imported;
+    }
+
+    /**
+     * Imports tasks from a CSV file using several threads.
+     * 
+     * <p>The file is cut into chunks of about 8 MB
+     * at record boundaries (a quick scan over the bytes tracks quotes, so a
+     * line break inside a quoted field is never taken as one), and the chunks
+     * are parsed as separate tasks on the pool. The result is in file order,
+     * exactly as {@link #importFromCSV(Path)} would return it.
+     * 
+     * <p>A compressed file can't be cut up, so it's read on the calling
+     * thread, as is any file if the pool only has one thread. So is a file
+     * with a record that won't fit in a 256 MB chunk - usually a quote that
+     * is never closed, which swallows the rest of the file.
+     * 
+     * <p><b>Preconditions:</b> filePath and pool must be non-null
+     * 
+     * @param filePath the path to the CSV file (required, non-null)
+     * @param pool the pool to parse on (required, non-null)
+     * @return list of imported tasks, in file order
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if filePath or pool is null
+     */
+    public List<Task> importFromCSVParallel(Path filePath, ForkJoinPool pool) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must be non-null");
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (pool.getParallelism() < 2 || isCompressed(channel)) {
+                return importFromCSV(filePath); // Nothing to gain, or can't be cut up
+            }
+            long[] bounds = findCSVChunks(channel, IMPORT_CHUNK_SIZE);
+            if (bounds == null) {
+                return importFromCSV(filePath); // No cut within the cap (an unbalanced quote, say) - stream it
+            }
+            return importChunks(channel, bounds, pool, (chunk, first, sink) -> {
+                try (CsvTokenizer csv = new CsvTokenizer(chunk)) {
+                    if (first) {
+                        csv.nextRecord(); // Skip header line
+                    }
+                    parseCSVRecords(csv, sink);
+                }
+            });
+        }
+    }
+
+    /**
+     * Imports tasks from an NDJSON file.
+     * 
+     * @param filePath the path to the NDJSON file, optionally GZIP compressed (required, non-null)
+     * @return list of imported tasks, in file order
+     * @throws IOException if an I/O error occurs
+     */
+    public List<Task> importFromNDJSON(Path filePath) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        importFromNDJSON(filePath, tasks::add, null);
+        return tasks;
+    }
+
+    /**
+     * Streams tasks out of an NDJSON file, one line at a time.
+     * 
+     * <p>Only the current line is held in memory. Blank lines are ignored and
+     * lines that can't be parsed (like a line cut off by an interrupted
+     * append) are skipped, the same as invalid CSV records.
+     * 
+     * <p><b>Preconditions:</b> filePath and sink must be non-null
+     * 
+     * @param filePath the path to the NDJSON file, optionally GZIP compressed (required, non-null)
+     * @param sink receives each task as soon as it has been parsed (required, non-null)
+     * @param progress told how many bytes of the file have been read so far,
+     *                 about once per megabyte and once at the end (may be null)
+     * @return the number of tasks passed to the sink
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if filePath or sink is null
+     */
+    public long importFromNDJSON(Path filePath, Consumer<Task> sink, LongConsumer progress) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink must be non-null");
+        }
+        CountingInputStream counted = new CountingInputStream(Files.newInputStream(filePath), progress);
+        long imported;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(
+                Compression.decompress(counted), StandardCharsets.UTF_8))) {
+            imported = parseNDJSONLines(lines, sink);
+        }
+        counted.reportProgress();
+        return imported;
+    }
+
+    /**
+     * Imports tasks from an NDJSON file using several threads.
+     * 
+     * <p>Works like {@link #importFromCSVParallel(Path, ForkJoinPool)}, but
+     * finding the chunks is cheaper: a line feed always ends a task, so each
+     * cut only needs a short read at the chunk boundary, not a scan of the
+     * whole file. The result is in file order, exactly as
+     * {@link #importFromNDJSON(Path)} would return it.
+     * 
+     * <p>A compressed file can't be cut up, so it's read on the calling
+     * thread, as is any file if the pool only has one thread or has a line
+     * longer than 256 MB.
+     * 
+     * <p><b>Preconditions:</b> filePath and pool must be non-null
+     * 
+     * @param filePath the path to the NDJSON file (required, non-null)
+     * @param pool the pool to parse on (required, non-null)
+     * @return list of imported tasks, in file order
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if filePath or pool is null
+     */
+    public List<Task> importFromNDJSONParallel(Path filePath, ForkJoinPool pool) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool must be non-null");
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (pool.getParallelism() < 2 || isCompressed(channel)) {
+                return importFromNDJSON(filePath); // Nothing to gain, or can't be cut up
+            }
+            long[] bounds = findLineChunks(channel, IMPORT_CHUNK_SIZE);
+            if (bounds == null) {
+                return importFromNDJSON(filePath); // A line longer than the cap - stream it
+            }
+            return importChunks(channel, bounds, pool,
+                    (chunk, first, sink) -> parseNDJSONLines(new BufferedReader(chunk), sink));
+        }
+    }
+
+    /**
+     * Parses the remaining lines of an NDJSON reader, skipping blank and invalid ones.
+     * 
+     * @return the number of tasks passed to the sink
+     */
+    private static long parseNDJSONLines(BufferedReader lines, Consumer<Task> sink) throws IOException {
+        long imported = 0;
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
             
-            String[] parts = parseCSVLine(line);
-            if (parts.length < 6) continue; // Need at least ID, Title, Description, Due Date, Priority, Status
+            try (JsonStreamReader reader = new JsonStreamReader(new StringReader(line), line.length())) {
+                Task task = JsonPersistenceService.readTask(reader);
+                reader.peek(); // Fails on anything after the object
+                sink.accept(task);
+                imported++;
+            } catch (JSONException | DateTimeParseException | IllegalArgumentException e) {
+                // Skip invalid lines
+                System.err.println("Error parsing NDJSON line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Parses the remaining records of a tokenizer, skipping blank and invalid ones.
+     * 
+     * @return the number of tasks passed to the sink
+     */
+    private long parseCSVRecords(CsvTokenizer csv, Consumer<Task> sink) throws IOException {
+        long imported = 0;
+        while (csv.nextRecord()) {
+            if (csv.fieldCount() == 1 && csv.fieldString(0).isBlank()) continue;
             
-            try {
-                String id = unescapeCSV(parts[0]);
-                String title = unescapeCSV(parts[1]);
-                String description = unescapeCSV(parts.length > 2 ? parts[2] : "");
-                LocalDateTime dueDateTime = null;
-                if (parts.length > 3 && !parts[3].isEmpty()) {
-                    dueDateTime = LocalDateTime.parse(parts[3], DATE_FORMATTER);
+            Task task = parseCSVRecord(csv);
+            if (task != null) {
+                sink.accept(task);
+                imported++;
+            }
+        }
+        return imported;
+    }
+
+    private static boolean isCompressed(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) {
+            // Read both bytes
+        }
+        return magic.position() == 2 && (magic.get(0) & 0xFF) == 0x1f && (magic.get(1) & 0xFF) == 0x8b;
+    }
+
+    /**
+     * Finds where to cut a line-based file into chunks of roughly the given size.
+     * 
+     * <p>Reads forward from each multiple of the chunk size to the next line
+     * feed and cuts after it.
+     * 
+     * @return the chunk offsets: chunk i runs from bounds[i] to bounds[i + 1],
+     *         or null if a chunk would be longer than {@link #MAX_IMPORT_CHUNK}
+     */
+    private static long[] findLineChunks(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long offset = chunkSize - 1; // A line feed here makes the first chunk exactly chunkSize
+        while (offset < size - 1) {
+            buffer.clear();
+            int n = channel.read(buffer, offset);
+            if (n <= 0) {
+                break;
+            }
+            int i = 0;
+            while (i < n && buffer.get(i) != '\n') {
+                i++;
+            }
+            if (i == n) {
+                offset += n; // Long line - keep looking
+                if (offset - bounds.get(bounds.size() - 1) > MAX_IMPORT_CHUNK) {
+                    return null;
                 }
-                String dueDateString = parts.length > 4 ? unescapeCSV(parts[4]) : null;
-                TaskPriority priority = TaskPriority.valueOf(parts.length > 5 ? parts[5] : "LOW");
-                TaskStatus status = TaskStatus.valueOf(parts.length > 6 ? parts[6] : "PENDING");
-                String category = parts.length > 7 ? unescapeCSV(parts[7]) : null;
-                
-                List<String> tags = new ArrayList<>();
-                if (parts.length > 8 && !parts[8].isEmpty()) {
-                    String[] tagArray = parts[8].split(";");
-                    for (String tag : tagArray) {
-                        if (!tag.trim().isEmpty()) {
-                            tags.add(tag.trim());
+                continue;
+            }
+            long end = offset + i + 1;
+            if (end < size) {
+                bounds.add(end);
+            }
+            offset = end + chunkSize - 1;
+        }
+        if (size - bounds.get(bounds.size() - 1) > MAX_IMPORT_CHUNK) {
+            return null;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Finds where to cut a CSV file into chunks of roughly the given size.
+     * 
+     * <p>Runs the same quote rules as {@link CsvTokenizer} over the raw bytes
+     * (quotes, commas and line breaks are single bytes in UTF-8, so no
+     * decoding is needed) and cuts after the first line feed outside quotes
+     * once a chunk is big enough.
+     * 
+     * @return the chunk offsets: chunk i runs from bounds[i] to bounds[i + 1],
+     *         or null if a chunk would be longer than {@link #MAX_IMPORT_CHUNK}
+     */
+    private static long[] findCSVChunks(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long next = chunkSize;
+        boolean quoted = false;
+        boolean afterQuote = false;
+        boolean fieldEmpty = true;
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        long offset = 0;
+        while (next < size && offset < size) {
+            buffer.clear();
+            int n = channel.read(buffer, offset);
+            if (n <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < n; i++) {
+                byte b = bytes[i];
+                if (quoted) {
+                    if (afterQuote) {
+                        afterQuote = false;
+                        if (b == '"') {
+                            fieldEmpty = false; // "" inside quotes
+                            continue;
                         }
+                        quoted = false; // That was the closing quote - handle b below
+                    } else {
+                        if (b == '"') {
+                            afterQuote = true;
+                        } else {
+                            fieldEmpty = false;
+                        }
+                        continue;
                     }
                 }
-                
-                Task task = new Task(id, title, description, dueDateTime, priority, status, tags, null);
-                if (dueDateString != null && !dueDateString.isEmpty()) {
-                    task.setDueDateString(dueDateString);
+                if (b == ',' || b == '\r') {
+                    fieldEmpty = true;
+                } else if (b == '\n') {
+                    fieldEmpty = true;
+                    long end = offset + i + 1;
+                    if (end >= next && end < size) {
+                        bounds.add(end);
+                        next = end + chunkSize;
+                    }
+                } else if (b == '"' && fieldEmpty) {
+                    quoted = true;
+                } else {
+                    fieldEmpty = false;
                 }
-                if (category != null && !category.isEmpty()) {
-                    task.setCategory(category);
+            }
+            offset += n;
+            if (offset - bounds.get(bounds.size() - 1) > MAX_IMPORT_CHUNK) {
+                return null; // Still inside quotes, most likely
+            }
+        }
+        if (size - bounds.get(bounds.size() - 1) > MAX_IMPORT_CHUNK) {
+            return null;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the chunks of a file on a pool and puts the results together in file order.
+     * 
+     * @param bounds the chunk offsets: chunk i runs from bounds[i] to bounds[i + 1]
+     */
+    private static List<Task> importChunks(FileChannel channel, long[] bounds, ForkJoinPool pool,
+                                           ChunkFormat format) throws IOException {
+        List<List<Task>> chunks = new ArrayList<>(Collections.nCopies(bounds.length - 1, null));
+        try {
+            pool.invoke(new ChunkParser(channel, bounds, 0, bounds.length - 1, chunks, format));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        int total = 0;
+        for (List<Task> chunk : chunks) {
+            total += chunk.size();
+        }
+        List<Task> tasks = new ArrayList<>(total);
+        for (List<Task> chunk : chunks) {
+            tasks.addAll(chunk);
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the tasks in one chunk of an import file.
+     */
+    @FunctionalInterface
+    private interface ChunkFormat {
+        /**
+         * @param chunk the text of the chunk, starting at a record boundary
+         * @param first whether this is the first chunk of the file
+         * @param sink receives the tasks in order
+         */
+        void parse(Reader chunk, boolean first, Consumer<Task> sink) throws IOException;
+    }
+
+    /**
+     * Parses a range of chunks, splitting the range in two until a single chunk is left.
+     */
+    private static final class ChunkParser extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // ForkJoinTask is Serializable, though these never get serialized
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+        private final List<List<Task>> results; // One slot per chunk, so no locking is needed
+        private final ChunkFormat format;
+
+        ChunkParser(FileChannel channel, long[] bounds, int from, int to, List<List<Task>> results,
+                    ChunkFormat format) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.format = format;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkParser(channel, bounds, from, mid, results, format),
+                        new ChunkParser(channel, bounds, mid, to, results, format));
+                return;
+            }
+            try {
+                results.set(from, parseChunk(from));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private List<Task> parseChunk(int chunk) throws IOException {
+            // The finders cap chunks well below 2 GB; toIntExact makes sure a bad bound can't wrap around
+            ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(bounds[chunk + 1] - bounds[chunk]));
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, bounds[chunk] + bytes.position()) < 0) {
+                    throw new EOFException("File got shorter while importing");
                 }
-                
-                tasks.add(task);
-            } catch (Exception e) {
-                // Skip invalid lines
-                System.err.println("Error parsing CSV line: " + e.getMessage());
             }
+            List<Task> tasks = new ArrayList<>();
+            format.parse(new InputStreamReader(new ByteArrayInputStream(bytes.array()), StandardCharsets.UTF_8),
+                    chunk == 0, tasks::add);
+            return tasks;
         }
+    }
+
+    /**
+     * Builds a task from the fields of the current CSV record.
+     * 
+     * <p>Only fields that end up in the task are turned into strings; dates
+     * and enum names are read straight from the tokenizer's buffer.
+     * 
+     * @return the task, or null if the record is invalid
+     */
+    private Task parseCSVRecord(CsvTokenizer csv) {
+        int count = csv.fieldCount();
+        if (count < 6) return null; // Need at least ID, Title, Description, Due Date, Priority, Status
         
-        return tasks;
+        try {
+            String id = csv.fieldString(0);
+            String title = csv.fieldString(1);
+            String description = csv.fieldString(2);
+            LocalDateTime dueDateTime = null;
+            if (csv.fieldLength(3) > 0) {
+                dueDateTime = LocalDateTime.parse(csv.field(3), DATE_FORMATTER);
+            }
+            String dueDateString = csv.fieldString(4);
+            TaskPriority priority = enumValue(TaskPriority.values(), csv.field(5));
+            TaskStatus status = count > 6 ? enumValue(TaskStatus.values(), csv.field(6)) : TaskStatus.PENDING;
+            String category = count > 7 ? csv.fieldString(7) : null;
+            
+            List<String> tags = new ArrayList<>();
+            if (count > 8 && csv.fieldLength(8) > 0) {
+                String[] tagArray = csv.fieldString(8).split(";");
+                for (String tag : tagArray) {
+                    if (!tag.trim().isEmpty()) {
+                        tags.add(tag.trim());
+                    }
+                }
+            }
+            
+            LocalDateTime reminderTime = optTime(csv, 9);
+            
+            Task task = new Task(id, title, description, dueDateTime, priority, status, tags, reminderTime);
+            if (!dueDateString.isEmpty()) {
+                task.setDueDateString(dueDateString);
+            }
+            if (category != null && !category.isEmpty()) {
+                task.setCategory(category);
+            }
+            if (count > 12 && csv.fieldLength(12) > 0) {
+                List<String> dependencies = new ArrayList<>();
+                for (String dependency : csv.fieldString(12).split(";")) {
+                    if (!dependency.isEmpty()) {
+                        dependencies.add(dependency);
+                    }
+                }
+                task.setDependencies(dependencies);
+            }
+            // Last, since the setters above stamp updatedAt - merging imports compares it
+            task.restoreTimestamps(optTime(csv, 10), optTime(csv, 11));
+            return task;
+        } catch (Exception e) {
+            // Skip invalid records
+            System.err.println("Error parsing CSV record " + csv.recordNumber() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads an optional date column of the current record.
+     * 
+     * @return the date, or null if the record is too short or the field is empty
+     */
+    private static LocalDateTime optTime(CsvTokenizer csv, int index) {
+        if (csv.fieldCount() <= index || csv.fieldLength(index) == 0) {
+            return null;
+        }
+        return LocalDateTime.parse(csv.field(index), DATE_FORMATTER);
+    }
+
+    /**
+     * Looks up an enum constant by name without turning the name into a string first.
+     * 
+     * @throws IllegalArgumentException if no constant has that name, like {@code valueOf}
+     */
+    private static <E extends Enum<E>> E enumValue(E[] values, CharSequence name) {
+        for (E value : values) {
+            if (value.name().contentEquals(name)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No constant named " + name);
     }
     
     /**
@@ -259,6 +888,8 @@ public class ExportImportService {
             "CSV Files (*.csv)", "csv"));
         fileChooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
             "XML Files (*.xml)", "xml"));
+        fileChooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+            "NDJSON Files (*.ndjson, *.jsonl)", "ndjson", "jsonl"));
         fileChooser.setFileFilter(fileChooser.getChoosableFileFilters()[0]);
         
         int result = fileChooser.showSaveDialog(parent);
@@ -267,7 +898,9 @@ public class ExportImportService {
                 Path filePath = fileChooser.getSelectedFile().toPath();
                 javax.swing.filechooser.FileFilter filter = fileChooser.getFileFilter();
                 
-                if (filter.getDescription().contains("JSON")) {
+                if (filter.getDescription().contains("NDJSON")) { // Before JSON, which it contains
+                    exportToNDJSON(tasks, filePath);
+                } else if (filter.getDescription().contains("JSON")) {
                     exportToJSON(tasks, filePath);
                 } else if (filter.getDescription().contains("CSV")) {
                     exportToCSV(tasks, filePath);
@@ -291,6 +924,21 @@ public class ExportImportService {
      * @return list of imported tasks, or empty list if cancelled
      */
     public List<Task> showImportDialog(Component parent) {
+        List<Task> tasks = chooseAndImport(parent);
+        if (tasks == null) {
+            return new ArrayList<>();
+        }
+        JOptionPane.showMessageDialog(parent, 
+            "Imported " + tasks.size() + " tasks successfully!", "Import", JOptionPane.INFORMATION_MESSAGE);
+        return tasks;
+    }
+
+    /**
+     * Lets the user pick a file and reads the tasks in it. Errors are shown to the user.
+     * 
+     * @return the imported tasks, or null if cancelled or the import failed
+     */
+    private List<Task> chooseAndImport(Component parent) {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Import Tasks");
         
@@ -301,6 +949,8 @@ public class ExportImportService {
             "CSV Files (*.csv)", "csv"));
         fileChooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
             "XML Files (*.xml)", "xml"));
+        fileChooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+            "NDJSON Files (*.ndjson, *.jsonl)", "ndjson", "jsonl"));
         fileChooser.setFileFilter(fileChooser.getChoosableFileFilters()[0]);
         
         int result = fileChooser.showOpenDialog(parent);
@@ -310,18 +960,17 @@ public class ExportImportService {
                 javax.swing.filechooser.FileFilter filter = fileChooser.getFileFilter();
                 
                 List<Task> tasks;
-                if (filter.getDescription().contains("JSON")) {
+                if (filter.getDescription().contains("NDJSON")) { // Before JSON, which it contains
+                    tasks = importFromNDJSONParallel(filePath, ForkJoinPool.commonPool());
+                } else if (filter.getDescription().contains("JSON")) {
                     tasks = importFromJSON(filePath);
                 } else if (filter.getDescription().contains("CSV")) {
-                    tasks = importFromCSV(filePath);
+                    tasks = importFromCSVParallel(filePath, ForkJoinPool.commonPool());
                 } else {
                     JOptionPane.showMessageDialog(parent, 
                         "XML import not yet implemented", "Import", JOptionPane.INFORMATION_MESSAGE);
-                    return new ArrayList<>();
+                    return null;
                 }
-                
-                JOptionPane.showMessageDialog(parent, 
-                    "Imported " + tasks.size() + " tasks successfully!", "Import", JOptionPane.INFORMATION_MESSAGE);
                 return tasks;
             } catch (IOException e) {
                 JOptionPane.showMessageDialog(parent, 
@@ -329,43 +978,76 @@ public class ExportImportService {
             }
         }
         
-        return new ArrayList<>();
+        return null;
     }
-    
-    private String escapeCSV(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+
+    /**
+     * Shows a file chooser dialog for importing tasks and merges them into the model.
+     *
+     * <p>Tasks are matched by ID, so importing a file again updates the tasks
+     * from the last import instead of duplicating them; see
+     * {@link #setConflictPolicy(ImportTasksCommand.ConflictPolicy)}. The merge
+     * is one undoable command and notifies listeners (and the auto-save) once.
+     *
+     * @param parent the parent component
+     * @param model the model to merge the imported tasks into (required, non-null)
+     * @return list of imported tasks, or empty list if cancelled
+     */
+    public List<Task> showImportDialog(Component parent, TaskModel model) {
+        if (model == null) {
+            throw new IllegalArgumentException("TaskModel must be non-null");
         }
-        return value;
+        List<Task> tasks = chooseAndImport(parent);
+        if (tasks == null) {
+            return new ArrayList<>();
+        }
+        ImportTasksCommand command = new ImportTasksCommand(model, tasks, conflictPolicy);
+        CommandManager.getInstance().executeCommand(command);
+        String summary = "Imported " + tasks.size() + " tasks: " + command.getAddedCount() + " new, "
+                + command.getMergedCount() + " updated, " + command.getSkippedCount() + " unchanged";
+        if (command.getDuplicateCount() > 0) {
+            summary += ", " + command.getDuplicateCount() + " duplicates in the file";
+        }
+        JOptionPane.showMessageDialog(parent, summary + ".", "Import", JOptionPane.INFORMATION_MESSAGE);
+        return tasks;
     }
-    
-    private String unescapeCSV(String value) {
-        if (value == null || value.isEmpty()) return "";
-        if (value.startsWith("\"") && value.endsWith("\"")) {
-            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+
+    /**
+     * Opens an export file for writing, compressed if {@link #levelFor(Path)} says so.
+     */
+    private BufferedWriter newWriter(Path filePath) throws IOException {
+        return newWriter(filePath, levelFor(filePath));
+    }
+
+    private static BufferedWriter newWriter(Path filePath, int level, OpenOption... options) throws IOException {
+        OutputStream out = Files.newOutputStream(filePath, options);
+        try {
+            out = Compression.compress(out, level);
+        } catch (IOException e) {
+            out.close();
+            throw e;
         }
-        return value;
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
     }
-    
-    private String[] parseCSVLine(String line) {
-        List<String> parts = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-        
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                parts.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
+
+    /**
+     * Gets the compression level for an export: the configured one, or the
+     * default if none is set but the file name asks for GZIP.
+     */
+    private int levelFor(Path filePath) {
+        if (compressionLevel == Compression.NONE && filePath.getFileName() != null
+                && filePath.getFileName().toString().toLowerCase().endsWith(".gz")) {
+            return Compression.DEFAULT_LEVEL;
         }
-        parts.add(current.toString());
-        
-        return parts.toArray(new String[0]);
+        return compressionLevel;
+    }
+
+    private String escapeCSV(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
     
     private String escapeXML(String value) {
@@ -376,5 +1058,57 @@ public class ExportImportService {
                    .replace("\"", "&quot;")
                    .replace("'", "&apos;");
     }
-}
 
+    /**
+     * Counts the bytes read from a file and reports them as progress.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final LongConsumer progress;
+        private long count = 0;
+        private long reported = 0;
+
+        CountingInputStream(InputStream in, LongConsumer progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counted(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counted(skipped);
+            return skipped;
+        }
+
+        private void counted(long n) {
+            count += n;
+            if (count - reported >= PROGRESS_INTERVAL) {
+                reportProgress();
+            }
+        }
+
+        void reportProgress() {
+            reported = count;
+            if (progress != null) {
+                progress.accept(count);
+            }
+        }
+    }
+}
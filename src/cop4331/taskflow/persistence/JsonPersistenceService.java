@@ -4,14 +4,23 @@ import cop4331.taskflow.model.Task;
 import cop4331.taskflow.model.TaskPriority;
 import cop4331.taskflow.model.TaskStatus;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.ZipException;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
@@ -20,6 +29,14 @@ import org.json.JSONObject;
  * <p>This service handles the serialization and deserialization of tasks
  * to/from JSON format for local storage.
  * 
+ * <p>Saves are atomic: the file is written next to the data file, forced to
+ * disk and renamed over it, and the previous version is kept as
+ * {@code <data file>.bak}. Loading falls back to that backup if the data file
+ * is missing or unreadable.
+ * 
+ * <p>Data files can be GZIP compressed (see {@link #setCompressionLevel(int)});
+ * loading reads compressed and plain files alike.
+ * 
  * <p><b>Preconditions:</b> File paths must be valid and writable for save operations.
  * 
  * <p><b>Postconditions:</b> Tasks are saved to or loaded from JSON format.
@@ -27,11 +44,60 @@ import org.json.JSONObject;
  * @author TaskFlow Team
  * @version 1.0
  */
-public class JsonPersistenceService {
+public class JsonPersistenceService implements PersistenceService {
 
     private static final DateTimeFormatter DATE_FORMATTER = 
             DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
+    private boolean compact = false;
+    private int compressionLevel = Compression.NONE;
+
+    /**
+     * Sets whether data files are written without indentation.
+     * 
+     * <p>Compact files are smaller and faster to write; indented ones are
+     * easier to read by hand. Loading handles both.
+     * 
+     * @param compact true to write compact JSON, false to indent it
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /**
+     * Checks whether data files are written without indentation.
+     * 
+     * @return true if compact JSON is written
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Sets how much data files are compressed.
+     * 
+     * <p>Compressed files are GZIP and several times smaller, which matters
+     * more than the extra CPU when the data file lives on a slow network
+     * drive. Loading detects compression by itself, so the level can be
+     * changed at any time.
+     * 
+     * @param compressionLevel 0 for no compression (the default), 1 (fastest) to 9 (smallest)
+     * @throws IllegalArgumentException if the level is out of range
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        Compression.checkLevel(compressionLevel);
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Gets how much data files are compressed.
+     * 
+     * @return the compression level, 0 if files aren't compressed
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
     /**
      * Saves a list of tasks to a JSON file.
      * 
@@ -49,6 +115,7 @@ public class JsonPersistenceService {
      * @throws IOException if an I/O error occurs while writing
      * @throws IllegalArgumentException if tasks or filePath is null
      */
+    @Override
     public void save(List<Task> tasks, Path filePath) throws IOException {
         if (tasks == null) {
             throw new IllegalArgumentException("Tasks list must be non-null");
@@ -57,78 +124,83 @@ public class JsonPersistenceService {
             throw new IllegalArgumentException("File path must be non-null");
         }
 
-        JSONArray jsonArray = new JSONArray();
+        // Each task is streamed straight to the file - no JSONObject per task and no giant String
+        AtomicFileWriter.write(filePath, Compression.compress(compressionLevel, out -> writeTasks(out, tasks)));
+    }
+
+    /**
+     * Streams the tasks into a byte buffer right away, without building a
+     * JSONObject per task; compressing and writing happen when the snapshot is written.
+     */
+    @Override
+    public Snapshot snapshot(List<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks list must be non-null");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeTasks(bytes, tasks);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e); // ByteArrayOutputStream doesn't throw
+        }
+        AtomicFileWriter.Content content = Compression.compress(compressionLevel, bytes::writeTo);
+        return filePath -> AtomicFileWriter.write(filePath, content);
+    }
+
+    /**
+     * Writes the tasks as a JSON array to the stream.
+     */
+    private void writeTasks(OutputStream out, List<Task> tasks) throws IOException {
+        JsonStreamWriter writer = new JsonStreamWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), indent());
+        writer.beginArray();
         for (Task task : tasks) {
-            JSONObject jsonTask = new JSONObject();
-            jsonTask.put("id", task.getId());
-            jsonTask.put("title", task.getTitle());
-            jsonTask.put("description", task.getDescription() != null ? task.getDescription() : ""); // Save it all, even the empty ones
-            
-            if (task.getDueDateTime() != null) {
-                jsonTask.put("dueDateTime", task.getDueDateTime().format(DATE_FORMATTER));
-            } else {
-                jsonTask.put("dueDateTime", JSONObject.NULL);
-            }
-            // Save the raw due date string for display
-            if (task.getDueDateString() != null && !task.getDueDateString().isEmpty()) {
-                jsonTask.put("dueDateString", task.getDueDateString());
-            } else {
-                jsonTask.put("dueDateString", JSONObject.NULL);
-            }
-            
-            jsonTask.put("priority", task.getPriority().name());
-            jsonTask.put("status", task.getStatus().name());
-            
-            JSONArray tagsArray = new JSONArray();
-            for (String tag : task.getTags()) {
-                tagsArray.put(tag);
-            }
-            jsonTask.put("tags", tagsArray);
-            
-            // Save category/project
-            if (task.getCategory() != null && !task.getCategory().isEmpty()) {
-                jsonTask.put("category", task.getCategory());
-            } else {
-                jsonTask.put("category", JSONObject.NULL);
-            }
-            
-            // Save dependencies
-            JSONArray dependenciesArray = new JSONArray();
-            for (String depId : task.getDependencies()) {
-                dependenciesArray.put(depId);
-            }
-            jsonTask.put("dependencies", dependenciesArray);
-            
-            // Save recurrence type
-            jsonTask.put("recurrenceType", task.getRecurrenceType().name());
-            
-            if (task.getCreatedAt() != null) {
-                jsonTask.put("createdAt", task.getCreatedAt().format(DATE_FORMATTER));
-            } else {
-                jsonTask.put("createdAt", JSONObject.NULL);
-            }
-            
-            if (task.getUpdatedAt() != null) {
-                jsonTask.put("updatedAt", task.getUpdatedAt().format(DATE_FORMATTER));
-            } else {
-                jsonTask.put("updatedAt", JSONObject.NULL);
-            }
-            
-            if (task.getReminderTime() != null) {
-                jsonTask.put("reminderTime", task.getReminderTime().format(DATE_FORMATTER));
-            } else {
-                jsonTask.put("reminderTime", JSONObject.NULL);
-            }
-            
-            jsonArray.put(jsonTask);
+            writeTask(writer, task);
         }
+        writer.endArray();
+        writer.flush();
+    }
+
+    private int indent() {
+        return compact ? 0 : 2;
+    }
 
-        // Ensure parent directory exists
-        if (filePath.getParent() != null) {
-            Files.createDirectories(filePath.getParent());
+    /**
+     * Writes one task in the same form as {@link #toJson(Task)}.
+     */
+    static void writeTask(JsonStreamWriter writer, Task task) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(task.getId());
+        writer.name("title").value(task.getTitle());
+        writer.name("description").value(task.getDescription() != null ? task.getDescription() : "");
+        writer.name("dueDateTime").value(format(task.getDueDateTime()));
+        writer.name("dueDateString").value(nonEmpty(task.getDueDateString()));
+        writer.name("priority").value(task.getPriority().name());
+        writer.name("status").value(task.getStatus().name());
+        writer.name("tags").beginArray();
+        for (String tag : task.getTags()) {
+            writer.value(tag);
+        }
+        writer.endArray();
+        writer.name("category").value(nonEmpty(task.getCategory()));
+        writer.name("dependencies").beginArray();
+        for (String depId : task.getDependencies()) {
+            writer.value(depId);
         }
+        writer.endArray();
+        writer.name("recurrenceType").value(task.getRecurrenceType().name());
+        writer.name("createdAt").value(format(task.getCreatedAt()));
+        writer.name("updatedAt").value(format(task.getUpdatedAt()));
+        writer.name("reminderTime").value(format(task.getReminderTime()));
+        writer.endObject();
+    }
 
-        Files.writeString(filePath, jsonArray.toString(2));
+    private static String format(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(DATE_FORMATTER) : null;
+    }
+
+    private static String nonEmpty(String text) {
+        return text != null && !text.isEmpty() ? text : null;
     }
 
     /**
@@ -148,101 +220,307 @@ public class JsonPersistenceService {
      * @throws IOException if an I/O error occurs while reading
      * @throws IllegalArgumentException if filePath is null or file doesn't exist
      */
+    @Override
     public List<Task> load(Path filePath) throws IOException {
         if (filePath == null) {
             throw new IllegalArgumentException("File path must be non-null");
         }
-        if (!Files.exists(filePath)) {
+        Path source = AtomicFileWriter.resolveForRead(filePath); // The backup if a save died mid-rename
+        if (!Files.exists(source)) {
             return new ArrayList<>(); // Return empty list if file doesn't exist
         }
 
-        String content = Files.readString(filePath);
-        if (content == null || content.trim().isEmpty()) {
-            return new ArrayList<>();
+        // Saves always write at least "[]", so an empty or broken file means a save was cut
+        // short (e.g. by an older version without atomic saves) - use the last good one
+        Path backup = AtomicFileWriter.backupOf(filePath);
+        boolean canFallBack = !source.equals(backup) && Files.exists(backup);
+        List<Task> tasks;
+        try {
+            tasks = readTasks(source);
+        } catch (JSONException | EOFException | ZipException e) { // The last two from a cut short compressed file
+            if (!canFallBack) {
+                throw e;
+            }
+            System.err.println("Data file is damaged, loading backup: " + e.getMessage());
+            tasks = readTasks(backup);
         }
+        if (tasks == null && canFallBack) {
+            System.err.println("Data file is empty, loading backup");
+            tasks = readTasks(backup);
+        }
+        return tasks != null ? tasks : new ArrayList<>();
+    }
 
-        JSONArray jsonArray = new JSONArray(content);
-        List<Task> tasks = new ArrayList<>();
-
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject jsonTask = jsonArray.getJSONObject(i);
-            
-            String id = jsonTask.getString("id");
-            String title = jsonTask.getString("title");
-            String description = jsonTask.optString("description", "");
-            if (description.isEmpty()) {
-                description = null;
-            }
-            
-            LocalDateTime dueDateTime = null;
-            if (!jsonTask.isNull("dueDateTime")) {
-                String dueStr = jsonTask.getString("dueDateTime");
-                if (dueStr != null && !dueStr.isEmpty()) {
-                    dueDateTime = LocalDateTime.parse(dueStr, DATE_FORMATTER);
-                }
-            }
-            
-            TaskPriority priority = TaskPriority.valueOf(jsonTask.getString("priority"));
-            TaskStatus status = TaskStatus.valueOf(jsonTask.getString("status"));
-            
-            List<String> tags = new ArrayList<>();
-            if (jsonTask.has("tags") && !jsonTask.isNull("tags")) {
-                JSONArray tagsArray = jsonTask.getJSONArray("tags");
-                for (int j = 0; j < tagsArray.length(); j++) {
-                    tags.add(tagsArray.getString(j));
-                }
-            }
-            
-            LocalDateTime reminderTime = null;
-            if (jsonTask.has("reminderTime") && !jsonTask.isNull("reminderTime")) {
-                String reminderStr = jsonTask.getString("reminderTime");
-                if (reminderStr != null && !reminderStr.isEmpty()) {
-                    reminderTime = LocalDateTime.parse(reminderStr, DATE_FORMATTER);
-                }
-            }
-            
-            Task task = new Task(id, title, description, dueDateTime, priority, status, tags, reminderTime);
-            
-            // Load the raw due date string if available
-            if (jsonTask.has("dueDateString") && !jsonTask.isNull("dueDateString")) {
-                String dueDateString = jsonTask.optString("dueDateString", null);
-                if (dueDateString != null && !dueDateString.isEmpty()) {
-                    task.setDueDateString(dueDateString);
-                }
+    /**
+     * Streams the tasks out of a data file, building each task as soon as its
+     * object has been read instead of parsing the whole document first.
+     * 
+     * @param file the file to read
+     * @return the tasks, or null if the file is blank
+     * @throws JSONException if the file isn't a valid task array
+     */
+    private List<Task> readTasks(Path file) throws IOException {
+        try (JsonStreamReader reader = new JsonStreamReader(new InputStreamReader(
+                Compression.decompress(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            if (reader.peek() == JsonStreamReader.Token.END_DOCUMENT) {
+                return null;
             }
-            
-            // Load category/project if available
-            if (jsonTask.has("category") && !jsonTask.isNull("category")) {
-                String category = jsonTask.optString("category", null);
-                if (category != null && !category.isEmpty()) {
-                    task.setCategory(category);
-                }
+            List<Task> tasks = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                tasks.add(readTask(reader));
             }
-            
-            // Load dependencies if available
-            if (jsonTask.has("dependencies") && !jsonTask.isNull("dependencies")) {
-                JSONArray dependenciesArray = jsonTask.getJSONArray("dependencies");
-                List<String> dependencies = new ArrayList<>();
-                for (int j = 0; j < dependenciesArray.length(); j++) {
-                    dependencies.add(dependenciesArray.getString(j));
-                }
-                task.setDependencies(dependencies);
+            reader.endArray();
+            reader.peek(); // Fails on anything after the closing bracket
+            return tasks;
+        }
+    }
+
+    /**
+     * Reads one task object from the stream. Same format and defaults as {@link #fromJson(JSONObject)}.
+     */
+    static Task readTask(JsonStreamReader reader) throws IOException {
+        String id = null;
+        String title = null;
+        String description = null;
+        String dueDateTime = null;
+        String priority = null;
+        String status = null;
+        List<String> tags = null;
+        String reminderTime = null;
+        String dueDateString = null;
+        String category = null;
+        List<String> dependencies = null;
+        String recurrenceType = null;
+        String createdAt = null;
+        String updatedAt = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonStreamReader.Token.NULL) {
+                reader.nextNull(); // Same as a missing field
+                continue;
             }
-            
-            // Load recurrence type if available
-            if (jsonTask.has("recurrenceType") && !jsonTask.isNull("recurrenceType")) {
-                String recurrenceStr = jsonTask.optString("recurrenceType", "NONE");
-                try {
-                    task.setRecurrenceType(Task.RecurrenceType.valueOf(recurrenceStr));
-                } catch (IllegalArgumentException e) {
-                    task.setRecurrenceType(Task.RecurrenceType.NONE);
-                }
+            switch (name) {
+                case "id": id = reader.nextString(); break;
+                case "title": title = reader.nextString(); break;
+                case "description": description = reader.nextString(); break;
+                case "dueDateTime": dueDateTime = reader.nextString(); break;
+                case "dueDateString": dueDateString = reader.nextString(); break;
+                case "priority": priority = reader.nextString(); break;
+                case "status": status = reader.nextString(); break;
+                case "tags": tags = readStrings(reader); break;
+                case "category": category = reader.nextString(); break;
+                case "dependencies": dependencies = readStrings(reader); break;
+                case "recurrenceType": recurrenceType = reader.nextString(); break;
+                case "reminderTime": reminderTime = reader.nextString(); break;
+                case "createdAt": createdAt = reader.nextString(); break;
+                case "updatedAt": updatedAt = reader.nextString(); break;
+                default: reader.skipValue(); break; // Anything newer
             }
-            
-            tasks.add(task);
         }
+        reader.endObject();
 
-        return tasks;
+        return buildTask(id, title, description, dueDateTime, priority, status, tags,
+                reminderTime, dueDateString, category, dependencies, recurrenceType, createdAt, updatedAt);
+    }
+
+    private static List<String> readStrings(JsonStreamReader reader) throws IOException {
+        List<String> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextString());
+        }
+        reader.endArray();
+        return values;
+    }
+
+    /**
+     * Converts a task to the JSON object stored in the data file.
+     * 
+     * <p><b>Preconditions:</b> task must be non-null
+     * 
+     * @param task the task to convert (required, non-null)
+     * @return a new JSON object holding every persisted field of the task
+     * @throws IllegalArgumentException if task is null
+     */
+    public JSONObject toJson(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task must be non-null");
+        }
+        JSONObject jsonTask = new JSONObject();
+        jsonTask.put("id", task.getId());
+        jsonTask.put("title", task.getTitle());
+        jsonTask.put("description", task.getDescription() != null ? task.getDescription() : ""); // Save it all, even the empty ones
+        
+        if (task.getDueDateTime() != null) {
+            jsonTask.put("dueDateTime", task.getDueDateTime().format(DATE_FORMATTER));
+        } else {
+            jsonTask.put("dueDateTime", JSONObject.NULL);
+        }
+        // Save the raw due date string for display
+        if (task.getDueDateString() != null && !task.getDueDateString().isEmpty()) {
+            jsonTask.put("dueDateString", task.getDueDateString());
+        } else {
+            jsonTask.put("dueDateString", JSONObject.NULL);
+        }
+        
+        jsonTask.put("priority", task.getPriority().name());
+        jsonTask.put("status", task.getStatus().name());
+        
+        JSONArray tagsArray = new JSONArray();
+        for (String tag : task.getTags()) {
+            tagsArray.put(tag);
+        }
+        jsonTask.put("tags", tagsArray);
+        
+        // Save category/project
+        if (task.getCategory() != null && !task.getCategory().isEmpty()) {
+            jsonTask.put("category", task.getCategory());
+        } else {
+            jsonTask.put("category", JSONObject.NULL);
+        }
+        
+        // Save dependencies
+        JSONArray dependenciesArray = new JSONArray();
+        for (String depId : task.getDependencies()) {
+            dependenciesArray.put(depId);
+        }
+        jsonTask.put("dependencies", dependenciesArray);
+        
+        // Save recurrence type
+        jsonTask.put("recurrenceType", task.getRecurrenceType().name());
+        
+        if (task.getCreatedAt() != null) {
+            jsonTask.put("createdAt", task.getCreatedAt().format(DATE_FORMATTER));
+        } else {
+            jsonTask.put("createdAt", JSONObject.NULL);
+        }
+        
+        if (task.getUpdatedAt() != null) {
+            jsonTask.put("updatedAt", task.getUpdatedAt().format(DATE_FORMATTER));
+        } else {
+            jsonTask.put("updatedAt", JSONObject.NULL);
+        }
+        
+        if (task.getReminderTime() != null) {
+            jsonTask.put("reminderTime", task.getReminderTime().format(DATE_FORMATTER));
+        } else {
+            jsonTask.put("reminderTime", JSONObject.NULL);
+        }
+        
+        return jsonTask;
     }
-}
 
+    /**
+     * Creates a task from a JSON object in the data file format.
+     * 
+     * <p><b>Preconditions:</b> jsonTask must be non-null and hold at least id, title, priority and status
+     * 
+     * @param jsonTask the JSON object to read (required, non-null)
+     * @return the task described by the object (never null)
+     * @throws org.json.JSONException if a required field is missing or malformed
+     * @throws IllegalArgumentException if jsonTask is null
+     */
+    public Task fromJson(JSONObject jsonTask) {
+        if (jsonTask == null) {
+            throw new IllegalArgumentException("JSON task must be non-null");
+        }
+        return buildTask(
+                jsonTask.getString("id"),
+                jsonTask.getString("title"),
+                jsonTask.optString("description", ""),
+                optText(jsonTask, "dueDateTime"),
+                jsonTask.getString("priority"),
+                jsonTask.getString("status"),
+                optStrings(jsonTask, "tags"),
+                optText(jsonTask, "reminderTime"),
+                optText(jsonTask, "dueDateString"),
+                optText(jsonTask, "category"),
+                optStrings(jsonTask, "dependencies"),
+                optText(jsonTask, "recurrenceType"),
+                optText(jsonTask, "createdAt"),
+                optText(jsonTask, "updatedAt"));
+    }
+
+    private static LocalDateTime parseTime(String text) {
+        return text == null || text.isEmpty() ? null : LocalDateTime.parse(text, DATE_FORMATTER);
+    }
+
+    private static String optText(JSONObject jsonTask, String key) {
+        return jsonTask.isNull(key) ? null : jsonTask.getString(key);
+    }
+
+    private static List<String> optStrings(JSONObject jsonTask, String key) {
+        if (jsonTask.isNull(key)) {
+            return null;
+        }
+        JSONArray array = jsonTask.getJSONArray(key);
+        List<String> values = new ArrayList<>();
+        for (int j = 0; j < array.length(); j++) {
+            values.add(array.getString(j));
+        }
+        return values;
+    }
+
+    /**
+     * Creates a task from the raw field values of a data file entry.
+     * Shared by the streaming loader and {@link #fromJson(JSONObject)} so both read the format the same way.
+     * 
+     * @throws JSONException if id, title, priority or status is missing
+     */
+    private static Task buildTask(String id, String title, String description, String dueDateTime,
+                                  String priority, String status, List<String> tags, String reminderTime,
+                                  String dueDateString, String category, List<String> dependencies,
+                                  String recurrenceType, String createdAt, String updatedAt) {
+        if (id == null || title == null || priority == null || status == null) {
+            throw new JSONException("Task needs an id, title, priority and status");
+        }
+        if (description != null && description.isEmpty()) {
+            description = null;
+        }
+        
+        LocalDateTime due = null;
+        if (dueDateTime != null && !dueDateTime.isEmpty()) {
+            due = LocalDateTime.parse(dueDateTime, DATE_FORMATTER);
+        }
+        
+        LocalDateTime reminder = null;
+        if (reminderTime != null && !reminderTime.isEmpty()) {
+            reminder = LocalDateTime.parse(reminderTime, DATE_FORMATTER);
+        }
+        
+        Task task = new Task(id, title, description, due, TaskPriority.valueOf(priority),
+                TaskStatus.valueOf(status), tags, reminder);
+        
+        // Load the raw due date string if available
+        if (dueDateString != null && !dueDateString.isEmpty()) {
+            task.setDueDateString(dueDateString);
+        }
+        
+        // Load category/project if available
+        if (category != null && !category.isEmpty()) {
+            task.setCategory(category);
+        }
+        
+        // Load dependencies if available
+        if (dependencies != null) {
+            task.setDependencies(dependencies);
+        }
+        
+        // Load recurrence type if available
+        if (recurrenceType != null) {
+            try {
+                task.setRecurrenceType(Task.RecurrenceType.valueOf(recurrenceType));
+            } catch (IllegalArgumentException e) {
+                task.setRecurrenceType(Task.RecurrenceType.NONE);
+            }
+        }
+        
+        // Last, since every setter above stamps updatedAt
+        task.restoreTimestamps(parseTime(createdAt), parseTime(updatedAt));
+        
+        return task;
+    }
+}
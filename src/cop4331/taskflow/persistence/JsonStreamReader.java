@@ -0,0 +1,441 @@
+package cop4331.taskflow.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import org.json.JSONException;
+
+/**
+ * Pull parser that reads JSON one token at a time.
+ *
+ * <p>Unlike {@code new JSONArray(String)} it never holds the whole document:
+ * callers walk the structure with {@link #beginArray()}, {@link #nextName()},
+ * {@link #nextString()} and friends and build their own objects as they go,
+ * so memory use is bounded by the largest single value, not the file size.
+ *
+ * <p>Syntax errors are reported as {@link JSONException}, the same as
+ * org.json, so callers can treat both parsers alike.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+final class JsonStreamReader implements Closeable {
+
+    /**
+     * Kinds of token the reader can be positioned on.
+     */
+    enum Token {
+        BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // What the reader is inside of - decides whether a ',' ':' or value comes next
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int pos = 0;
+    private int limit = 0;
+    private long offset = 0; // Characters consumed before buffer[0], for error messages
+
+    private int[] scopes = new int[32];
+    private int depth = 1;
+
+    private Token peeked;
+    private String peekedText; // Name, string or literal text of the peeked token
+    private final StringBuilder text = new StringBuilder(); // Reused for every string
+
+    /**
+     * Creates a reader over a character stream.
+     *
+     * @param in the JSON text (required, non-null); closed by {@link #close()}
+     */
+    JsonStreamReader(Reader in) {
+        this(in, 8192);
+    }
+
+    /**
+     * Creates a reader with a buffer of the given size, e.g. smaller for
+     * parsing many short documents like the lines of an NDJSON file.
+     *
+     * @param in the JSON text (required, non-null); closed by {@link #close()}
+     * @param bufferSize the number of characters to read at a time
+     */
+    JsonStreamReader(Reader in, int bufferSize) {
+        this.in = in;
+        this.buffer = new char[Math.max(bufferSize, 16)];
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Looks at the next token without consuming it.
+     *
+     * @return the next token ({@link Token#END_DOCUMENT} after the last value)
+     * @throws IOException if reading fails
+     * @throws JSONException if the JSON is malformed
+     */
+    Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int c = nextNonWhitespace();
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                if (c == -1) {
+                    return peeked = Token.END_DOCUMENT; // Blank input
+                }
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = readValue(c);
+            case NONEMPTY_DOCUMENT:
+                if (c != -1) {
+                    throw syntaxError("Unexpected data after the end of the document");
+                }
+                return peeked = Token.END_DOCUMENT;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                return peeked = c == ']' ? Token.END_ARRAY : readValue(c);
+            case NONEMPTY_ARRAY:
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']'");
+                }
+                return peeked = readValue(nextNonWhitespace());
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                if (scopes[depth - 1] == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Expected ',' or '}'");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a name");
+                }
+                peekedText = readString();
+                scopes[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            case DANGLING_NAME:
+                if (c != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                return peeked = readValue(nextNonWhitespace());
+            default:
+                throw new IllegalStateException("Unknown scope");
+        }
+    }
+
+    /**
+     * Consumes the start of an array.
+     *
+     * @throws IOException if reading fails
+     * @throws JSONException if the next token isn't '['
+     */
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of the current array.
+     *
+     * @throws IOException if reading fails
+     * @throws JSONException if the next token isn't ']'
+     */
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws IOException if reading fails
+     * @throws JSONException if the next token isn't '{'
+     */
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of the current object.
+     *
+     * @throws IOException if reading fails
+     * @throws JSONException if the next token isn't '}'
+     */
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    /**
+     * Checks whether the current array or object has another element.
+     *
+     * @return true if the next token is a value or name
+     * @throws IOException if reading fails
+     */
+    boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_ARRAY && token != Token.END_OBJECT && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes a property name.
+     *
+     * @return the name
+     * @throws IOException if reading fails
+     * @throws JSONException if the next token isn't a name
+     */
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        return peekedText;
+    }
+
+    /**
+     * Consumes a string value. Numbers and booleans are returned as their JSON text.
+     *
+     * @return the value
+     * @throws IOException if reading fails
+     * @throws JSONException if the next token isn't a string, number or boolean
+     */
+    String nextString() throws IOException {
+        Token token = peek();
+        if (token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN) {
+            throw syntaxError("Expected a string but was " + token);
+        }
+        peeked = null;
+        return peekedText;
+    }
+
+    /**
+     * Consumes a null value.
+     *
+     * @throws IOException if reading fails
+     * @throws JSONException if the next token isn't null
+     */
+    void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    /**
+     * Consumes and ignores the next value, including everything nested in it.
+     *
+     * @throws IOException if reading fails
+     * @throws JSONException if the JSON is malformed
+     */
+    void skipValue() throws IOException {
+        int nesting = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_ARRAY:
+                    beginArray();
+                    nesting++;
+                    break;
+                case BEGIN_OBJECT:
+                    beginObject();
+                    nesting++;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    nesting--;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    nesting--;
+                    break;
+                case END_DOCUMENT:
+                    throw syntaxError("Unexpected end of document");
+                default:
+                    peeked = null; // Name or scalar
+                    break;
+            }
+        } while (nesting > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void expect(Token token) throws IOException {
+        Token actual = peek();
+        if (actual != token) {
+            throw syntaxError("Expected " + token + " but was " + actual);
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(scopes, 0, grown, 0, depth);
+            scopes = grown;
+        }
+        scopes[depth++] = scope;
+    }
+
+    /**
+     * Reads the value starting with the character c (already consumed).
+     */
+    private Token readValue(int c) throws IOException {
+        switch (c) {
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '"':
+                peekedText = readString();
+                return Token.STRING;
+            case -1:
+                throw syntaxError("Unexpected end of document");
+            default:
+                pos--; // Literals are read whole; c came from the current buffer so stepping back is safe
+                String literal = readLiteral();
+                if ("null".equals(literal)) {
+                    return Token.NULL;
+                }
+                peekedText = literal;
+                if ("true".equals(literal) || "false".equals(literal)) {
+                    return Token.BOOLEAN;
+                }
+                char first = literal.isEmpty() ? ' ' : literal.charAt(0);
+                if (first == '-' || (first >= '0' && first <= '9')) {
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected value '" + literal + "'");
+        }
+    }
+
+    /**
+     * Reads a string body after the opening quote, handling escapes.
+     */
+    private String readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            // Copy runs of plain characters straight from the buffer
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                pos++;
+            }
+            text.append(buffer, start, pos - start);
+            if (pos == limit) {
+                if (!fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                continue;
+            }
+            char c = buffer[pos++];
+            if (c == '"') {
+                return text.toString();
+            }
+            text.append(readEscape());
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Bad \\u escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("Bad escape");
+        }
+    }
+
+    /**
+     * Reads an unquoted literal (number, true, false or null) up to the next delimiter.
+     */
+    private String readLiteral() throws IOException {
+        text.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                break;
+            }
+            char c = buffer[pos];
+            if (c == ',' || c == ']' || c == '}' || c == ':' || Character.isWhitespace(c)) {
+                break;
+            }
+            text.append(c);
+            pos++;
+        }
+        return text.toString();
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            throw syntaxError("Unexpected end of document");
+        }
+        return buffer[pos++];
+    }
+
+    /**
+     * Refills the buffer once it has been used up.
+     */
+    private boolean fill() throws IOException {
+        offset += limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + (offset + pos));
+    }
+}
@@ -0,0 +1,211 @@
+package cop4331.taskflow.persistence;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Writes JSON one token at a time straight to a {@link Writer}.
+ *
+ * <p>The counterpart of {@link JsonStreamReader}: nothing is built in memory,
+ * each value is escaped directly into the output. With an indent of 2 the
+ * output looks like org.json's {@code toString(2)}; with 0 it is compact,
+ * with no whitespace at all.
+ *
+ * <p>The writer doesn't check that the calls form valid JSON beyond what it
+ * needs for commas and indentation - callers are expected to pair
+ * begin/end calls and put a name before every value inside an object.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+final class JsonStreamWriter implements Closeable, Flushable {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final int indent;
+    private char[] spaces = new char[0]; // Reused indentation run
+    private boolean[] hasElements = new boolean[32]; // Per open array/object
+    private int depth = 0;
+    private boolean afterName = false;
+
+    /**
+     * Creates a writer.
+     *
+     * @param out where the JSON goes (required, non-null); should be buffered
+     * @param indent spaces per nesting level, or 0 for compact output
+     */
+    JsonStreamWriter(Writer out, int indent) {
+        this.out = out;
+        this.indent = indent;
+    }
+
+    /** Starts an array. */
+    JsonStreamWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    /** Ends the current array. */
+    JsonStreamWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    /** Starts an object. */
+    JsonStreamWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    /** Ends the current object. */
+    JsonStreamWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    /**
+     * Writes a property name; the next call writes its value.
+     *
+     * @param name the property name (required, non-null)
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    JsonStreamWriter name(String name) throws IOException {
+        beforeElement();
+        writeQuoted(name);
+        out.write(':');
+        if (indent > 0) {
+            out.write(' ');
+        }
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value the value (may be null)
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    JsonStreamWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeQuoted(value);
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private JsonStreamWriter open(char bracket) throws IOException {
+        beforeValue();
+        out.write(bracket);
+        if (depth == hasElements.length) {
+            hasElements = Arrays.copyOf(hasElements, depth * 2);
+        }
+        hasElements[depth++] = false;
+        return this;
+    }
+
+    private JsonStreamWriter close(char bracket) throws IOException {
+        depth--;
+        if (hasElements[depth]) {
+            newline(); // Empty containers stay on one line: [] and {}
+        }
+        out.write(bracket);
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false; // Value of an object property - comma and newline came before the name
+        } else if (depth > 0) {
+            beforeElement();
+        }
+    }
+
+    private void beforeElement() throws IOException {
+        if (hasElements[depth - 1]) {
+            out.write(',');
+        }
+        hasElements[depth - 1] = true;
+        newline();
+    }
+
+    private void newline() throws IOException {
+        if (indent == 0) {
+            return;
+        }
+        out.write('\n');
+        int count = depth * indent;
+        if (spaces.length < count) {
+            spaces = new char[count * 2];
+            Arrays.fill(spaces, ' ');
+        }
+        out.write(spaces, 0, count);
+    }
+
+    /**
+     * Writes a quoted, escaped string. Runs of characters that need no escaping
+     * are written in one call.
+     */
+    private void writeQuoted(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                escape = null; // Control and line separator characters get a unicode escape below
+            } else {
+                continue;
+            }
+            out.write(value, start, i - start);
+            if (escape != null) {
+                out.write(escape);
+            } else {
+                out.write("\\u");
+                out.write(HEX[(c >> 12) & 0xf]);
+                out.write(HEX[(c >> 8) & 0xf]);
+                out.write(HEX[(c >> 4) & 0xf]);
+                out.write(HEX[c & 0xf]);
+            }
+            start = i + 1;
+        }
+        out.write(value, start, length - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,366 @@
+package cop4331.taskflow.persistence;
+
+import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskPriority;
+import cop4331.taskflow.model.TaskStatus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static cop4331.taskflow.persistence.MappedTaskStore.*;
+
+/**
+ * A data file written by {@link MappedTaskStore}, mapped into memory.
+ *
+ * <p>Records are addressed by number, in the order the tasks were saved.
+ * Every accessor reads straight from the mapping, so looking at a status or
+ * due date costs a few byte reads and no objects; {@link #indexOf(String)}
+ * binary-searches the file's ID index. {@link #taskAt(int)} creates a task
+ * handle whose description, tags and dependencies stay in the file.
+ *
+ * <p>The mapping is read-only and only read at absolute positions, so a file
+ * can be read from any number of threads. It stays valid until garbage
+ * collected, even after the file has been replaced on disk.
+ *
+ * <p>The layout is checked when the file is opened. References inside a
+ * record are checked when they're followed; a damaged one throws
+ * {@link IllegalStateException}.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public final class MappedTaskFile {
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int recordsOffset;
+    private final int indexOffset;
+    private final TaskPriority[] priorities;
+    private final TaskStatus[] statuses;
+    private final Task.RecurrenceType[] recurrenceTypes;
+
+    /**
+     * Maps a data file and checks its layout.
+     *
+     * @param path the file (required, non-null)
+     * @throws EOFException if the file is empty or too short
+     * @throws StreamCorruptedException if the layout is invalid
+     * @throws IOException if the file can't be read, is too large or has an unsupported version
+     */
+    MappedTaskFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Data file is larger than 2 GB");
+            }
+            if (size < MAGIC.length + TRAILER_SIZE) {
+                throw new EOFException(size == 0 ? "Data file is empty" : "Data file is too short");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // Stays valid after the channel closes
+        }
+
+        int trailer = buffer.capacity() - TRAILER_SIZE;
+        if (!hasMagic(0) || !hasMagic(buffer.capacity() - MAGIC.length)) {
+            throw new StreamCorruptedException("Not a TaskFlow mapped data file");
+        }
+        int version = buffer.getInt(trailer + 24);
+        if (version != VERSION) {
+            throw new IOException("Unsupported data file version " + version);
+        }
+        long records = buffer.getLong(trailer);
+        long index = buffer.getLong(trailer + 8);
+        count = buffer.getInt(trailer + 16);
+        if (count < 0 || records < MAGIC.length || records + (long) count * RECORD_SIZE != index
+                || index + 4L * count != trailer) {
+            throw new StreamCorruptedException("Data file layout is inconsistent");
+        }
+        recordsOffset = (int) records;
+        indexOffset = (int) index;
+
+        try {
+            int enumNames = buffer.getInt(trailer + 20);
+            int[] position = {enumNames};
+            priorities = readNames(position, TaskPriority.class, null);
+            statuses = readNames(position, TaskStatus.class, null);
+            recurrenceTypes = readNames(position, Task.RecurrenceType.class, Task.RecurrenceType.NONE);
+        } catch (IllegalStateException e) {
+            throw new StreamCorruptedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of tasks in the file.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Finds the record of a task by ID.
+     *
+     * <p><b>Preconditions:</b> id must be non-null
+     *
+     * @param id the task ID (required, non-null)
+     * @return the record number, or -1 if no task has that ID
+     * @throws IllegalArgumentException if id is null
+     */
+    public int indexOf(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID must be non-null");
+        }
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = buffer.getInt(indexOffset + mid * 4);
+            int cmp = compareTo(ref(record, ID), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return record;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the ID of a task.
+     *
+     * @param record the record number, 0 to size() - 1
+     * @return the ID (never null)
+     */
+    public String idAt(int record) {
+        return string(ref(record, ID));
+    }
+
+    /**
+     * Gets the title of a task.
+     *
+     * @param record the record number, 0 to size() - 1
+     * @return the title (never null)
+     */
+    public String titleAt(int record) {
+        return string(ref(record, TITLE));
+    }
+
+    /**
+     * Gets the status of a task without creating it.
+     *
+     * @param record the record number, 0 to size() - 1
+     * @return the status (never null)
+     */
+    public TaskStatus statusAt(int record) {
+        return lookUp(statuses, buffer.get(offset(record) + STATUS), record);
+    }
+
+    /**
+     * Gets the priority of a task without creating it.
+     *
+     * @param record the record number, 0 to size() - 1
+     * @return the priority (never null)
+     */
+    public TaskPriority priorityAt(int record) {
+        return lookUp(priorities, buffer.get(offset(record) + PRIORITY), record);
+    }
+
+    /**
+     * Gets the due date of a task without creating it.
+     *
+     * @param record the record number, 0 to size() - 1
+     * @return the due date and time (may be null)
+     */
+    public LocalDateTime dueAt(int record) {
+        return time(record, DUE, HAS_DUE);
+    }
+
+    /**
+     * Gets the category of a task without creating it.
+     *
+     * @param record the record number, 0 to size() - 1
+     * @return the category (may be null)
+     */
+    public String categoryAt(int record) {
+        return string(ref(record, CATEGORY));
+    }
+
+    /**
+     * Creates a handle for a task. The hot fields are decoded now; the
+     * description, tags and dependencies are read from the file on access.
+     *
+     * @param record the record number, 0 to size() - 1
+     * @return a new task backed by this file
+     */
+    public Task taskAt(int record) {
+        Task task = new Task(idAt(record), titleAt(record), dueAt(record), priorityAt(record), statusAt(record),
+                time(record, REMINDER, HAS_REMINDER), new Handle(record));
+        // Setters stamp updatedAt, so only call the ones that change something
+        String dueDateString = string(ref(record, DUE_DATE_STRING));
+        if (dueDateString != null) {
+            task.setDueDateString(dueDateString);
+        }
+        String category = categoryAt(record);
+        if (category != null) {
+            task.setCategory(category);
+        }
+        Task.RecurrenceType recurrenceType = lookUp(recurrenceTypes, buffer.get(offset(record) + RECURRENCE), record);
+        if (recurrenceType != Task.RecurrenceType.NONE) {
+            task.setRecurrenceType(recurrenceType);
+        }
+        task.restoreTimestamps(time(record, CREATED, HAS_CREATED), time(record, UPDATED, HAS_UPDATED));
+        return task;
+    }
+
+    /**
+     * The cold fields of one record, decoded on every call.
+     */
+    private final class Handle implements Task.DeferredFields {
+        private final int record;
+
+        Handle(int record) {
+            this.record = record;
+        }
+
+        @Override
+        public String description() {
+            return string(ref(record, DESCRIPTION));
+        }
+
+        @Override
+        public List<String> tags() {
+            return strings(ref(record, TAGS));
+        }
+
+        @Override
+        public List<String> dependencies() {
+            return strings(ref(record, DEPENDENCIES));
+        }
+    }
+
+    private int offset(int record) {
+        if (record < 0 || record >= count) {
+            throw new IndexOutOfBoundsException("Record " + record + " of " + count);
+        }
+        return recordsOffset + record * RECORD_SIZE;
+    }
+
+    private int ref(int record, int field) {
+        return buffer.getInt(offset(record) + field);
+    }
+
+    /**
+     * Checks that a heap entry of the given size fits before the records.
+     */
+    private void checkHeap(int ref, long length) {
+        if (ref < MAGIC.length || length < 0 || ref + length > recordsOffset) {
+            throw new IllegalStateException("Data file is damaged: reference " + ref + " is out of range");
+        }
+    }
+
+    private String string(int ref) {
+        if (ref == NONE) {
+            return null;
+        }
+        checkHeap(ref, 4);
+        int length = buffer.getInt(ref);
+        checkHeap(ref, 4L + length);
+        byte[] bytes = new byte[length];
+        buffer.get(ref + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<String> strings(int ref) {
+        if (ref == NONE) {
+            return new ArrayList<>();
+        }
+        checkHeap(ref, 4);
+        int size = buffer.getInt(ref);
+        checkHeap(ref, 4L + 4L * size);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(string(buffer.getInt(ref + 4 + i * 4)));
+        }
+        return values;
+    }
+
+    private int compareTo(int ref, byte[] key) {
+        checkHeap(ref, 4);
+        int length = buffer.getInt(ref);
+        checkHeap(ref, 4L + length);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(ref + 4 + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private LocalDateTime time(int record, int field, int flag) {
+        int offset = offset(record);
+        if ((buffer.get(offset + FLAGS) & flag) == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(buffer.getLong(offset + field), 0, ZoneOffset.UTC);
+    }
+
+    private <T> T lookUp(T[] table, byte ordinal, int record) {
+        int index = ordinal & 0xFF;
+        if (index >= table.length || table[index] == null) {
+            throw new IllegalStateException("Data file is damaged: unknown value " + index + " in record " + record);
+        }
+        return table[index];
+    }
+
+    /**
+     * Reads the enum names stored in the file and maps each stored ordinal to
+     * today's constant with that name.
+     *
+     * @param position where the names start; moved past them
+     * @param fallback used for names that no longer exist, or null if they can't be loaded
+     */
+    private <E extends Enum<E>> E[] readNames(int[] position, Class<E> type, E fallback) {
+        checkHeap(position[0], 4);
+        int size = buffer.getInt(position[0]);
+        if (size < 0 || size > 256) {
+            throw new IllegalStateException("Data file is damaged: bad enum table");
+        }
+        position[0] += 4;
+        E[] values = Arrays.copyOf(type.getEnumConstants(), size);
+        for (int i = 0; i < size; i++) {
+            String name = string(position[0]);
+            position[0] += 4 + buffer.getInt(position[0]);
+            try {
+                values[i] = Enum.valueOf(type, name);
+            } catch (IllegalArgumentException e) {
+                values[i] = fallback; // Only an error if a task actually uses it
+            }
+        }
+        return values;
+    }
+
+    private boolean hasMagic(int offset) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(offset + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
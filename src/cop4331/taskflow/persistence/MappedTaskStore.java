@@ -0,0 +1,357 @@
+package cop4331.taskflow.persistence;
+
+import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskPriority;
+import cop4331.taskflow.model.TaskStatus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for keeping large task archives in a memory-mapped file.
+ *
+ * <p>Loading doesn't copy the file onto the heap. The file is mapped, and
+ * every task is a lightweight handle that reads its fields from a fixed-size
+ * record: ID, title, dates, priority, status, category and due date string
+ * are decoded up front, while descriptions, tags and dependencies are decoded
+ * each time they're read (see {@link Task.DeferredFields}) until they're edited.
+ * Until then the model doesn't index them either: tags are decoded the first
+ * time tags are asked for, descriptions by the first search.
+ * {@link #open(Path)} gives direct access to the records, including an
+ * ID lookup, without creating any tasks at all.
+ *
+ * <p>File layout (version 1), all numbers big-endian:
+ * <pre>
+ * "TFMP"
+ * heap      strings (int byte length + UTF-8) and lists (int count + int refs)
+ * records   one 64-byte record per task, in list order
+ * index     one int record number per task, sorted by the ID's UTF-8 bytes
+ * trailer   long records offset, long index offset, int count,
+ *           int enum names ref, int version, "TFMP"
+ * </pre>
+ * A ref is the file offset of a heap entry, or -1 for none. Tags, categories
+ * and due date strings are stored once however many tasks share them.
+ *
+ * <p>Saves are atomic and keep a backup like the other formats; loaded tasks
+ * keep reading from the file they were loaded from, which stays readable
+ * after being replaced on Linux and macOS. Windows doesn't allow renaming a
+ * mapped file, so there the JSON or binary format should be used. A single
+ * file is limited to 2 GB.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class MappedTaskStore implements PersistenceService {
+
+    static final byte[] MAGIC = {'T', 'F', 'M', 'P'};
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 64;
+    static final int TRAILER_SIZE = 32;
+
+    // Record layout
+    static final int ID = 0;
+    static final int TITLE = 4;
+    static final int DESCRIPTION = 8;
+    static final int DUE_DATE_STRING = 12;
+    static final int CATEGORY = 16;
+    static final int TAGS = 20;
+    static final int DEPENDENCIES = 24;
+    static final int PRIORITY = 28;
+    static final int STATUS = 29;
+    static final int RECURRENCE = 30;
+    static final int FLAGS = 31;
+    static final int DUE = 32;
+    static final int REMINDER = 40;
+    static final int CREATED = 48;
+    static final int UPDATED = 56;
+
+    // Record flags
+    static final int HAS_DUE = 1;
+    static final int HAS_REMINDER = 1 << 1;
+    static final int HAS_CREATED = 1 << 2;
+    static final int HAS_UPDATED = 1 << 3;
+
+    static final int NONE = -1;
+
+    @Override
+    public void save(List<Task> tasks, Path filePath) throws IOException {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks list must be non-null");
+        }
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+
+        snapshot(tasks).writeTo(filePath);
+    }
+
+    /**
+     * Copies the field values of the tasks right away; encoding and writing
+     * happen when the snapshot is written.
+     *
+     * <p>The copy is cheap: the hot fields are immutable values, and cold
+     * fields that were never edited aren't copied at all but read from the
+     * file they were loaded from (see {@link Task#copyColdFields()}), which
+     * stays readable after the new file replaces it.
+     */
+    @Override
+    public Snapshot snapshot(List<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks list must be non-null");
+        }
+        List<TaskValues> values = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            values.add(new TaskValues(task));
+        }
+        return filePath -> AtomicFileWriter.write(filePath, out -> {
+            BinaryStreamWriter writer = new BinaryStreamWriter(out);
+            writeFile(writer, values);
+            writer.flush();
+        });
+    }
+
+    /**
+     * The fields of one task as they were when the snapshot was taken.
+     */
+    private static final class TaskValues {
+        final String id;
+        final String title;
+        final String dueDateString;
+        final String category;
+        final TaskPriority priority;
+        final TaskStatus status;
+        final Task.RecurrenceType recurrenceType;
+        final LocalDateTime due;
+        final LocalDateTime reminder;
+        final LocalDateTime createdAt;
+        final LocalDateTime updatedAt;
+        final Task.DeferredFields cold;
+
+        TaskValues(Task task) {
+            id = task.getId();
+            title = task.getTitle();
+            dueDateString = task.getDueDateString();
+            category = task.getCategory();
+            priority = task.getPriority();
+            status = task.getStatus();
+            recurrenceType = task.getRecurrenceType();
+            due = task.getDueDateTime();
+            reminder = task.getReminderTime();
+            createdAt = task.getCreatedAt();
+            updatedAt = task.getUpdatedAt();
+            cold = task.copyColdFields();
+        }
+    }
+
+    /**
+     * Loads tasks as handles onto the mapped file.
+     *
+     * <p>Falls back to the backup if the file is damaged, like the other formats.
+     */
+    @Override
+    public List<Task> load(Path filePath) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        Path source = AtomicFileWriter.resolveForRead(filePath); // The backup if a save died mid-rename
+        if (!Files.exists(source)) {
+            return new ArrayList<>();
+        }
+
+        Path backup = AtomicFileWriter.backupOf(filePath);
+        boolean canFallBack = !source.equals(backup) && Files.exists(backup);
+        try {
+            return loadHandles(source);
+        } catch (EOFException | StreamCorruptedException e) {
+            if (!canFallBack) {
+                throw e;
+            }
+            System.err.println("Data file is damaged, loading backup: " + e.getMessage());
+            return loadHandles(backup);
+        }
+    }
+
+    /**
+     * Maps a data file for direct access to its records.
+     *
+     * <p>Unlike {@link #load(Path)} this doesn't fall back to the backup and
+     * doesn't create any tasks.
+     *
+     * <p><b>Preconditions:</b> filePath must be non-null
+     *
+     * @param filePath the data file (required, non-null)
+     * @return the mapped file
+     * @throws IOException if the file can't be read or isn't a valid data file
+     * @throws IllegalArgumentException if filePath is null
+     */
+    public MappedTaskFile open(Path filePath) throws IOException {
+        if (filePath == null) {
+            throw new IllegalArgumentException("File path must be non-null");
+        }
+        return new MappedTaskFile(filePath);
+    }
+
+    private static List<Task> loadHandles(Path file) throws IOException {
+        MappedTaskFile mapped = new MappedTaskFile(file);
+        List<Task> tasks = new ArrayList<>(mapped.size());
+        try {
+            for (int i = 0; i < mapped.size(); i++) {
+                tasks.add(mapped.taskAt(i));
+            }
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new StreamCorruptedException(e.getMessage()); // A record points outside the file or is invalid
+        }
+        return tasks;
+    }
+
+    private static void writeFile(BinaryStreamWriter writer, List<TaskValues> tasks) throws IOException {
+        if ((long) tasks.size() * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("Too many tasks for one mapped file");
+        }
+        writer.writeBytes(MAGIC);
+        Map<String, Integer> shared = new HashMap<>(); // Refs of tags, categories and due date strings
+
+        int enumNames = (int) writer.position();
+        writeNames(writer, TaskPriority.values());
+        writeNames(writer, TaskStatus.values());
+        writeNames(writer, Task.RecurrenceType.values());
+
+        ByteBuffer records = ByteBuffer.allocate(tasks.size() * RECORD_SIZE);
+        byte[][] ids = new byte[tasks.size()][];
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskValues task = tasks.get(i);
+            ids[i] = task.id.getBytes(StandardCharsets.UTF_8);
+            int base = i * RECORD_SIZE;
+            records.putInt(base + ID, writeBytes(writer, ids[i]));
+            records.putInt(base + TITLE, writeString(writer, task.title));
+            records.putInt(base + DESCRIPTION, writeString(writer, emptyToNull(task.cold.description())));
+            records.putInt(base + DUE_DATE_STRING, writeShared(writer, emptyToNull(task.dueDateString), shared));
+            records.putInt(base + CATEGORY, writeShared(writer, emptyToNull(task.category), shared));
+            records.putInt(base + TAGS, writeList(writer, task.cold.tags(), shared));
+            records.putInt(base + DEPENDENCIES, writeList(writer, task.cold.dependencies(), null));
+            records.put(base + PRIORITY, (byte) task.priority.ordinal());
+            records.put(base + STATUS, (byte) task.status.ordinal());
+            records.put(base + RECURRENCE, (byte) task.recurrenceType.ordinal());
+            int flags = 0;
+            flags |= putTime(records, base + DUE, task.due, HAS_DUE);
+            flags |= putTime(records, base + REMINDER, task.reminder, HAS_REMINDER);
+            flags |= putTime(records, base + CREATED, task.createdAt, HAS_CREATED);
+            flags |= putTime(records, base + UPDATED, task.updatedAt, HAS_UPDATED);
+            records.put(base + FLAGS, (byte) flags);
+        }
+
+        long recordsOffset = writer.position();
+        writer.writeBytes(records.array());
+
+        Integer[] order = new Integer[tasks.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(ids[a], ids[b]));
+        long indexOffset = writer.position();
+        for (Integer recordNumber : order) {
+            writer.writeInt(recordNumber);
+        }
+        if (writer.position() + TRAILER_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("Data file would be larger than 2 GB");
+        }
+
+        writer.writeLong(recordsOffset);
+        writer.writeLong(indexOffset);
+        writer.writeInt(tasks.size());
+        writer.writeInt(enumNames);
+        writer.writeInt(VERSION);
+        writer.writeBytes(MAGIC);
+    }
+
+    private static <E extends Enum<E>> void writeNames(BinaryStreamWriter writer, E[] values) throws IOException {
+        writer.writeInt(values.length);
+        for (E value : values) {
+            byte[] bytes = value.name().getBytes(StandardCharsets.UTF_8);
+            writer.writeInt(bytes.length);
+            writer.writeBytes(bytes);
+        }
+    }
+
+    /**
+     * Writes a string to the heap.
+     *
+     * @return its ref, or {@link #NONE} for null
+     */
+    private static int writeString(BinaryStreamWriter writer, String value) throws IOException {
+        return value != null ? writeBytes(writer, value.getBytes(StandardCharsets.UTF_8)) : NONE;
+    }
+
+    private static int writeBytes(BinaryStreamWriter writer, byte[] bytes) throws IOException {
+        long ref = writer.position();
+        if (ref + 4 + bytes.length > Integer.MAX_VALUE) {
+            throw new IOException("Data file would be larger than 2 GB");
+        }
+        writer.writeInt(bytes.length);
+        writer.writeBytes(bytes);
+        return (int) ref;
+    }
+
+    /**
+     * Writes a string that many tasks are likely to share, or reuses the copy already written.
+     */
+    private static int writeShared(BinaryStreamWriter writer, String value, Map<String, Integer> shared)
+            throws IOException {
+        if (value == null) {
+            return NONE;
+        }
+        Integer ref = shared.get(value);
+        if (ref == null) {
+            ref = writeString(writer, value);
+            shared.put(value, ref);
+        }
+        return ref;
+    }
+
+    /**
+     * Writes a list of strings as a count and refs, the strings first.
+     *
+     * @param shared refs to reuse for repeated strings, or null if they don't repeat
+     * @return the list's ref, or {@link #NONE} for an empty list
+     */
+    private static int writeList(BinaryStreamWriter writer, List<String> values, Map<String, Integer> shared)
+            throws IOException {
+        if (values.isEmpty()) {
+            return NONE;
+        }
+        int[] refs = new int[values.size()];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = shared != null ? writeShared(writer, values.get(i), shared) : writeString(writer, values.get(i));
+        }
+        int ref = (int) writer.position();
+        writer.writeInt(refs.length);
+        for (int itemRef : refs) {
+            writer.writeInt(itemRef);
+        }
+        return ref;
+    }
+
+    private static int putTime(ByteBuffer records, int offset, LocalDateTime time, int flag) {
+        if (time == null) {
+            return 0;
+        }
+        records.putLong(offset, time.toEpochSecond(ZoneOffset.UTC)); // Local time, so no real zone
+        return flag;
+    }
+
+    private static String emptyToNull(String value) {
+        return value != null && !value.isEmpty() ? value : null;
+    }
+}
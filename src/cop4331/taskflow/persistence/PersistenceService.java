@@ -0,0 +1,73 @@
+package cop4331.taskflow.persistence;
+
+import cop4331.taskflow.model.Task;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A file format the task list can be kept in.
+ *
+ * <p>Implementations read and write the whole task list as one data file and
+ * decide on their own how a damaged file is handled. {@link JsonPersistenceService}
+ * keeps it human-readable, {@link BinaryPersistenceService} keeps it small
+ * and fast to load.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public interface PersistenceService {
+
+    /**
+     * A copy of the tasks, taken on the thread that owns them, that can be
+     * written from any other thread.
+     */
+    @FunctionalInterface
+    interface Snapshot {
+        /**
+         * Writes the copied tasks to a data file.
+         *
+         * @param filePath the data file (required, non-null)
+         * @throws IOException if an I/O error occurs while writing
+         */
+        void writeTo(Path filePath) throws IOException;
+    }
+
+    /**
+     * Saves a list of tasks to a data file.
+     *
+     * <p><b>Preconditions:</b> tasks and filePath must be non-null
+     *
+     * <p><b>Postconditions:</b> The file holds exactly the given tasks
+     *
+     * @param tasks the list of tasks to save (required, non-null)
+     * @param filePath the path to the data file (required, non-null)
+     * @throws IOException if an I/O error occurs while writing
+     * @throws IllegalArgumentException if tasks or filePath is null
+     */
+    void save(List<Task> tasks, Path filePath) throws IOException;
+
+    /**
+     * Loads tasks from a data file.
+     *
+     * <p><b>Preconditions:</b> filePath must be non-null
+     *
+     * @param filePath the path to the data file (required, non-null)
+     * @return the loaded tasks (never null, empty if the file doesn't exist)
+     * @throws IOException if an I/O error occurs while reading
+     * @throws IllegalArgumentException if filePath is null
+     */
+    List<Task> load(Path filePath) throws IOException;
+
+    /**
+     * Copies tasks so they can be saved on another thread while they keep changing.
+     *
+     * <p><b>Preconditions:</b> tasks must be non-null
+     *
+     * @param tasks the tasks to copy (required, non-null)
+     * @return a snapshot that doesn't share any state with the tasks
+     * @throws IllegalArgumentException if tasks is null
+     */
+    Snapshot snapshot(List<Task> tasks);
+}
@@ -0,0 +1,675 @@
+package cop4331.taskflow.persistence;
+
+import cop4331.taskflow.model.ModelEvent;
+import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskModel;
+import cop4331.taskflow.model.TaskStatus;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Stores tasks split over several files ("shards"), one per category or per due month.
+ *
+ * <p>With a single data file every save rewrites and every start reads all
+ * tasks. Here each shard is a separate data file (in whatever format the
+ * {@link PersistenceService} uses), and {@code manifest.json} lists the
+ * shards with their task count, number of pending tasks and due date range.
+ *
+ * <p>{@link #load()} only reads the <em>active</em> shards, the ones holding
+ * at least one pending task. Archived shards (everything in them completed or
+ * trashed) are read on demand with {@link #loadDueBetween(LocalDate, LocalDate)},
+ * for example when the calendar shows an old month, or {@link #loadArchived()}.
+ * Tasks they return must be added to the model.
+ *
+ * <p>Saving works like {@link TaskJournal}: {@link #stage(ModelEvent, TaskModel)}
+ * marks the shards touched by a change as dirty (a task that moves to another
+ * category or month dirties both), {@link #drain(TaskModel)} copies the dirty
+ * shards on the thread that owns the model, and {@link #write(PendingWrite)}
+ * rewrites only those shards and then the manifest, from any thread. A shard
+ * that wasn't loaded is merged with what's on disk instead of replaced.
+ *
+ * <p>Until every shard is loaded the model doesn't hold every task, so
+ * anything that needs all of them (searches, the trash, exports) has to call
+ * {@link #loadArchived()} first; the app does that through
+ * {@code MainFrame.setArchiveLoader}.
+ *
+ * <p><b>Preconditions:</b> The directory must be writable.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class ShardedTaskStore {
+
+    /**
+     * What tasks are grouped by.
+     */
+    public enum ShardKey {
+        /** One shard per category, plus one for tasks without a category. */
+        CATEGORY,
+        /** One shard per due month, plus one for tasks without a due date. */
+        DUE_MONTH
+    }
+
+    public static final String MANIFEST_FILE = "manifest.json";
+
+    private static final int VERSION = 1;
+    private static final String NO_KEY = ""; // Shard name for tasks without a category or due date
+    private static final String SHARD_SUFFIX = ".dat";
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final Path directory;
+    private final Path manifestFile;
+    private final ShardKey key;
+    private final PersistenceService shardService;
+    private final JsonPersistenceService recordService = new JsonPersistenceService(); // Copies for merged shards
+
+    // The manifest as last written (or about to be) - replaced by the save thread, read by the model's thread
+    private final Map<String, ShardInfo> shards = new ConcurrentHashMap<>();
+    // Shards whose tasks are all in the model - model thread only
+    private final Set<String> loadedShards = new HashSet<>();
+    // Shard of every task in the model - model thread only
+    private final Map<String, String> shardOf = new HashMap<>();
+    // IDs of every task the model has held this session, so merges can tell them from tasks only on disk
+    private final Set<String> tracked = ConcurrentHashMap.newKeySet();
+    // Tasks handed out by an on-demand load; their add event doesn't dirty anything
+    private final Set<String> justLoaded = new HashSet<>();
+    private final Set<String> dirtyShards = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a store for a directory of shards.
+     *
+     * <p><b>Preconditions:</b> directory, key and shardService must be non-null
+     *
+     * @param directory the directory holding the manifest and shards (required, non-null)
+     * @param key what tasks are grouped by (required, non-null)
+     * @param shardService the service that reads and writes each shard (required, non-null)
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ShardedTaskStore(Path directory, ShardKey key, PersistenceService shardService) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory must be non-null");
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("Shard key must be non-null");
+        }
+        if (shardService == null) {
+            throw new IllegalArgumentException("Shard service must be non-null");
+        }
+        this.directory = directory;
+        this.manifestFile = directory.resolve(MANIFEST_FILE);
+        this.key = key;
+        this.shardService = shardService;
+    }
+
+    /**
+     * Checks whether the store has been written yet.
+     *
+     * @return true if the manifest exists
+     */
+    public boolean exists() {
+        return Files.exists(AtomicFileWriter.resolveForRead(manifestFile));
+    }
+
+    /**
+     * Loads the active shards, the ones holding at least one pending task.
+     *
+     * <p><b>Postconditions:</b> Only those shards are loaded; the rest stay on disk
+     *
+     * @return the tasks of the active shards (never null, may be empty)
+     * @throws IOException if the manifest or a shard can't be read
+     */
+    public List<Task> load() throws IOException {
+        readManifest();
+        loadedShards.clear();
+        shardOf.clear();
+        tracked.clear();
+        justLoaded.clear();
+        dirtyShards.clear();
+
+        List<Task> tasks = new ArrayList<>();
+        for (ShardInfo shard : new ArrayList<>(shards.values())) {
+            if (shard.pending > 0) {
+                tasks.addAll(loadShard(shard));
+            }
+        }
+        justLoaded.clear(); // Loaded as the starting state, not added on top of it
+        return tasks;
+    }
+
+    /**
+     * Loads every shard not loaded yet that has tasks due in a date range.
+     *
+     * <p>The returned tasks must be added to the model; adding them doesn't
+     * count as a change.
+     *
+     * <p><b>Preconditions:</b> from and to must be non-null
+     *
+     * @param from the first day of the range (required, non-null)
+     * @param to the last day of the range (required, non-null)
+     * @return the newly loaded tasks (never null, empty if nothing was left to load)
+     * @throws IOException if a shard can't be read
+     * @throws IllegalArgumentException if from or to is null
+     */
+    public List<Task> loadDueBetween(LocalDate from, LocalDate to) throws IOException {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range must be non-null");
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (ShardInfo shard : new ArrayList<>(shards.values())) {
+            if (!loadedShards.contains(shard.name) && shard.firstDue != null
+                    && !shard.firstDue.isAfter(to) && !shard.lastDue.isBefore(from)) {
+                tasks.addAll(loadShard(shard));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Loads every shard not loaded yet.
+     *
+     * <p>The returned tasks must be added to the model; adding them doesn't
+     * count as a change.
+     *
+     * @return the newly loaded tasks (never null, may be empty)
+     * @throws IOException if a shard can't be read
+     */
+    public List<Task> loadArchived() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (ShardInfo shard : new ArrayList<>(shards.values())) {
+            if (!loadedShards.contains(shard.name)) {
+                tasks.addAll(loadShard(shard));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Checks whether every shard has been loaded.
+     *
+     * @return true if the model holds every stored task
+     */
+    public boolean isFullyLoaded() {
+        for (String name : shards.keySet()) {
+            if (!loadedShards.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Task> loadShard(ShardInfo shard) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : shardService.load(directory.resolve(shard.file))) {
+            if (tracked.add(task.getId())) { // Skip tasks the model already has (or deleted)
+                shardOf.put(task.getId(), shard.name);
+                justLoaded.add(task.getId());
+                tasks.add(task);
+            }
+        }
+        loadedShards.add(shard.name);
+        return tasks;
+    }
+
+    /**
+     * Replaces everything in the store with the given tasks, for example when
+     * switching from a single data file. Every shard counts as loaded afterwards.
+     *
+     * <p><b>Preconditions:</b> tasks must be non-null
+     *
+     * <p><b>Postconditions:</b> The store holds exactly the given tasks
+     *
+     * @param tasks every task (required, non-null)
+     * @throws IOException if a shard or the manifest can't be written
+     * @throws IllegalArgumentException if tasks is null
+     */
+    public synchronized void saveAll(List<Task> tasks) throws IOException {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks list must be non-null");
+        }
+        Map<String, List<Task>> byShard = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            byShard.computeIfAbsent(shardFor(task), name -> new ArrayList<>()).add(task);
+        }
+
+        Map<String, ShardInfo> written = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Task>> entry : byShard.entrySet()) {
+            ShardInfo existing = shards.get(entry.getKey());
+            String file = existing != null ? existing.file : fileFor(entry.getKey());
+            shardService.save(entry.getValue(), directory.resolve(file));
+            written.put(entry.getKey(), ShardInfo.of(entry.getKey(), file, entry.getValue()));
+        }
+        Map<String, ShardInfo> old = new HashMap<>(shards);
+        shards.clear();
+        shards.putAll(written);
+        writeManifest();
+        for (ShardInfo shard : old.values()) {
+            if (!written.containsKey(shard.name)) {
+                deleteShardFile(shard);
+            }
+        }
+
+        loadedShards.clear();
+        loadedShards.addAll(written.keySet());
+        shardOf.clear();
+        for (Map.Entry<String, List<Task>> entry : byShard.entrySet()) {
+            for (Task task : entry.getValue()) {
+                shardOf.put(task.getId(), entry.getKey());
+                tracked.add(task.getId());
+            }
+        }
+        dirtyShards.clear();
+    }
+
+    /**
+     * Marks the shards touched by a model event as dirty, without writing them yet.
+     *
+     * <p>Must be called on the thread that owns the model (the EDT).
+     *
+     * <p><b>Preconditions:</b> event and model must be non-null
+     *
+     * @param event the change to stage (required, non-null)
+     * @param model the model the event came from (required, non-null)
+     * @throws IllegalArgumentException if event or model is null
+     */
+    public void stage(ModelEvent event, TaskModel model) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event must be non-null");
+        }
+        if (model == null) {
+            throw new IllegalArgumentException("Model must be non-null");
+        }
+        if (event.isReloaded()) {
+            // Every loaded shard is rewritten from the model; shards still on disk are left alone
+            dirtyShards.addAll(loadedShards);
+            shardOf.clear();
+            for (Task task : model.getTasks()) {
+                place(task);
+            }
+            return;
+        }
+        for (String id : event.getRemovedIds()) {
+            String shard = shardOf.remove(id);
+            if (shard != null) {
+                dirtyShards.add(shard);
+            }
+        }
+        for (String id : event.getAddedIds()) {
+            if (justLoaded.remove(id)) {
+                continue; // Came straight from its shard
+            }
+            model.findById(id).ifPresent(this::place);
+        }
+        for (String id : event.getUpdatedIds()) {
+            model.findById(id).ifPresent(this::place);
+        }
+    }
+
+    /**
+     * Puts a task in its current shard, dirtying that shard and the one it left.
+     */
+    private void place(Task task) {
+        String shard = shardFor(task);
+        String previous = shardOf.put(task.getId(), shard);
+        tracked.add(task.getId());
+        dirtyShards.add(shard);
+        if (previous != null && !previous.equals(shard)) {
+            dirtyShards.add(previous);
+        }
+    }
+
+    /**
+     * Checks whether there are dirty shards that haven't been written yet.
+     *
+     * @return true if {@link #drain(TaskModel)} would return a non-empty write
+     */
+    public boolean hasStagedChanges() {
+        return !dirtyShards.isEmpty();
+    }
+
+    /**
+     * Takes the dirty shards as one write.
+     *
+     * <p>Loaded shards are snapshotted as they are in the model. For a shard
+     * that isn't loaded only the model's tasks in it are copied; they're merged
+     * with the shard's file when it's written. Must be called on the thread
+     * that owns the model.
+     *
+     * <p><b>Preconditions:</b> model must be non-null
+     *
+     * <p><b>Postconditions:</b> The shards are clean, and dirty again if the write fails
+     *
+     * @param model the model holding the tasks (required, non-null)
+     * @return the write to pass to {@link #write(PendingWrite)} (never null, may be empty)
+     * @throws IllegalArgumentException if model is null
+     */
+    public PendingWrite drain(TaskModel model) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model must be non-null");
+        }
+        Set<String> names = new HashSet<>(dirtyShards);
+        dirtyShards.removeAll(names);
+
+        Map<String, List<Task>> byShard = new HashMap<>();
+        for (String name : names) {
+            byShard.put(name, new ArrayList<>());
+        }
+        for (Task task : model.getTasks()) {
+            List<Task> shardTasks = byShard.get(shardFor(task));
+            if (shardTasks != null) {
+                shardTasks.add(task);
+            }
+        }
+
+        List<ShardWrite> writes = new ArrayList<>(names.size());
+        Set<String> trackedNow = null; // Shared by every merge in this write
+        for (String name : names) {
+            List<Task> tasks = byShard.get(name);
+            ShardInfo existing = shards.get(name);
+            String file = existing != null ? existing.file : fileFor(name);
+            if (existing == null || loadedShards.contains(name)) {
+                loadedShards.add(name); // Nothing on disk yet, so the model has all of it
+                writes.add(new ShardWrite(name, file, shardService.snapshot(tasks), null, null,
+                        ShardInfo.of(name, file, tasks)));
+            } else {
+                List<JSONObject> copies = new ArrayList<>(tasks.size());
+                for (Task task : tasks) {
+                    copies.add(recordService.toJson(task));
+                }
+                if (trackedNow == null) {
+                    // As of now: if the shard gets loaded before the write runs, its tasks become
+                    // tracked, but they're not among the copies and must stay in the file
+                    trackedNow = new HashSet<>(tracked);
+                }
+                writes.add(new ShardWrite(name, file, null, copies, trackedNow, null));
+            }
+        }
+        return new PendingWrite(writes);
+    }
+
+    /**
+     * Rewrites the shards in a drained write, then the manifest. Safe to call from any thread.
+     *
+     * <p><b>Preconditions:</b> pending must be non-null
+     *
+     * <p><b>Postconditions:</b> The shards and manifest are on disk when this returns
+     *
+     * @param pending the write from {@link #drain(TaskModel)} (required, non-null)
+     * @throws IOException if a shard or the manifest can't be written; its shards are dirty again
+     * @throws IllegalArgumentException if pending is null
+     */
+    public synchronized void write(PendingWrite pending) throws IOException {
+        if (pending == null) {
+            throw new IllegalArgumentException("Pending write must be non-null");
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            boolean newShards = false;
+            for (ShardWrite write : pending.writes) {
+                if (!shards.containsKey(write.name)) {
+                    // Listed before the file exists, so a crash can't leave a file no manifest knows
+                    shards.put(write.name, new ShardInfo(write.name, write.file, 0, 1, null, null));
+                    newShards = true;
+                }
+            }
+            if (newShards) {
+                writeManifest();
+            }
+
+            List<ShardInfo> emptied = new ArrayList<>();
+            for (ShardWrite write : pending.writes) {
+                ShardInfo info = write.snapshot != null ? write.info : merge(write);
+                if (info.tasks == 0) {
+                    shards.remove(write.name);
+                    emptied.add(info);
+                } else {
+                    if (write.snapshot != null) {
+                        write.snapshot.writeTo(directory.resolve(write.file));
+                    }
+                    shards.put(write.name, info);
+                }
+            }
+            writeManifest();
+            for (ShardInfo shard : emptied) {
+                deleteShardFile(shard);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (ShardWrite write : pending.writes) {
+                dirtyShards.add(write.name); // Try again with the next write
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a shard that isn't loaded: the tasks only on disk plus the copies from the model.
+     */
+    private ShardInfo merge(ShardWrite write) throws IOException {
+        Path file = directory.resolve(write.file);
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : shardService.load(file)) {
+            if (!write.tracked.contains(task.getId())) { // Tracked ones are in the model, or deleted
+                tasks.add(task);
+            }
+        }
+        for (JSONObject copy : write.copies) {
+            tasks.add(recordService.fromJson(copy));
+        }
+        if (!tasks.isEmpty()) {
+            shardService.save(tasks, file);
+        }
+        return ShardInfo.of(write.name, write.file, tasks);
+    }
+
+    private void deleteShardFile(ShardInfo shard) throws IOException {
+        Path file = directory.resolve(shard.file);
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(AtomicFileWriter.backupOf(file));
+    }
+
+    /**
+     * Gets the name of the shard a task belongs in.
+     */
+    private String shardFor(Task task) {
+        if (key == ShardKey.CATEGORY) {
+            String category = task.getCategory();
+            return category != null && !category.isEmpty() ? category : NO_KEY;
+        }
+        return task.getDueDateTime() != null ? task.getDueDateTime().format(MONTH_FORMATTER) : NO_KEY;
+    }
+
+    /**
+     * Picks a file name for a new shard. Categories can hold any character, so
+     * only the safe ones are kept and a hash tells similar names apart.
+     */
+    private String fileFor(String name) {
+        if (name.equals(NO_KEY)) {
+            return (key == ShardKey.CATEGORY ? "uncategorized" : "undated") + SHARD_SUFFIX;
+        }
+        if (key == ShardKey.DUE_MONTH) {
+            return name + SHARD_SUFFIX;
+        }
+        String safe = name.replaceAll("[^A-Za-z0-9_-]", "_");
+        if (safe.length() > 40) {
+            safe = safe.substring(0, 40);
+        }
+        return "category-" + safe + "-" + Integer.toHexString(name.hashCode()) + SHARD_SUFFIX;
+    }
+
+    private void readManifest() throws IOException {
+        shards.clear();
+        Path source = AtomicFileWriter.resolveForRead(manifestFile);
+        if (!Files.exists(source)) {
+            return;
+        }
+        try {
+            JSONObject manifest = new JSONObject(Files.readString(source, StandardCharsets.UTF_8));
+            int version = manifest.getInt("version");
+            if (version != VERSION) {
+                throw new IOException("Unsupported manifest version " + version);
+            }
+            if (!key.name().equals(manifest.getString("key"))) {
+                throw new IOException("Shards are grouped by " + manifest.getString("key") + ", not " + key);
+            }
+            JSONArray list = manifest.getJSONArray("shards");
+            for (int i = 0; i < list.length(); i++) {
+                ShardInfo shard = ShardInfo.fromJson(list.getJSONObject(i));
+                shards.put(shard.name, shard);
+            }
+        } catch (JSONException e) {
+            throw new IOException("Shard manifest is damaged: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        JSONArray list = new JSONArray();
+        for (ShardInfo shard : shards.values()) {
+            list.put(shard.toJson());
+        }
+        JSONObject manifest = new JSONObject();
+        manifest.put("version", VERSION);
+        manifest.put("key", key.name());
+        manifest.put("shards", list);
+        AtomicFileWriter.write(manifestFile, out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            manifest.write(writer, 2, 0);
+            writer.flush();
+        });
+    }
+
+    /**
+     * One manifest entry. Immutable, so the save thread can replace entries while others read them.
+     */
+    private static final class ShardInfo {
+        private final String name;
+        private final String file;
+        private final int tasks;
+        private final int pending;
+        private final LocalDate firstDue; // Null if no task in the shard has a due date
+        private final LocalDate lastDue;
+
+        private ShardInfo(String name, String file, int tasks, int pending, LocalDate firstDue, LocalDate lastDue) {
+            this.name = name;
+            this.file = file;
+            this.tasks = tasks;
+            this.pending = pending;
+            this.firstDue = firstDue;
+            this.lastDue = lastDue;
+        }
+
+        static ShardInfo of(String name, String file, List<Task> tasks) {
+            int pending = 0;
+            LocalDate firstDue = null;
+            LocalDate lastDue = null;
+            for (Task task : tasks) {
+                if (task.getStatus() == TaskStatus.PENDING) {
+                    pending++;
+                }
+                if (task.getDueDateTime() != null) {
+                    LocalDate due = task.getDueDateTime().toLocalDate();
+                    firstDue = firstDue == null || due.isBefore(firstDue) ? due : firstDue;
+                    lastDue = lastDue == null || due.isAfter(lastDue) ? due : lastDue;
+                }
+            }
+            return new ShardInfo(name, file, tasks.size(), pending, firstDue, lastDue);
+        }
+
+        JSONObject toJson() {
+            JSONObject json = new JSONObject();
+            json.put("name", name);
+            json.put("file", file);
+            json.put("tasks", tasks);
+            json.put("pending", pending);
+            json.put("firstDue", firstDue != null ? firstDue.toString() : JSONObject.NULL);
+            json.put("lastDue", lastDue != null ? lastDue.toString() : JSONObject.NULL);
+            return json;
+        }
+
+        static ShardInfo fromJson(JSONObject json) {
+            String file = json.getString("file");
+            if (file.contains("/") || file.contains("\\") || file.startsWith(".")) {
+                throw new JSONException("Shard file outside the store: " + file);
+            }
+            String firstDue = json.optString("firstDue", null);
+            String lastDue = json.optString("lastDue", null);
+            LocalDate first = firstDue != null && lastDue != null ? LocalDate.parse(firstDue) : null;
+            LocalDate last = first != null ? LocalDate.parse(lastDue) : null;
+            return new ShardInfo(json.getString("name"), file, json.getInt("tasks"), json.getInt("pending"),
+                    first, last);
+        }
+    }
+
+    /**
+     * One shard to rewrite: either a snapshot of the whole shard, or copies of
+     * the model's tasks to merge into a shard that isn't loaded.
+     */
+    private static final class ShardWrite {
+        private final String name;
+        private final String file;
+        private final PersistenceService.Snapshot snapshot; // Null for a merge
+        private final List<JSONObject> copies; // Null for a snapshot
+        private final Set<String> tracked; // Null for a snapshot; the tracked IDs when the copies were made
+        private final ShardInfo info; // Null for a merge, worked out when it's written
+
+        private ShardWrite(String name, String file, PersistenceService.Snapshot snapshot,
+                           List<JSONObject> copies, Set<String> tracked, ShardInfo info) {
+            this.name = name;
+            this.file = file;
+            this.snapshot = snapshot;
+            this.copies = copies;
+            this.tracked = tracked;
+            this.info = info;
+        }
+    }
+
+    /**
+     * The dirty shards, copied and ready to be written.
+     *
+     * <p>Holds its own copy of the task data, so it can be written on another
+     * thread while the tasks keep changing.
+     */
+    public static final class PendingWrite {
+        private final List<ShardWrite> writes;
+
+        private PendingWrite(List<ShardWrite> writes) {
+            this.writes = writes;
+        }
+
+        /**
+         * Gets the number of shards this write rewrites.
+         *
+         * @return the shard count
+         */
+        public int getShardCount() {
+            return writes.size();
+        }
+
+        /**
+         * Checks whether writing this would change nothing on disk.
+         *
+         * @return true if no shard is dirty
+         */
+        public boolean isEmpty() {
+            return writes.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package cop4331.taskflow.persistence;
+
+import cop4331.taskflow.model.ModelEvent;
+import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskModel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Append-only journal that sits next to the data file.
+ *
+ * <p>Instead of rewriting the whole data file on every change, each change is
+ * appended to {@code <data file>.journal} as one compact JSON line: an
+ * {@code upsert} record with the full task, or a {@code delete} record with
+ * its ID. Saving one edit therefore costs the same no matter how many tasks
+ * there are.
+ *
+ * <p>Once the journal holds more records than the snapshot holds tasks (and
+ * at least {@link #MIN_COMPACT_RECORDS}), the next write compacts it: the full
+ * task list is saved to the data file as a snapshot (in whatever format the
+ * {@link PersistenceService} uses) and the journal is emptied.
+ * That keeps the total I/O per change constant on average and bounds how much
+ * has to be replayed on startup.
+ *
+ * <p>Writing is split in two so the disk I/O can run off the EDT:
+ * {@link #stage(ModelEvent, TaskModel)} marks the changed tasks dirty (on the
+ * thread that owns the model), remembering each one's {@link Task#getVersion()},
+ * and {@link #drain(TaskModel)} turns the dirty tasks into records, one per
+ * task however often it changed, as an immutable {@link PendingWrite} that
+ * {@link #write(PendingWrite)} can put on disk from any thread.
+ * {@link #record(ModelEvent, TaskModel)} does all three at once.
+ *
+ * <p>A task stays dirty until a write that holds it succeeds, and only if it
+ * hasn't changed again since it was drained: if a write fails, its tasks are
+ * simply written again with the next one.
+ *
+ * <p>{@link #load()} reads the snapshot and replays the journal on top of it.
+ * The first line of a journal names the snapshot it applies to (the size and
+ * CRC32C of the data file when the journal was started). A compaction puts
+ * its newest changes only in the new snapshot, so if the app dies after
+ * writing the snapshot but before deleting the journal, the old journal no
+ * longer matches and is skipped instead of replaying stale edits over the
+ * snapshot (and bringing back deleted tasks). A journal without that line,
+ * from an older version, is always replayed. A torn last line (the app died
+ * mid-write) is skipped.
+ *
+ * <p><b>Preconditions:</b> The data file's directory must be writable.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class TaskJournal implements AutoCloseable {
+
+    /** Journals shorter than this are never compacted, even for small snapshots. */
+    public static final int MIN_COMPACT_RECORDS = 1000;
+
+    private static final String OP_UPSERT = "upsert";
+    private static final String OP_DELETE = "delete";
+    private static final String OP_BASE = "base"; // First line: the snapshot the journal applies to
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final PersistenceService snapshotService;
+    private final JsonPersistenceService recordService = new JsonPersistenceService(); // Records are always JSON
+    private static final long DELETED = -1; // Dirty marker for a removed task
+
+    private BufferedWriter writer; // Opened on first append, kept open between writes - guarded by this
+    // Dirty task IDs and the version to write (or DELETED). Staged on the model's thread,
+    // cleared by whichever thread finishes the write, so only ever removed conditionally.
+    private final Map<String, Long> dirty = new ConcurrentHashMap<>();
+    private volatile boolean snapshotDue = false; // Set again by the save thread if a snapshot fails
+    private int recordCount = 0;
+    private int snapshotSize = 0;
+
+    /**
+     * Creates a journal for a data file.
+     *
+     * <p><b>Preconditions:</b> snapshotFile and snapshotService must be non-null
+     *
+     * @param snapshotFile the data file holding the last snapshot (required, non-null)
+     * @param snapshotService the service that reads and writes the snapshot (required, non-null)
+     * @throws IllegalArgumentException if snapshotFile or snapshotService is null
+     */
+    public TaskJournal(Path snapshotFile, PersistenceService snapshotService) {
+        if (snapshotFile == null) {
+            throw new IllegalArgumentException("Snapshot file must be non-null");
+        }
+        if (snapshotService == null) {
+            throw new IllegalArgumentException("Snapshot service must be non-null");
+        }
+        this.snapshotFile = snapshotFile;
+        this.journalFile = Paths.get(snapshotFile.toString() + ".journal");
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Loads the snapshot and replays the journal on top of it.
+     *
+     * <p><b>Postconditions:</b> Later writes append to the existing journal
+     *
+     * @return the tasks as of the last journal record (never null, may be empty)
+     * @throws IOException if the snapshot or journal can't be read
+     */
+    public List<Task> load() throws IOException {
+        Map<String, Task> tasksById = new LinkedHashMap<>();
+        for (Task task : snapshotService.load(snapshotFile)) {
+            tasksById.put(task.getId(), task);
+        }
+        snapshotSize = tasksById.size();
+        recordCount = 0;
+        dirty.clear();
+        snapshotDue = false;
+
+        if (Files.exists(journalFile)) {
+            boolean stale = false;
+            try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+                String line;
+                boolean first = true;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        JSONObject record = new JSONObject(line);
+                        if (first && OP_BASE.equals(record.optString("op"))) {
+                            first = false;
+                            JSONObject base = baseRecord();
+                            if (record.optLong("size") != base.getLong("size")
+                                    || record.optLong("crc") != base.getLong("crc")) {
+                                stale = true;
+                                break;
+                            }
+                            continue;
+                        }
+                        first = false;
+                        replay(record, tasksById);
+                        recordCount++;
+                    } catch (JSONException | IllegalArgumentException e) {
+                        // Half-written record from a crash - everything before it is still good
+                        System.err.println("Skipping unreadable journal record: " + e.getMessage());
+                    }
+                }
+            }
+            if (stale) {
+                // Left over from a compaction that died before deleting it - the snapshot already has it all
+                System.err.println("Journal is older than the data file, discarding it");
+                Files.delete(journalFile);
+            }
+        }
+        return new ArrayList<>(tasksById.values());
+    }
+
+    /**
+     * Builds the first line of a new journal: which snapshot its records apply to.
+     * The snapshot is read as stored, so this works for every snapshot format.
+     */
+    private JSONObject baseRecord() throws IOException {
+        Path snapshot = AtomicFileWriter.resolveForRead(snapshotFile);
+        long size = -1;
+        CRC32C crc = new CRC32C();
+        if (Files.exists(snapshot)) {
+            try (InputStream in = Files.newInputStream(snapshot)) {
+                byte[] buffer = new byte[64 * 1024];
+                int n;
+                size = 0;
+                while ((n = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, n);
+                    size += n;
+                }
+            }
+        }
+        JSONObject record = new JSONObject();
+        record.put("op", OP_BASE);
+        record.put("size", size);
+        record.put("crc", crc.getValue());
+        return record;
+    }
+
+    private void replay(JSONObject record, Map<String, Task> tasksById) {
+        String op = record.getString("op");
+        if (OP_UPSERT.equals(op)) {
+            Task task = recordService.fromJson(record.getJSONObject("task"));
+            tasksById.put(task.getId(), task);
+        } else if (OP_DELETE.equals(op)) {
+            tasksById.remove(record.getString("id"));
+        } else {
+            throw new IllegalArgumentException("Unknown journal operation: " + op);
+        }
+    }
+
+    /**
+     * Appends the changes in a model event to the journal right away.
+     *
+     * <p>Same as staging the event, draining and writing the result on the calling thread.
+     *
+     * <p><b>Preconditions:</b> event and model must be non-null
+     *
+     * <p><b>Postconditions:</b> The change is on disk (flushed) when this returns
+     *
+     * @param event the change to record (required, non-null)
+     * @param model the model the event came from, used to look up task contents (required, non-null)
+     * @throws IOException if the journal or snapshot can't be written
+     * @throws IllegalArgumentException if event or model is null
+     */
+    public void record(ModelEvent event, TaskModel model) throws IOException {
+        stage(event, model);
+        write(drain(model));
+    }
+
+    /**
+     * Marks the tasks changed by a model event as dirty, without writing them yet.
+     *
+     * <p>Added and updated tasks will be written as upserts with their data as
+     * of the next drain, removed tasks as deletes. A reload asks for a full
+     * snapshot instead.
+     *
+     * <p>Must be called on the thread that owns the model (the EDT).
+     *
+     * <p><b>Preconditions:</b> event and model must be non-null
+     *
+     * @param event the change to stage (required, non-null)
+     * @param model the model the event came from, used to look up task contents (required, non-null)
+     * @throws IllegalArgumentException if event or model is null
+     */
+    public void stage(ModelEvent event, TaskModel model) {
+        if (event == null) {
+            throw new IllegalArgumentException("Event must be non-null");
+        }
+        if (model == null) {
+            throw new IllegalArgumentException("Model must be non-null");
+        }
+        if (event.isReloaded()) {
+            dirty.clear();
+            snapshotDue = true;
+            return;
+        }
+        for (String id : event.getRemovedIds()) {
+            dirty.put(id, DELETED);
+        }
+        for (String id : event.getAddedIds()) {
+            markDirty(model, id);
+        }
+        for (String id : event.getUpdatedIds()) {
+            markDirty(model, id);
+        }
+    }
+
+    private void markDirty(TaskModel model, String id) {
+        model.findById(id).ifPresent(task -> dirty.put(id, task.getVersion()));
+    }
+
+    /**
+     * Checks whether there are dirty tasks that haven't been written yet.
+     *
+     * @return true if {@link #drain(TaskModel)} would return a non-empty write
+     */
+    public boolean hasStagedChanges() {
+        return snapshotDue || !dirty.isEmpty();
+    }
+
+    /**
+     * Takes the dirty tasks as one write.
+     *
+     * <p>Each dirty task becomes one record holding a copy of its current
+     * data, or a delete if it's no longer in the model. If a snapshot was
+     * requested, or appending the records would push the journal past the
+     * compaction threshold, the write is a full snapshot of the model instead.
+     * Must be called on the thread that owns the model.
+     *
+     * <p><b>Preconditions:</b> model must be non-null
+     *
+     * <p><b>Postconditions:</b> The tasks stay dirty until the write succeeds
+     *
+     * @param model the model to snapshot if a compaction is due (required, non-null)
+     * @return the write to pass to {@link #write(PendingWrite)} (never null, may be empty)
+     * @throws IllegalArgumentException if model is null
+     */
+    public PendingWrite drain(TaskModel model) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model must be non-null");
+        }
+        Map<String, Long> covered = new HashMap<>(dirty);
+        PendingWrite pending;
+        if (snapshotDue || recordCount + covered.size() >= Math.max(MIN_COMPACT_RECORDS, snapshotSize)) {
+            List<Task> tasks = model.getTasks();
+            pending = new PendingWrite(null, snapshotService.snapshot(tasks), covered);
+            recordCount = 0;
+            snapshotSize = tasks.size();
+            snapshotDue = false;
+        } else {
+            List<JSONObject> records = new ArrayList<>(covered.size());
+            for (Map.Entry<String, Long> entry : covered.entrySet()) {
+                Task task = model.findById(entry.getKey()).orElse(null);
+                JSONObject record = new JSONObject();
+                if (task != null) {
+                    record.put("op", OP_UPSERT);
+                    record.put("task", recordService.toJson(task));
+                    entry.setValue(task.getVersion()); // The version this record really holds
+                } else {
+                    record.put("op", OP_DELETE);
+                    record.put("id", entry.getKey());
+                    entry.setValue(DELETED);
+                }
+                records.add(record);
+            }
+            pending = new PendingWrite(records, null, covered);
+            recordCount += records.size();
+        }
+        return pending;
+    }
+
+    /**
+     * Puts a drained write on disk: appends its records, or replaces the
+     * snapshot and empties the journal. Safe to call from any thread.
+     *
+     * <p>Once the write has succeeded, its tasks are no longer dirty unless
+     * they changed again in the meantime. If it fails they stay dirty.
+     *
+     * <p><b>Preconditions:</b> pending must be non-null
+     *
+     * <p><b>Postconditions:</b> The write is on disk (flushed) when this returns
+     *
+     * @param pending the write from {@link #drain(TaskModel)} (required, non-null)
+     * @throws IOException if the journal or snapshot can't be written
+     * @throws IllegalArgumentException if pending is null
+     */
+    public synchronized void write(PendingWrite pending) throws IOException {
+        if (pending == null) {
+            throw new IllegalArgumentException("Pending write must be non-null");
+        }
+        if (pending.snapshot != null) {
+            try {
+                pending.snapshot.writeTo(snapshotFile);
+            } catch (IOException | RuntimeException e) {
+                snapshotDue = true; // Try again with the next write
+                throw e;
+            }
+            closeWriter();
+            // Only empty the journal once the snapshot is safely written
+            Files.deleteIfExists(journalFile);
+        } else if (!pending.records.isEmpty()) {
+            try {
+                BufferedWriter out = openWriter();
+                for (JSONObject record : pending.records) {
+                    out.write(record.toString()); // Compact form - JSON escapes any newlines in the text
+                    out.newLine();
+                }
+                out.flush();
+            } catch (IOException | RuntimeException e) {
+                closeWriter(); // Reopening starts a fresh line after anything half-written
+                throw e;
+            }
+        }
+        pending.covered.forEach(dirty::remove); // Only removes entries whose version didn't change
+    }
+
+    /**
+     * Writes a full snapshot of the tasks and empties the journal.
+     *
+     * <p>Every dirty task is clean afterwards, since the snapshot already contains it.
+     *
+     * <p><b>Preconditions:</b> tasks must be non-null
+     *
+     * <p><b>Postconditions:</b> The data file holds exactly the given tasks and the journal is empty
+     *
+     * @param tasks every task in the model (required, non-null)
+     * @throws IOException if the snapshot or journal can't be written
+     * @throws IllegalArgumentException if tasks is null
+     */
+    public void compact(List<Task> tasks) throws IOException {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks list must be non-null");
+        }
+        Map<String, Long> covered = new HashMap<>(dirty);
+        synchronized (this) {
+            snapshotService.save(tasks, snapshotFile); // The caller owns the tasks, so they can be streamed directly
+            closeWriter();
+            Files.deleteIfExists(journalFile);
+        }
+        covered.forEach(dirty::remove);
+        snapshotDue = false;
+        recordCount = 0;
+        snapshotSize = tasks.size();
+    }
+
+    /**
+     * Gets the number of records appended since the last snapshot.
+     *
+     * @return the journal length in records
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the path of the journal file.
+     *
+     * @return the journal path (never null)
+     */
+    public Path getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Closes the journal file. The journal stays on disk and is replayed on the next load.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeWriter();
+    }
+
+    private BufferedWriter openWriter() throws IOException {
+        if (writer == null) {
+            if (journalFile.getParent() != null) {
+                Files.createDirectories(journalFile.getParent());
+            }
+            boolean fresh = !Files.exists(journalFile) || Files.size(journalFile) == 0;
+            boolean tornLine = !fresh && endsMidLine();
+            JSONObject base = fresh ? baseRecord() : null;
+            writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (tornLine) {
+                writer.newLine(); // Keep the next record off the torn one's line
+            }
+            if (base != null) {
+                writer.write(base.toString());
+                writer.newLine();
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Checks whether the journal ends in a half-written record from a crash or failed write.
+     */
+    private boolean endsMidLine() throws IOException {
+        if (!Files.exists(journalFile)) {
+            return false;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(journalFile.toFile(), "r")) {
+            if (file.length() == 0) {
+                return false;
+            }
+            file.seek(file.length() - 1);
+            return file.read() != '\n';
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            try {
+                writer.close();
+            } finally {
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * A batch of journal records or a full snapshot, ready to be written.
+     *
+     * <p>Holds its own copy of the task data, so it can be written on another
+     * thread while the tasks keep changing.
+     */
+    public static final class PendingWrite {
+        private final List<JSONObject> records; // Null for a snapshot
+        private final PersistenceService.Snapshot snapshot; // Null for appended records
+        private final Map<String, Long> covered; // Task versions this write makes clean
+
+        private PendingWrite(List<JSONObject> records, PersistenceService.Snapshot snapshot,
+                             Map<String, Long> covered) {
+            this.records = records;
+            this.snapshot = snapshot;
+            this.covered = covered;
+        }
+
+        /**
+         * Checks whether this write is a full snapshot rather than appended records.
+         *
+         * @return true if writing this replaces the data file
+         */
+        public boolean isSnapshot() {
+            return snapshot != null;
+        }
+
+        /**
+         * Checks whether writing this would change nothing on disk.
+         *
+         * @return true if there are no records and no snapshot
+         */
+        public boolean isEmpty() {
+            return snapshot == null && records.isEmpty();
+        }
+    }
+}
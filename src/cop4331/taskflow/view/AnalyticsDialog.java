@@ -1,12 +1,10 @@
 package cop4331.taskflow.view;
 
-import cop4331.taskflow.model.Task;
 import cop4331.taskflow.model.TaskModel;
 import cop4331.taskflow.model.TaskStatus;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 /**
  * Dialog showing task analytics and statistics.
@@ -38,17 +36,11 @@ public class AnalyticsDialog extends JDialog {
         gbc.insets = new Insets(10, 10, 10, 10);
         gbc.anchor = GridBagConstraints.WEST;
         
-        List<Task> allTasks = model.getTasks();
-        long totalTasks = allTasks.size();
-        long completedTasks = allTasks.stream()
-                .filter(t -> t.getStatus() == TaskStatus.COMPLETED)
-                .count();
-        long pendingTasks = allTasks.stream()
-                .filter(t -> t.getStatus() == TaskStatus.PENDING)
-                .count();
-        long trashedTasks = allTasks.stream()
-                .filter(t -> t.getStatus() == TaskStatus.TRASHED)
-                .count();
+        // Counts come straight from the model's status index - no need to walk every task
+        long totalTasks = model.getTaskCount();
+        long completedTasks = model.countByStatus(TaskStatus.COMPLETED);
+        long pendingTasks = model.countByStatus(TaskStatus.PENDING);
+        long trashedTasks = model.countByStatus(TaskStatus.TRASHED);
         
         double completionPercentage = totalTasks > 0 
                 ? (completedTasks * 100.0 / totalTasks) 
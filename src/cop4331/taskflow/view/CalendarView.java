@@ -1,10 +1,13 @@
 package cop4331.taskflow.view;
 
 import cop4331.taskflow.controller.TaskController;
+import cop4331.taskflow.model.ModelEvent;
 import cop4331.taskflow.model.ModelListener;
 import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskField;
 import cop4331.taskflow.model.TaskModel;
 import cop4331.taskflow.model.TaskPriority;
+import cop4331.taskflow.model.TaskQuery;
 import cop4331.taskflow.model.TaskStatus;
 
 import javax.swing.*;
@@ -18,8 +21,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * Calendar view component for displaying tasks in Day/Week/Month views.
@@ -41,9 +49,16 @@ public class CalendarView extends JPanel implements ModelListener {
     private JPanel calendarPanel;
     private JLabel dateLabel;
     private Task draggedTask = null;
+    private Map<LocalDate, List<Task>> visibleTasksByDate = new HashMap<>(); // Filled once per refresh
+    private BiConsumer<LocalDate, LocalDate> rangeLoader = null;
+    private boolean loadingRange = false;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
+    // Fields the calendar cells actually show
+    private static final Set<TaskField> DISPLAYED_FIELDS = EnumSet.of(
+        TaskField.TITLE, TaskField.DUE_DATE, TaskField.PRIORITY, TaskField.STATUS);
+    
     public CalendarView(TaskController controller, TaskModel model) {
         this.controller = controller;
         this.model = model;
@@ -119,8 +134,37 @@ public class CalendarView extends JPanel implements ModelListener {
         refresh();
     }
     
+    @Override
+    public void modelChanged(ModelEvent event) {
+        if (event.affects(DISPLAYED_FIELDS)) {
+            refresh();
+        }
+    }
+    
+    /**
+     * Sets a callback that's told which days are about to be shown, before
+     * they're drawn, so tasks that aren't in the model yet (archived shards)
+     * can be added first.
+     * 
+     * @param rangeLoader called with the first and last visible day (may be null for none)
+     */
+    public void setRangeLoader(BiConsumer<LocalDate, LocalDate> rangeLoader) {
+        this.rangeLoader = rangeLoader;
+        refresh();
+    }
+    
     public void refresh() {
+        LocalDate[] range = visibleRange();
+        if (rangeLoader != null && !loadingRange) {
+            loadingRange = true; // Adding tasks refreshes us again - don't load twice
+            try {
+                rangeLoader.accept(range[0], range[1]);
+            } finally {
+                loadingRange = false;
+            }
+        }
         calendarPanel.removeAll();
+        loadVisibleTasks(range[0], range[1]);
         
         switch (currentViewMode) {
             case DAY:
@@ -264,14 +308,46 @@ public class CalendarView extends JPanel implements ModelListener {
         return taskPanel;
     }
     
+    /**
+     * Gets the first and last day the current view shows.
+     */
+    private LocalDate[] visibleRange() {
+        LocalDate first;
+        LocalDate last;
+        switch (currentViewMode) {
+            case DAY:
+                first = currentDate;
+                last = currentDate;
+                break;
+            case WEEK:
+                first = currentDate.minusDays(currentDate.getDayOfWeek().getValue() - 1);
+                last = first.plusDays(6);
+                break;
+            default:
+                LocalDate firstDayOfMonth = currentDate.withDayOfMonth(1);
+                first = firstDayOfMonth.minusDays(firstDayOfMonth.getDayOfWeek().getValue());
+                last = first.plusDays(41); // 6 weeks = 42 cells
+                break;
+        }
+        return new LocalDate[] {first, last};
+    }
+    
+    /**
+     * Fetches every task shown in the current view with one range query and
+     * groups them by day, so the day cells don't each have to search the model.
+     */
+    private void loadVisibleTasks(LocalDate first, LocalDate last) {
+        visibleTasksByDate = new HashMap<>();
+        List<Task> visible = model.query(new TaskQuery()
+            .withStatuses(TaskStatus.PENDING, TaskStatus.COMPLETED)
+            .withDueBetween(first, last));
+        for (Task task : visible) {
+            visibleTasksByDate.computeIfAbsent(task.getDueDateTime().toLocalDate(), d -> new ArrayList<>()).add(task);
+        }
+    }
+    
     private List<Task> getTasksForDate(LocalDate date) {
-        return model.getTasks().stream()
-            .filter(t -> t.getStatus() != TaskStatus.TRASHED)
-            .filter(t -> {
-                if (t.getDueDateTime() == null) return false;
-                return t.getDueDateTime().toLocalDate().equals(date);
-            })
-            .collect(Collectors.toList());
+        return visibleTasksByDate.getOrDefault(date, Collections.emptyList());
     }
     
     private boolean isOverdue(Task task) {
@@ -28,7 +28,9 @@ public class MainFrame extends JFrame {
     private final Runnable onCloseCallback;
     private boolean trashViewMode = false;
     private boolean calendarViewMode = false;
+    private Runnable archiveLoader = null;
     private JPanel contentPanel;
+    private final JLabel saveErrorLabel = new JLabel(); // Hidden unless saving is failing
 
     /**
      * Creates a new MainFrame.
@@ -69,6 +71,12 @@ public class MainFrame extends JFrame {
         
         // Add summary panel to the right side
         add(summaryPanel, BorderLayout.EAST);
+
+        // Save problems show up here instead of in a dialog, so editing isn't interrupted
+        saveErrorLabel.setForeground(Color.RED);
+        saveErrorLabel.setBorder(BorderFactory.createEmptyBorder(2, 6, 2, 6));
+        saveErrorLabel.setVisible(false);
+        add(saveErrorLabel, BorderLayout.SOUTH);
         
         // Setup keyboard shortcuts
         setupKeyboardShortcuts(controller);
@@ -86,6 +94,57 @@ public class MainFrame extends JFrame {
         });
     }
 
+    /**
+     * Gets the calendar view.
+     * 
+     * @return the calendar view (never null)
+     */
+    public CalendarView getCalendarView() {
+        return calendarView;
+    }
+
+    /**
+     * Sets the hook that adds tasks not loaded at startup (archived shards) to the model.
+     * 
+     * <p>It runs before anything that needs every task: exporting, the trash
+     * view, analytics and searching.
+     * 
+     * @param archiveLoader adds the remaining tasks to the model (may be null for none)
+     */
+    public void setArchiveLoader(Runnable archiveLoader) {
+        this.archiveLoader = archiveLoader;
+        taskListView.setArchiveLoader(archiveLoader);
+    }
+
+    /**
+     * Shows a save problem along the bottom of the window until {@link #clearSaveError()}.
+     * 
+     * <p><b>Preconditions:</b> message must be non-null
+     * 
+     * @param message what went wrong (required, non-null)
+     * @throws IllegalArgumentException if message is null
+     */
+    public void showSaveError(String message) {
+        if (message == null) {
+            throw new IllegalArgumentException("Message must be non-null");
+        }
+        saveErrorLabel.setText(message);
+        saveErrorLabel.setVisible(true);
+    }
+
+    /**
+     * Hides the save problem shown by {@link #showSaveError(String)}.
+     */
+    public void clearSaveError() {
+        saveErrorLabel.setVisible(false);
+    }
+
+    private void loadArchived() {
+        if (archiveLoader != null) {
+            archiveLoader.run();
+        }
+    }
+
     /**
      * Creates the menu bar with View menu.
      * 
@@ -116,6 +175,7 @@ public class MainFrame extends JFrame {
         
         JMenuItem analyticsItem = new JMenuItem("Analytics");
         analyticsItem.addActionListener(e -> {
+            loadArchived();
             AnalyticsDialog dialog = new AnalyticsDialog(this, model);
             dialog.setVisible(true);
         });
@@ -128,6 +188,7 @@ public class MainFrame extends JFrame {
         
         JMenuItem exportItem = new JMenuItem("Export Tasks...");
         exportItem.addActionListener(e -> {
+            loadArchived(); // Export everything, not just what's loaded
             cop4331.taskflow.persistence.ExportImportService service = 
                 new cop4331.taskflow.persistence.ExportImportService();
             service.showExportDialog(this, model.getTasks());
@@ -138,10 +199,7 @@ public class MainFrame extends JFrame {
         importItem.addActionListener(e -> {
             cop4331.taskflow.persistence.ExportImportService service = 
                 new cop4331.taskflow.persistence.ExportImportService();
-            java.util.List<cop4331.taskflow.model.Task> imported = service.showImportDialog(this);
-            for (cop4331.taskflow.model.Task task : imported) {
-                model.addTask(task);
-            }
+            service.showImportDialog(this, model);
         });
         fileMenu.add(importItem);
         
@@ -188,6 +246,9 @@ public class MainFrame extends JFrame {
         
         trashBtn.addActionListener(e -> {
             trashViewMode = !trashViewMode;
+            if (trashViewMode) {
+                loadArchived(); // Trashed tasks are mostly in archived shards
+            }
             taskListView.setTrashView(trashViewMode);
             trashBtn.setText(trashViewMode ? "View All" : "View Trash");
             restoreBtn.setEnabled(trashViewMode);
@@ -209,6 +270,7 @@ public class MainFrame extends JFrame {
         dependenciesBtn.setToolTipText("Manage task dependencies");
         
         analyticsBtn.addActionListener(e -> {
+            loadArchived();
             AnalyticsDialog dialog = new AnalyticsDialog(this, model);
             dialog.setVisible(true);
         });
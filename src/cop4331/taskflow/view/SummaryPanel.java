@@ -1,22 +1,29 @@
 package cop4331.taskflow.view;
 
+import cop4331.taskflow.model.ModelEvent;
 import cop4331.taskflow.model.ModelListener;
 import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskField;
 import cop4331.taskflow.model.TaskModel;
+import cop4331.taskflow.model.TaskQuery;
 import cop4331.taskflow.model.TaskStatus;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Summary panel showing "Today" and "This Week" tasks.
  */
 public class SummaryPanel extends JPanel implements ModelListener {
     
+    // Fields that decide whether and how a task shows up in the summary
+    private static final Set<TaskField> DISPLAYED_FIELDS = EnumSet.of(
+        TaskField.TITLE, TaskField.DUE_DATE, TaskField.STATUS);
+    
     private final TaskModel model;
     private JPanel todayPanel;
     private JPanel weekPanel;
@@ -59,6 +66,13 @@ public class SummaryPanel extends JPanel implements ModelListener {
         refresh();
     }
     
+    @Override
+    public void modelChanged(ModelEvent event) {
+        if (event.affects(DISPLAYED_FIELDS)) {
+            refresh();
+        }
+    }
+    
     public void refresh() {
         todayPanel.removeAll();
         weekPanel.removeAll();
@@ -66,22 +80,14 @@ public class SummaryPanel extends JPanel implements ModelListener {
         LocalDate today = LocalDate.now();
         LocalDate weekEnd = today.plusDays(7);
         
-        List<Task> todayTasks = model.getTasks().stream()
-            .filter(t -> t.getStatus() != TaskStatus.TRASHED && t.getStatus() != TaskStatus.COMPLETED)
-            .filter(t -> {
-                if (t.getDueDateTime() == null) return false;
-                return t.getDueDateTime().toLocalDate().equals(today);
-            })
-            .collect(Collectors.toList());
+        // Only open tasks show up here - two small range queries on the due-date index
+        List<Task> todayTasks = model.query(new TaskQuery()
+            .withStatuses(TaskStatus.PENDING)
+            .withDueBetween(today, today));
         
-        List<Task> weekTasks = model.getTasks().stream()
-            .filter(t -> t.getStatus() != TaskStatus.TRASHED && t.getStatus() != TaskStatus.COMPLETED)
-            .filter(t -> {
-                if (t.getDueDateTime() == null) return false;
-                LocalDate dueDate = t.getDueDateTime().toLocalDate();
-                return dueDate.isAfter(today) && dueDate.isBefore(weekEnd) || dueDate.equals(weekEnd);
-            })
-            .collect(Collectors.toList());
+        List<Task> weekTasks = model.query(new TaskQuery()
+            .withStatuses(TaskStatus.PENDING)
+            .withDueBetween(today.plusDays(1), weekEnd));
         
         if (todayTasks.isEmpty()) {
             todayPanel.add(new JLabel("No tasks due today")); // Rare but beautiful moment
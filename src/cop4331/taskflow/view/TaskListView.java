@@ -1,25 +1,33 @@
 package cop4331.taskflow.view;
 
 import cop4331.taskflow.controller.TaskController;
+import cop4331.taskflow.model.ModelEvent;
 import cop4331.taskflow.model.ModelListener;
 import cop4331.taskflow.model.SortByDueDateStrategy;
 import cop4331.taskflow.model.SortByPriorityStrategy;
 import cop4331.taskflow.model.SortByCreationTimeStrategy;
 import cop4331.taskflow.model.SortAlphabeticallyStrategy;
 import cop4331.taskflow.model.Task;
+import cop4331.taskflow.model.TaskField;
 import cop4331.taskflow.model.TaskModel;
 import cop4331.taskflow.model.TaskPriority;
+import cop4331.taskflow.model.TaskQuery;
 import cop4331.taskflow.model.TaskStatus;
 import cop4331.taskflow.settings.UserPreferences;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * View component for displaying and managing tasks in a table.
@@ -35,7 +43,7 @@ public class TaskListView extends JPanel implements ModelListener {
     private final TaskController controller;
     private final TaskModel model;
     private final JTable table;
-    private final DefaultTableModel tableModel;
+    private final TaskTableModel tableModel;
     private boolean showTrashOnly = false;
     private JComboBox<String> sortComboBox;
     private JTextField searchField;
@@ -44,14 +52,39 @@ public class TaskListView extends JPanel implements ModelListener {
     private JComboBox<String> filterTagCombo;
     private JTextField filterDueDateField;
     private String searchQuery = "";
+    private Runnable archiveLoader = null; // Adds tasks not loaded yet before a search
     private String filterCategory = null;
     private TaskPriority filterPriority = null;
     private String filterTag = null;
     private LocalDateTime filterDueDate = null;
+    private boolean updatingFilterOptions = false;
+
+    // Search runs off the EDT once typing pauses; only the newest search may touch the table
+    private final Timer searchTimer;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "TaskFlow-Search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingSearch;
+    private int searchGeneration = 0;
+    private String lastSearchQuery = null;
+    private List<Task> lastSearchResults = null;
+    // Row changes that came in while a search was still running
+    private final Set<String> pendingUpdatedIds = new HashSet<>();
+    private boolean pendingFullChange = false;
+
+    private static final int SEARCH_DELAY_MS = 200; // Wait this long after the last keystroke
+    private static final int SEARCH_CANCEL_CHECK_INTERVAL = 1024;
 
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    // Fields that show up in the table or are used by its filters and search
+    private static final Set<TaskField> DISPLAYED_FIELDS = EnumSet.of(
+            TaskField.TITLE, TaskField.DESCRIPTION, TaskField.DUE_DATE, TaskField.DUE_DATE_STRING,
+            TaskField.PRIORITY, TaskField.STATUS, TaskField.CATEGORY, TaskField.TAGS);
+
     /**
      * Creates a new TaskListView.
      * 
@@ -71,17 +104,11 @@ public class TaskListView extends JPanel implements ModelListener {
         setLayout(new BorderLayout());
         
         // Initialize table and tableModel FIRST before any action listeners that call refresh()
-        tableModel = new DefaultTableModel(
-                new Object[]{"ID", "Title", "Due", "Priority", "Status"}, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new TaskTableModel();
 
         table = new JTable(tableModel);
-        table.getColumnModel().getColumn(0).setMinWidth(0);
-        table.getColumnModel().getColumn(0).setMaxWidth(0);
+        table.getColumnModel().getColumn(TaskTableModel.ID_COLUMN).setMinWidth(0);
+        table.getColumnModel().getColumn(TaskTableModel.ID_COLUMN).setMaxWidth(0);
 
         // Create control panel with search and filters
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -89,17 +116,18 @@ public class TaskListView extends JPanel implements ModelListener {
         // Search field
         controlPanel.add(new JLabel("Search:"));
         searchField = new JTextField(15);
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> runSearch());
+        searchTimer.setRepeats(false);
         searchField.addActionListener(e -> {
-            searchQuery = searchField.getText().toLowerCase();
-            refresh();
+            searchTimer.stop(); // Enter searches right away
+            runSearch();
         });
         searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
             public void changedUpdate(javax.swing.event.DocumentEvent e) { updateSearch(); }
             public void removeUpdate(javax.swing.event.DocumentEvent e) { updateSearch(); }
             public void insertUpdate(javax.swing.event.DocumentEvent e) { updateSearch(); }
             private void updateSearch() {
-                searchQuery = searchField.getText().toLowerCase();
-                refresh();
+                searchTimer.restart();
             }
         });
         controlPanel.add(searchField);
@@ -108,6 +136,7 @@ public class TaskListView extends JPanel implements ModelListener {
         controlPanel.add(new JLabel("Category:"));
         filterCategoryCombo = new JComboBox<>(new String[]{"All", ""});
         filterCategoryCombo.addActionListener(e -> {
+            if (updatingFilterOptions) return; // Options being rebuilt, not a user pick
             String selected = (String) filterCategoryCombo.getSelectedItem();
             filterCategory = "All".equals(selected) ? null : selected;
             refresh();
@@ -136,6 +165,7 @@ public class TaskListView extends JPanel implements ModelListener {
         controlPanel.add(new JLabel("Tag:"));
         filterTagCombo = new JComboBox<>(new String[]{"All", ""});
         filterTagCombo.addActionListener(e -> {
+            if (updatingFilterOptions) return;
             String selected = (String) filterTagCombo.getSelectedItem();
             filterTag = "All".equals(selected) ? null : selected;
             refresh();
@@ -202,6 +232,9 @@ public class TaskListView extends JPanel implements ModelListener {
     /**
      * Refreshes the table display with current tasks.
      * 
+     * <p>Only the rows that entered or left the filtered list are inserted or
+     * deleted, so the selection and scroll position survive a refresh.
+     * 
      * <p><b>Postconditions:</b> Table is updated to reflect current model state
      */
     public void refresh() {
@@ -211,88 +244,146 @@ public class TaskListView extends JPanel implements ModelListener {
             return;
         }
         
-        List<Task> tasks = model.getTasks(); // Get all my tasks
+        // Update category and tag filter options - keep the dropdowns fresh
+        updateCategoryFilterOptions();
+        updateTagFilterOptions();
         
-        // Filter by view mode
+        lastSearchResults = null; // Filters or tasks changed, so old matches can't be narrowed
+        showTasks(getCandidateTasks(), Collections.emptySet(), false);
+    }
+
+    /**
+     * Gets the tasks that pass the current view mode and filters (but not the search), in display order.
+     */
+    private List<Task> getCandidateTasks() {
+        // View mode, category, priority, tag and due date filters all come straight from the model's indexes
+        TaskQuery taskQuery = new TaskQuery()
+                .withCategory(filterCategory)
+                .withPriority(filterPriority)
+                .withTag(filterTag);
+        if (filterDueDate != null) {
+            taskQuery.withDueBetween(filterDueDate.toLocalDate(), filterDueDate.toLocalDate());
+        }
         if (showTrashOnly) {
-            tasks = tasks.stream()
-                    .filter(t -> t.getStatus() == TaskStatus.TRASHED)
-                    .collect(Collectors.toList());
+            taskQuery.withStatuses(TaskStatus.TRASHED);
         } else {
-            tasks = tasks.stream()
-                    .filter(t -> t.getStatus() != TaskStatus.TRASHED)
-                    .collect(Collectors.toList());
+            taskQuery.withStatuses(TaskStatus.PENDING, TaskStatus.COMPLETED);
         }
-        
-        // Apply search filter
-        if (searchQuery != null && !searchQuery.isEmpty()) {
-            final String query = searchQuery;
-            tasks = tasks.stream()
-                    .filter(t -> t.getTitle().toLowerCase().contains(query) ||
-                            (t.getDescription() != null && t.getDescription().toLowerCase().contains(query)) ||
-                            (t.getCategory() != null && t.getCategory().toLowerCase().contains(query)) ||
-                            t.getTags().stream().anyMatch(tag -> tag.toLowerCase().contains(query)))
-                    .collect(Collectors.toList());
+        return model.query(taskQuery);
+    }
+
+    /**
+     * Applies the text in the search field once typing has paused.
+     * 
+     * <p>If the user only added characters to the last search, the new matches
+     * must be among the old ones (a longer word prefix or an extra word can only
+     * narrow things down), so only those are searched again.
+     */
+    private void runSearch() {
+        String previous = searchQuery;
+        searchQuery = searchField.getText().trim().toLowerCase();
+        if (searchQuery.equals(previous)) {
+            return;
         }
-        
-        // Apply category filter
-        if (filterCategory != null && !filterCategory.isEmpty()) {
-            final String category = filterCategory;
-            tasks = tasks.stream()
-                    .filter(t -> category.equals(t.getCategory()))
-                    .collect(Collectors.toList());
+        if (!searchQuery.isEmpty() && archiveLoader != null) {
+            archiveLoader.run(); // Search everything; does nothing once all is loaded
         }
-        
-        // Apply priority filter
-        if (filterPriority != null) {
-            final TaskPriority priority = filterPriority;
-            tasks = tasks.stream()
-                    .filter(t -> priority == t.getPriority())
-                    .collect(Collectors.toList());
+        if (lastSearchResults != null && searchQuery.startsWith(lastSearchQuery)) {
+            showTasks(lastSearchResults, Collections.emptySet(), false);
+        } else {
+            showTasks(getCandidateTasks(), Collections.emptySet(), false);
         }
-        
-        // Apply tag filter
-        if (filterTag != null && !filterTag.isEmpty()) {
-            final String tag = filterTag;
-            tasks = tasks.stream()
-                    .filter(t -> t.getTags().contains(tag))
-                    .collect(Collectors.toList());
+    }
+
+    /**
+     * Shows the candidate tasks that match the current search.
+     * 
+     * <p>With an empty search the table is updated right away. Otherwise the
+     * matching runs on the search thread and the result is posted back to the
+     * EDT; starting a new search cancels the one before it, and a result that
+     * arrives after a newer search started is dropped.
+     * 
+     * @param candidates the tasks to search, in display order (must not be modified afterwards)
+     * @param updatedIds IDs of tasks whose fields changed
+     * @param fullChange true if every row may have moved (sort change, reload)
+     */
+    private void showTasks(List<Task> candidates, Set<String> updatedIds, boolean fullChange) {
+        int generation = ++searchGeneration;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
         }
-        
-        // Apply due date filter
-        if (filterDueDate != null) {
-            final LocalDateTime filterDate = filterDueDate;
-            tasks = tasks.stream()
-                    .filter(t -> {
-                        if (t.getDueDateTime() == null) return false;
-                        LocalDateTime taskDate = t.getDueDateTime();
-                        return taskDate.toLocalDate().equals(filterDate.toLocalDate());
-                    })
-                    .collect(Collectors.toList());
+        pendingUpdatedIds.addAll(updatedIds);
+        pendingFullChange |= fullChange;
+
+        String query = searchQuery;
+        if (query.isEmpty()) {
+            lastSearchQuery = null;
+            lastSearchResults = null;
+            applyRows(candidates);
+            return;
         }
-        
-        // Update category and tag filter options - keep the dropdowns fresh
-        updateCategoryFilterOptions();
-        updateTagFilterOptions();
-        
-        tableModel.setRowCount(0); // Clear the table first
-        for (Task t : tasks) {
-            // Display the raw string if available, otherwise try to format LocalDateTime, otherwise empty
-            // (I made it flexible so users can type whatever they want for due dates)
-            String dueDisplay = "";
-            if (t.getDueDateString() != null && !t.getDueDateString().isEmpty()) {
-                dueDisplay = t.getDueDateString(); // Use the raw string they typed
-            } else if (t.getDueDateTime() != null) {
-                dueDisplay = FORMATTER.format(t.getDueDateTime()); // Format the date properly
+
+        pendingSearch = searchExecutor.submit(() -> {
+            List<Task> matches = filterBySearch(candidates, query);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (generation != searchGeneration) {
+                    return; // A newer search replaced this one
+                }
+                pendingSearch = null;
+                lastSearchQuery = query;
+                lastSearchResults = matches;
+                applyRows(matches);
+            });
+        });
+    }
+
+    /**
+     * Moves the table to the given rows, passing on any row changes collected so far.
+     */
+    private void applyRows(List<Task> rows) {
+        if (pendingFullChange) {
+            tableModel.setTasks(rows);
+        } else {
+            tableModel.update(rows, pendingUpdatedIds);
+        }
+        pendingUpdatedIds.clear();
+        pendingFullChange = false;
+    }
+
+    /**
+     * Keeps the tasks matching every word of the query, using the model's full-text index.
+     * Runs on the search thread; stops early if the search was cancelled.
+     * 
+     * @param tasks the tasks to search
+     * @param query the search text
+     * @return the matching tasks in the same order
+     */
+    private List<Task> filterBySearch(List<Task> tasks, String query) {
+        Set<String> ids = model.searchAllTerms(query);
+        List<Task> matches = new ArrayList<>(Math.min(ids.size(), tasks.size()));
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i % SEARCH_CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+                return matches; // Result will be dropped
+            }
+            Task t = tasks.get(i);
+            if (ids.contains(t.getId())) {
+                matches.add(t);
             }
-            tableModel.addRow(new Object[]{
-                    t.getId(),
-                    t.getTitle(),
-                    dueDisplay,
-                    t.getPriority(),
-                    t.getStatus()
-            }); // Add each task to the table
         }
+        return matches;
+    }
+
+    /**
+     * Sets the hook that adds tasks not loaded yet to the model, run before searching.
+     * 
+     * @param archiveLoader adds the remaining tasks to the model (may be null for none)
+     */
+    public void setArchiveLoader(Runnable archiveLoader) {
+        this.archiveLoader = archiveLoader;
     }
 
     /**
@@ -311,46 +402,58 @@ public class TaskListView extends JPanel implements ModelListener {
      * Updates the category filter combo box with available categories from tasks.
      */
     private void updateCategoryFilterOptions() {
-        List<String> categories = model.getTasks().stream()
-                .map(Task::getCategory)
-                .filter(cat -> cat != null && !cat.isEmpty())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-        
-        String currentSelection = (String) filterCategoryCombo.getSelectedItem();
-        filterCategoryCombo.removeAllItems();
-        filterCategoryCombo.addItem("All");
-        for (String cat : categories) {
-            filterCategoryCombo.addItem(cat);
-        }
-        if (currentSelection != null && categories.contains(currentSelection)) {
-            filterCategoryCombo.setSelectedItem(currentSelection);
-        } else {
-            filterCategoryCombo.setSelectedItem("All");
-        }
+        updateFilterOptions(filterCategoryCombo, model.getCategories());
     }
     
     /**
      * Updates the tag filter combo box with available tags from tasks.
      */
     private void updateTagFilterOptions() {
-        List<String> tags = model.getTasks().stream()
-                .flatMap(t -> t.getTags().stream())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+        updateFilterOptions(filterTagCombo, model.getTagNames());
+    }
+
+    /**
+     * Rebuilds a filter combo box with "All" plus the given options, keeping the
+     * current selection if it is still available.
+     * 
+     * <p>Does nothing if the options haven't changed, and doesn't let the combo's
+     * action listener kick off another refresh while its items are being replaced.
+     */
+    private void updateFilterOptions(JComboBox<String> combo, List<String> options) {
+        if (combo.getItemCount() == options.size() + 1) {
+            boolean same = true;
+            for (int i = 0; i < options.size() && same; i++) {
+                same = options.get(i).equals(combo.getItemAt(i + 1));
+            }
+            if (same) {
+                return;
+            }
+        }
         
-        String currentSelection = (String) filterTagCombo.getSelectedItem();
-        filterTagCombo.removeAllItems();
-        filterTagCombo.addItem("All");
-        for (String tag : tags) {
-            filterTagCombo.addItem(tag);
+        String currentSelection = (String) combo.getSelectedItem();
+        updatingFilterOptions = true;
+        try {
+            combo.removeAllItems();
+            combo.addItem("All");
+            for (String option : options) {
+                combo.addItem(option);
+            }
+            if (currentSelection != null && options.contains(currentSelection)) {
+                combo.setSelectedItem(currentSelection);
+            } else {
+                combo.setSelectedItem("All");
+            }
+        } finally {
+            updatingFilterOptions = false;
         }
-        if (currentSelection != null && tags.contains(currentSelection)) {
-            filterTagCombo.setSelectedItem(currentSelection);
+        
+        // A filter whose value disappeared falls back to "All"
+        String selected = (String) combo.getSelectedItem();
+        String value = "All".equals(selected) ? null : selected;
+        if (combo == filterCategoryCombo) {
+            filterCategory = value;
         } else {
-            filterTagCombo.setSelectedItem("All");
+            filterTag = value;
         }
     }
 
@@ -359,10 +462,24 @@ public class TaskListView extends JPanel implements ModelListener {
         refresh();
     }
 
+    @Override
+    public void modelChanged(ModelEvent event) {
+        // Reminder or dependency edits don't change anything in the table
+        if (!event.affects(DISPLAYED_FIELDS)) {
+            return;
+        }
+        updateCategoryFilterOptions();
+        updateTagFilterOptions();
+        // Every row may have moved on a reload or sort change
+        boolean fullChange = event.isReloaded() || event.isSortOrderChanged();
+        lastSearchResults = null;
+        showTasks(getCandidateTasks(), event.getUpdatedIds(), fullChange);
+    }
+
     private String getSelectedTaskId() {
         int row = table.getSelectedRow();
         if (row == -1) return null;
-        return (String) tableModel.getValueAt(row, 0);
+        return tableModel.getTaskAt(row).getId();
     }
 
     public void showAddDialog() {
@@ -371,20 +488,22 @@ public class TaskListView extends JPanel implements ModelListener {
 
         if (dialog.isConfirmed()) {
             try {
-                String dueDateString = dialog.getDueDateString();
-                String taskId = controller.addTask(
-                        dialog.getTitleField(),
-                        dialog.getDescriptionField(),
-                        dialog.getDueDateTime(),
-                        dialog.getPriority(),
-                        dueDateString,
-                        dialog.getCategory(),
-                        dialog.getRecurrenceType()
-                );
-                // Set reminder time if specified
-                if (dialog.getReminderTime() != null) {
-                    model.findById(taskId).ifPresent(task -> task.setReminderTime(dialog.getReminderTime()));
-                }
+                model.batch(() -> {
+                    String dueDateString = dialog.getDueDateString();
+                    String taskId = controller.addTask(
+                            dialog.getTitleField(),
+                            dialog.getDescriptionField(),
+                            dialog.getDueDateTime(),
+                            dialog.getPriority(),
+                            dueDateString,
+                            dialog.getCategory(),
+                            dialog.getRecurrenceType()
+                    );
+                    // Set reminder time if specified
+                    if (dialog.getReminderTime() != null) {
+                        model.findById(taskId).ifPresent(task -> task.setReminderTime(dialog.getReminderTime()));
+                    }
+                });
             } catch (IllegalArgumentException ex) {
                 JOptionPane.showMessageDialog(this, ex.getMessage(),
                         "Validation Error", JOptionPane.ERROR_MESSAGE);
@@ -419,21 +538,24 @@ public class TaskListView extends JPanel implements ModelListener {
 
         if (dialog.isConfirmed()) {
             String dueDateString = dialog.getDueDateString();
-            controller.editTask(
-                    id,
-                    dialog.getTitleField(),
-                    dialog.getDescriptionField(),
-                    dialog.getDueDateTime(),
-                    dueDateString,
-                    dialog.getCategory(),
-                    dialog.getRecurrenceType()
-            );
-            // Update reminder time
-            if (dialog.getReminderTime() != null) {
-                model.findById(id).ifPresent(t -> t.setReminderTime(dialog.getReminderTime()));
-            } else {
-                model.findById(id).ifPresent(t -> t.setReminderTime(null));
-            }
+            // Edit and reminder change go out as one model change
+            model.batch(() -> {
+                controller.editTask(
+                        id,
+                        dialog.getTitleField(),
+                        dialog.getDescriptionField(),
+                        dialog.getDueDateTime(),
+                        dueDateString,
+                        dialog.getCategory(),
+                        dialog.getRecurrenceType()
+                );
+                // Update reminder time
+                if (dialog.getReminderTime() != null) {
+                    model.findById(id).ifPresent(t -> t.setReminderTime(dialog.getReminderTime()));
+                } else {
+                    model.findById(id).ifPresent(t -> t.setReminderTime(null));
+                }
+            });
         }
     }
 
@@ -500,10 +622,7 @@ public class TaskListView extends JPanel implements ModelListener {
         List<String> ids = new ArrayList<>();
         int[] selectedRows = table.getSelectedRows();
         for (int row : selectedRows) {
-            String id = (String) tableModel.getValueAt(row, 0);
-            if (id != null) {
-                ids.add(id);
-            }
+            ids.add(tableModel.getTaskAt(row).getId());
         }
         return ids;
     }
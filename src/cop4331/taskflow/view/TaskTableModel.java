@@ -0,0 +1,220 @@
+package cop4331.taskflow.view;
+
+import cop4331.taskflow.model.Task;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Table model that shows a list of tasks, reading cell values straight from
+ * the {@link Task} objects.
+ *
+ * <p>Unlike a DefaultTableModel it doesn't copy every task into an Object[]
+ * row. When the filtered task list changes, {@link #update(List, Set)} works
+ * out which rows were inserted, deleted or updated and fires only those
+ * events, so the table keeps its selection and scroll position and only
+ * repaints what changed.
+ *
+ * @author TaskFlow Team
+ * @version 1.0
+ */
+public class TaskTableModel extends AbstractTableModel {
+
+    /** Column index of the (hidden) task ID column. */
+    public static final int ID_COLUMN = 0;
+
+    private static final String[] COLUMNS = {"ID", "Title", "Due", "Priority", "Status"};
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private List<Task> rows = new ArrayList<>();
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Task t = rows.get(row);
+        switch (column) {
+            case 0:
+                return t.getId();
+            case 1:
+                return t.getTitle();
+            case 2:
+                // Display the raw string if available, otherwise try to format LocalDateTime, otherwise empty
+                // (I made it flexible so users can type whatever they want for due dates)
+                if (t.getDueDateString() != null && !t.getDueDateString().isEmpty()) {
+                    return t.getDueDateString();
+                } else if (t.getDueDateTime() != null) {
+                    return FORMATTER.format(t.getDueDateTime());
+                }
+                return "";
+            case 3:
+                return t.getPriority();
+            case 4:
+                return t.getStatus();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the task shown in a row.
+     *
+     * @param row the row index
+     * @return the task in that row (never null)
+     * @throws IndexOutOfBoundsException if row is out of range
+     */
+    public Task getTaskAt(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Gets the tasks currently shown, in row order.
+     *
+     * @return an unmodifiable view of the rows (never null)
+     */
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Replaces all rows and tells the table to redraw everything.
+     *
+     * <p>Use this when the order of all rows may have changed (sort change, reload).
+     *
+     * @param tasks the new rows in display order (required, non-null)
+     */
+    public void setTasks(List<Task> tasks) {
+        rows = new ArrayList<>(tasks);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Moves the table to a new list of rows, firing only the row events needed.
+     *
+     * <p>Rows that disappeared are deleted, new rows are inserted at their
+     * position, and rows for the given updated tasks are repainted. If an
+     * update moved tasks out of order, those updated tasks are moved with a
+     * delete and an insert. Only if the order still doesn't line up (tasks
+     * re-sorted without being reported as updated) does this fall back to a
+     * full data change.
+     *
+     * @param tasks the new rows in display order (required, non-null)
+     * @param updatedIds IDs of tasks whose fields changed (required, non-null)
+     */
+    public void update(List<Task> tasks, Set<String> updatedIds) {
+        Map<Task, Boolean> wanted = new IdentityHashMap<>(tasks.size());
+        for (Task task : tasks) {
+            wanted.put(task, Boolean.TRUE);
+        }
+
+        deleteRows(task -> !wanted.containsKey(task));
+        if (!rowsInOrderOf(tasks) && !updatedIds.isEmpty()) {
+            deleteRows(task -> updatedIds.contains(task.getId())); // Re-inserted at their new spot below
+        }
+        if (!rowsInOrderOf(tasks)) {
+            setTasks(tasks);
+            return;
+        }
+
+        Map<Task, Boolean> kept = new IdentityHashMap<>(rows.size());
+        for (Task task : rows) {
+            kept.put(task, Boolean.TRUE);
+        }
+
+        // Insertions, in runs of consecutive new rows
+        int runStart = -1;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (!kept.containsKey(task)) {
+                rows.add(i, task);
+                if (runStart < 0) {
+                    runStart = i;
+                }
+            } else if (runStart >= 0) {
+                fireTableRowsInserted(runStart, i - 1);
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            fireTableRowsInserted(runStart, tasks.size() - 1);
+        }
+
+        // Repaint rows whose content changed but stayed in place
+        if (!updatedIds.isEmpty()) {
+            for (int i = 0; i < rows.size(); i++) {
+                Task task = rows.get(i);
+                if (kept.containsKey(task) && updatedIds.contains(task.getId())) {
+                    fireTableRowsUpdated(i, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the matching rows, firing one event per run of adjacent rows.
+     * Walks backwards so the indexes of rows not yet visited stay valid.
+     */
+    private void deleteRows(Predicate<Task> shouldDelete) {
+        int runEnd = -1;
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            if (shouldDelete.test(rows.get(i))) {
+                if (runEnd < 0) {
+                    runEnd = i;
+                }
+                rows.remove(i);
+            } else if (runEnd >= 0) {
+                fireTableRowsDeleted(i + 1, runEnd);
+                runEnd = -1;
+            }
+        }
+        if (runEnd >= 0) {
+            fireTableRowsDeleted(0, runEnd);
+        }
+    }
+
+    /**
+     * Checks that the current rows appear in the same relative order in the new list.
+     */
+    private boolean rowsInOrderOf(List<Task> tasks) {
+        Map<Task, Boolean> current = new IdentityHashMap<>(rows.size());
+        for (Task task : rows) {
+            current.put(task, Boolean.TRUE);
+        }
+        int cursor = 0;
+        for (Task task : tasks) {
+            if (current.containsKey(task)) {
+                if (rows.get(cursor) != task) {
+                    return false;
+                }
+                cursor++;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.persistence.AutoSaveScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JUnit tests for AutoSaveScheduler.
+ */
+public class AutoSaveSchedulerTest {
+
+    private AutoSaveScheduler scheduler;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (scheduler != null) {
+            SwingUtilities.invokeAndWait(scheduler::close);
+        }
+    }
+
+    @Test
+    public void testBurstOfChangesIsSavedOnce() throws Exception {
+        AtomicInteger snapshots = new AtomicInteger();
+        AtomicInteger saves = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        scheduler = new AutoSaveScheduler(60_000, () -> {
+            snapshots.incrementAndGet();
+            return saves::incrementAndGet;
+        }, e -> errors.incrementAndGet());
+
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 100; i++) {
+                scheduler.changed();
+            }
+        });
+        assertEquals(0, snapshots.get(), "Nothing is saved before the window closes");
+
+        SwingUtilities.invokeAndWait(scheduler::flush);
+        assertEquals(1, snapshots.get());
+        assertEquals(1, saves.get());
+
+        // Nothing changed since, so nothing to save
+        SwingUtilities.invokeAndWait(scheduler::flush);
+        assertEquals(1, saves.get());
+        assertEquals(0, errors.get());
+    }
+
+    @Test
+    public void testFailedSaveIsReportedAndRetriedFirst() throws Exception {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        List<IOException> errors = new ArrayList<>(); // Only touched on the EDT
+        AtomicInteger snapshots = new AtomicInteger();
+        AtomicInteger attempts = new AtomicInteger();
+        scheduler = new AutoSaveScheduler(60_000, () -> {
+            String name = "save" + snapshots.incrementAndGet();
+            return () -> {
+                if (name.equals("save1") && attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("boom"); // Not an IOException
+                }
+                written.add(name);
+            };
+        }, errors::add);
+
+        SwingUtilities.invokeAndWait(scheduler::changed);
+        SwingUtilities.invokeAndWait(scheduler::flush);
+        SwingUtilities.invokeAndWait(() -> { }); // Let the error report run
+
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1, errors.size());
+            assertTrue(errors.get(0).getCause() instanceof IllegalStateException);
+        });
+        assertTrue(written.isEmpty());
+
+        // The failure started a new window; the next save retries the failed job before the new one
+        SwingUtilities.invokeAndWait(scheduler::flush);
+        assertEquals(List.of("save1", "save2"), written);
+    }
+
+    @Test
+    public void testFailureStreakIsReportedOnceUntilASaveWorks() throws Exception {
+        AtomicInteger failuresLeft = new AtomicInteger(3);
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger recoveries = new AtomicInteger();
+        scheduler = new AutoSaveScheduler(60_000, () -> () -> {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IOException("Disk full");
+            }
+        }, e -> errors.incrementAndGet());
+        scheduler.setRecoveryHandler(recoveries::incrementAndGet);
+
+        SwingUtilities.invokeAndWait(scheduler::changed);
+        for (int i = 0; i < 3; i++) {
+            SwingUtilities.invokeAndWait(scheduler::flush); // Fails
+            SwingUtilities.invokeAndWait(() -> { }); // Let the failure reach the EDT
+        }
+        assertEquals(1, errors.get(), "Only the first failure of a streak is reported");
+        assertEquals(0, recoveries.get());
+
+        SwingUtilities.invokeAndWait(scheduler::flush); // Works
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(1, recoveries.get());
+
+        // A new streak gets reported again
+        failuresLeft.set(1);
+        SwingUtilities.invokeAndWait(scheduler::changed);
+        SwingUtilities.invokeAndWait(scheduler::flush);
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(2, errors.get());
+    }
+}
@@ -0,0 +1,90 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.model.*;
+import cop4331.taskflow.persistence.BinaryPersistenceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit tests for BinaryPersistenceService.
+ */
+public class BinaryPersistenceServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final BinaryPersistenceService service = new BinaryPersistenceService();
+
+    @Test
+    public void testSaveAndLoadKeepsEveryField() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        Task full = new Task("custom-id", "Caf\u00e9 \"plan\"", "Line one\nLine two",
+                LocalDateTime.of(1969, 7, 20, 20, 17, 40), TaskPriority.HIGH, TaskStatus.COMPLETED,
+                List.of("school", "exam"), LocalDateTime.of(2025, 3, 9, 8, 0));
+        full.setDueDateString("tomorrow 8pm");
+        full.setCategory("School");
+        full.setDependencies(List.of("other-id"));
+        full.setRecurrenceType(Task.RecurrenceType.WEEKLY);
+        Task plain = new Task("Plain", null, null, TaskPriority.LOW);
+        plain.setTags(List.of("exam"));
+
+        service.save(List.of(full, plain), file);
+        List<Task> loaded = service.load(file);
+
+        assertEquals(2, loaded.size());
+        Task copy = loaded.get(0);
+        assertEquals("custom-id", copy.getId());
+        assertEquals(full.getTitle(), copy.getTitle());
+        assertEquals(full.getDescription(), copy.getDescription());
+        assertEquals(full.getDueDateTime(), copy.getDueDateTime());
+        assertEquals("tomorrow 8pm", copy.getDueDateString());
+        assertEquals(TaskPriority.HIGH, copy.getPriority());
+        assertEquals(TaskStatus.COMPLETED, copy.getStatus());
+        assertEquals(List.of("school", "exam"), copy.getTags());
+        assertEquals("School", copy.getCategory());
+        assertEquals(List.of("other-id"), copy.getDependencies());
+        assertEquals(Task.RecurrenceType.WEEKLY, copy.getRecurrenceType());
+        assertEquals(full.getReminderTime(), copy.getReminderTime());
+
+        assertEquals(plain.getId(), loaded.get(1).getId());
+        assertNull(loaded.get(1).getDescription());
+        assertNull(loaded.get(1).getDueDateTime());
+        assertNull(loaded.get(1).getCategory());
+        assertEquals(List.of("exam"), loaded.get(1).getTags());
+    }
+
+    @Test
+    public void testSnapshotWritesTasksAsTheyWere() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        Task task = new Task("Before", "Description", null, TaskPriority.MEDIUM);
+
+        BinaryPersistenceService.Snapshot snapshot = service.snapshot(List.of(task));
+        task.setTitle("After");
+        snapshot.writeTo(file);
+
+        assertEquals("Before", service.load(file).get(0).getTitle());
+    }
+
+    @Test
+    public void testTruncatedFileFallsBackToBackup() throws IOException {
+        Path file = tempDir.resolve("tasks.bin");
+        Task task = new Task("Kept", "Description", null, TaskPriority.LOW);
+        service.save(List.of(task), file);
+        service.save(List.of(task, new Task("Newer", "Description", null, TaskPriority.LOW)), file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5)); // A save that was cut short
+        List<Task> loaded = service.load(file);
+
+        assertEquals(1, loaded.size());
+        assertEquals("Kept", loaded.get(0).getTitle());
+    }
+}
@@ -0,0 +1,261 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.command.ImportTasksCommand;
+import cop4331.taskflow.model.*;
+import cop4331.taskflow.persistence.ExportImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * JUnit tests for ExportImportService.
+ */
+public class ExportImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ExportImportService service = new ExportImportService();
+
+    @Test
+    public void testCsvRoundTrip() throws IOException {
+        Path file = tempDir.resolve("tasks.csv");
+        Task task = new Task("Write report", "Quarterly numbers", LocalDateTime.of(2025, 3, 10, 9, 0),
+                TaskPriority.HIGH);
+        task.setCategory("Work");
+        task.setTags(List.of("office", "q1"));
+
+        service.exportToCSV(List.of(task), file);
+        List<Task> loaded = service.importFromCSV(file);
+
+        assertEquals(1, loaded.size());
+        Task copy = loaded.get(0);
+        assertEquals(task.getId(), copy.getId());
+        assertEquals("Write report", copy.getTitle());
+        assertEquals("Quarterly numbers", copy.getDescription());
+        assertEquals(task.getDueDateTime(), copy.getDueDateTime());
+        assertEquals(TaskPriority.HIGH, copy.getPriority());
+        assertEquals("Work", copy.getCategory());
+        assertEquals(List.of("office", "q1"), copy.getTags());
+    }
+
+    @Test
+    public void testStreamingCsvImportReportsProgress() throws IOException {
+        Path file = tempDir.resolve("tasks.csv");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            tasks.add(new Task("Task " + i, "Description number " + i, null, TaskPriority.LOW));
+        }
+        service.exportToCSV(tasks, file);
+
+        List<Long> progress = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        long imported = service.importFromCSV(file, task -> titles.add(task.getTitle()), progress::add);
+
+        assertEquals(20000, imported);
+        assertEquals("Task 19999", titles.get(19999));
+        assertTrue(progress.size() > 1); // More than a megabyte, so reported along the way
+        assertEquals(Files.size(file), progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void testCsvImportHandlesQuotedLineBreaksAndQuotes() throws IOException {
+        Path file = tempDir.resolve("tasks.csv");
+        String longDescription = "x".repeat(200_000); // Bigger than the read buffer
+        Files.writeString(file, "ID,Title,Description,Due Date,Due Date String,Priority,Status\r\n"
+                + "a,\"Say \"\"hi\"\", then leave\",\"Line one\r\nLine two\n\",,,HIGH,PENDING\r\n"
+                + "\r\n"
+                + "b,Long," + longDescription + ",2025-03-10T09:00:00,,LOW,COMPLETED\r\n"
+                + "c,Last,\"No line break at the end\",,,MEDIUM,PENDING");
+
+        List<Task> loaded = service.importFromCSV(file);
+
+        assertEquals(3, loaded.size());
+        assertEquals("Say \"hi\", then leave", loaded.get(0).getTitle());
+        assertEquals("Line one\r\nLine two\n", loaded.get(0).getDescription());
+        assertEquals(longDescription, loaded.get(1).getDescription());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 9, 0), loaded.get(1).getDueDateTime());
+        assertEquals(TaskStatus.COMPLETED, loaded.get(1).getStatus());
+        assertEquals("No line break at the end", loaded.get(2).getDescription());
+    }
+
+    @Test
+    public void testCsvRoundTripKeepsMultiLineText() throws IOException {
+        Path file = tempDir.resolve("tasks.csv");
+        Task task = new Task("Title, with \"quotes\"", "First line\nSecond, line\r\nThird", null,
+                TaskPriority.MEDIUM);
+
+        service.exportToCSV(List.of(task, new Task("Next", "Plain", null, TaskPriority.LOW)), file);
+        List<Task> loaded = service.importFromCSV(file);
+
+        assertEquals(2, loaded.size());
+        assertEquals(task.getTitle(), loaded.get(0).getTitle());
+        assertEquals(task.getDescription(), loaded.get(0).getDescription());
+        assertEquals("Next", loaded.get(1).getTitle());
+    }
+
+    @Test
+    public void testParallelCsvImportKeepsFileOrder() throws IOException {
+        Path file = tempDir.resolve("tasks.csv");
+        List<Task> tasks = new ArrayList<>();
+        String padding = "y".repeat(150);
+        for (int i = 0; i < 60000; i++) {
+            // Quoted line breaks all over the file, so some chunk is sure to start near one
+            tasks.add(new Task("Task " + i, "Line one\n\"Line\", two\n" + padding, null, TaskPriority.LOW));
+        }
+        service.exportToCSV(tasks, file);
+        assertTrue(Files.size(file) > (8 << 20)); // More than one chunk
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Task> imported;
+        try {
+            imported = service.importFromCSVParallel(file, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(60000, imported.size());
+        for (int i = 0; i < imported.size(); i++) {
+            assertEquals(tasks.get(i).getId(), imported.get(i).getId());
+        }
+        assertEquals(tasks.get(59999).getDescription(), imported.get(59999).getDescription());
+    }
+
+    @Test
+    public void testNdjsonAppendSurvivesCutOffLine() throws IOException {
+        Path file = tempDir.resolve("tasks.ndjson");
+        Task first = new Task("First", "Line one\nLine \"two\"", LocalDateTime.of(2025, 3, 10, 9, 0), TaskPriority.HIGH);
+        first.setTags(List.of("a", "b"));
+        first.restoreTimestamps(LocalDateTime.of(2025, 3, 1, 8, 0), LocalDateTime.of(2025, 3, 2, 8, 0));
+        service.exportToNDJSON(List.of(first, new Task("Second", null, null, TaskPriority.LOW)), file);
+        assertEquals(2, Files.readAllLines(file).size()); // One line per task
+
+        Files.writeString(file, "{\"id\":\"cut\",\"tit", StandardOpenOption.APPEND); // Interrupted append
+        service.appendToNDJSON(List.of(new Task("Third", null, null, TaskPriority.MEDIUM)), file);
+        List<Task> imported = service.importFromNDJSON(file);
+
+        assertEquals(3, imported.size());
+        Task copy = imported.get(0);
+        assertEquals(first.getId(), copy.getId());
+        assertEquals("Line one\nLine \"two\"", copy.getDescription());
+        assertEquals(first.getDueDateTime(), copy.getDueDateTime());
+        assertEquals(List.of("a", "b"), copy.getTags());
+        assertEquals(LocalDateTime.of(2025, 3, 2, 8, 0), copy.getUpdatedAt());
+        assertEquals("Third", imported.get(2).getTitle());
+    }
+
+    @Test
+    public void testParallelNdjsonImportKeepsFileOrder() throws IOException {
+        Path file = tempDir.resolve("tasks.ndjson.gz");
+        List<Task> tasks = new ArrayList<>();
+        String padding = "y".repeat(150);
+        for (int i = 0; i < 60000; i++) {
+            tasks.add(new Task("Task " + i, "Line one\n" + padding, null, TaskPriority.LOW));
+        }
+        service.exportToNDJSON(tasks.subList(0, 30000), file);
+        service.appendToNDJSON(tasks.subList(30000, 60000), file); // Second GZIP member
+        assertEquals(60000, service.importFromNDJSON(file).size());
+
+        Path plain = tempDir.resolve("tasks.ndjson");
+        service.exportToNDJSON(tasks, plain);
+        assertTrue(Files.size(plain) > (8 << 20)); // More than one chunk
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Task> imported;
+        try {
+            imported = service.importFromNDJSONParallel(plain, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(60000, imported.size());
+        for (int i = 0; i < imported.size(); i++) {
+            assertEquals(tasks.get(i).getId(), imported.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testReimportMergesByIdInsteadOfDuplicating() throws IOException {
+        Path file = tempDir.resolve("sync.csv");
+        TaskModel model = new TaskModel();
+        model.addAll(List.of(
+                taskUpdatedAt("kept-id", "Kept", LocalDateTime.of(2025, 1, 1, 10, 0)),
+                taskUpdatedAt("stale-id", "Old title", LocalDateTime.of(2025, 1, 5, 10, 0))));
+        int[] events = {0};
+        model.addListener(new ModelListener() {
+            @Override
+            public void modelChanged() {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event) {
+                events[0]++;
+            }
+        });
+
+        service.exportToCSV(List.of(
+                taskUpdatedAt("kept-id", "Older copy", LocalDateTime.of(2024, 12, 1, 10, 0)),
+                taskUpdatedAt("stale-id", "New title", LocalDateTime.of(2025, 2, 1, 10, 0)),
+                taskUpdatedAt("fresh-id", "Fresh", LocalDateTime.of(2025, 2, 1, 10, 0))), file);
+        List<Task> imported = service.importFromCSV(file);
+        assertEquals(LocalDateTime.of(2025, 2, 1, 10, 0), imported.get(1).getUpdatedAt());
+
+        ImportTasksCommand command = new ImportTasksCommand(model, imported,
+                ImportTasksCommand.ConflictPolicy.NEWEST_UPDATED_AT);
+        command.execute();
+
+        assertEquals(1, events[0]);
+        assertEquals(3, model.getTasks().size());
+        assertEquals("Kept", model.findById("kept-id").orElseThrow().getTitle());
+        assertEquals("New title", model.findById("stale-id").orElseThrow().getTitle());
+        assertEquals("Fresh", model.findById("fresh-id").orElseThrow().getTitle());
+        assertEquals(1, command.getAddedCount());
+        assertEquals(1, command.getMergedCount());
+        assertEquals(1, command.getSkippedCount());
+
+        ImportTasksCommand again = new ImportTasksCommand(model, service.importFromCSV(file),
+                ImportTasksCommand.ConflictPolicy.NEWEST_UPDATED_AT);
+        again.execute();
+        assertEquals(3, model.getTasks().size());
+        assertEquals(3, again.getSkippedCount());
+
+        command.undo();
+        assertEquals(2, model.getTasks().size());
+        Task restored = model.findById("stale-id").orElseThrow();
+        assertEquals("Old title", restored.getTitle());
+        assertEquals(LocalDateTime.of(2025, 1, 5, 10, 0), restored.getUpdatedAt());
+    }
+
+    @Test
+    public void testDuplicatesInTheImportAreCountedApartFromSkippedTasks() {
+        TaskModel model = new TaskModel();
+        model.addAll(List.of(taskUpdatedAt("kept-id", "Kept", LocalDateTime.of(2025, 1, 1, 10, 0))));
+
+        ImportTasksCommand command = new ImportTasksCommand(model, List.of(
+                taskUpdatedAt("kept-id", "Older copy", LocalDateTime.of(2024, 12, 1, 10, 0)),
+                taskUpdatedAt("new-id", "First", LocalDateTime.of(2025, 1, 1, 10, 0)),
+                taskUpdatedAt("new-id", "Second", LocalDateTime.of(2025, 2, 1, 10, 0))),
+                ImportTasksCommand.ConflictPolicy.NEWEST_UPDATED_AT);
+        command.execute();
+
+        assertEquals("Second", model.findById("new-id").orElseThrow().getTitle());
+        assertEquals(1, command.getAddedCount());
+        assertEquals(0, command.getMergedCount());
+        assertEquals(1, command.getSkippedCount(), "Only the task the model kept counts as skipped");
+        assertEquals(1, command.getDuplicateCount());
+    }
+
+    private static Task taskUpdatedAt(String id, String title, LocalDateTime updatedAt) {
+        Task task = new Task(id, title, null, null, TaskPriority.MEDIUM, TaskStatus.PENDING, List.of(), null);
+        task.restoreTimestamps(updatedAt, updatedAt);
+        return task;
+    }
+}
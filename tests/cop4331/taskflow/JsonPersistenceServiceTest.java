@@ -0,0 +1,128 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.model.*;
+import cop4331.taskflow.persistence.JsonPersistenceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit tests for JsonPersistenceService.
+ */
+public class JsonPersistenceServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final JsonPersistenceService service = new JsonPersistenceService();
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path file = tempDir.resolve("tasks.json");
+        Task task = new Task("Test Task", "Description", LocalDateTime.of(2025, 3, 10, 9, 0), TaskPriority.HIGH);
+        task.setCategory("School");
+        task.setTags(List.of("urgent", "exam"));
+
+        service.save(List.of(task), file);
+        List<Task> loaded = service.load(file);
+
+        assertEquals(1, loaded.size());
+        assertEquals(task.getId(), loaded.get(0).getId());
+        assertEquals("School", loaded.get(0).getCategory());
+        assertEquals(List.of("urgent", "exam"), loaded.get(0).getTags());
+        assertEquals(task.getDueDateTime(), loaded.get(0).getDueDateTime());
+    }
+
+    @Test
+    public void testLoadReadsEscapesAndSkipsUnknownFields() throws IOException {
+        Path file = tempDir.resolve("tasks.json");
+        Files.writeString(file, "[{\"id\":\"a1\",\"title\":\"Say \\\"hi\\\"\\n\\u00e9\","
+                + "\"extra\":{\"nested\":[1,2.5e3,true,null]},\"priority\":\"LOW\",\"status\":\"PENDING\","
+                + "\"dueDateTime\":null,\"tags\":[\"x\"]}]");
+
+        List<Task> loaded = service.load(file);
+
+        assertEquals(1, loaded.size());
+        assertEquals("Say \"hi\"\n\u00e9", loaded.get(0).getTitle());
+        assertNull(loaded.get(0).getDueDateTime());
+        assertEquals(List.of("x"), loaded.get(0).getTags());
+    }
+
+    @Test
+    public void testSaveKeepsPreviousGenerationAndNoTempFile() throws IOException {
+        Path file = tempDir.resolve("tasks.json");
+        Task first = new Task("First", "Description", null, TaskPriority.LOW);
+        Task second = new Task("Second", "Description", null, TaskPriority.LOW);
+
+        service.save(List.of(first), file);
+        service.save(List.of(first, second), file);
+
+        assertEquals(2, service.load(file).size());
+        assertEquals(1, service.load(tempDir.resolve("tasks.json.bak")).size());
+        assertFalse(Files.exists(tempDir.resolve("tasks.json.tmp")));
+    }
+
+    @Test
+    public void testLoadFallsBackToBackup() throws IOException {
+        Path file = tempDir.resolve("tasks.json");
+        Task task = new Task("Kept", "Description", null, TaskPriority.LOW);
+        service.save(List.of(task), file);
+        service.save(List.of(task), file);
+
+        Files.writeString(file, "[{\"id\": \"trunc"); // A save that was cut short
+        assertEquals("Kept", service.load(file).get(0).getTitle());
+
+        Files.delete(file); // Crash between the two renames
+        assertEquals("Kept", service.load(file).get(0).getTitle());
+    }
+
+    @Test
+    public void testCompactSaveRoundTrips() throws IOException {
+        Path file = tempDir.resolve("tasks.json");
+        Task task = new Task("Line one\nLine \"two\"", "Tab\there \u0001", null, TaskPriority.MEDIUM);
+        task.setTags(List.of("a", "b"));
+
+        service.setCompact(true);
+        service.save(List.of(task), file);
+        String text = Files.readString(file);
+        List<Task> loaded = service.load(file);
+
+        assertFalse(text.contains("\n"));
+        assertFalse(text.contains("\": "));
+        assertEquals(task.getTitle(), loaded.get(0).getTitle());
+        assertEquals(task.getDescription(), loaded.get(0).getDescription());
+        assertEquals(List.of("a", "b"), loaded.get(0).getTags());
+        assertTrue(loaded.get(0).getDependencies().isEmpty());
+    }
+
+    @Test
+    public void testCompressedFileIsDetectedOnLoad() throws IOException {
+        Path file = tempDir.resolve("tasks.json");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new Task("Task " + i, "Same old description", null, TaskPriority.LOW));
+        }
+        service.save(tasks, file);
+        long plainSize = Files.size(file);
+
+        JsonPersistenceService compressing = new JsonPersistenceService();
+        compressing.setCompressionLevel(9);
+        compressing.save(tasks, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        assertEquals((byte) 0x1f, bytes[0]);
+        assertEquals((byte) 0x8b, bytes[1]);
+        assertTrue(bytes.length * 5 < plainSize);
+        List<Task> loaded = service.load(file); // Doesn't need to know
+        assertEquals(200, loaded.size());
+        assertEquals("Task 199", loaded.get(199).getTitle());
+        assertThrows(IllegalArgumentException.class, () -> compressing.setCompressionLevel(10));
+    }
+}
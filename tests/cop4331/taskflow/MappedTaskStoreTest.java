@@ -0,0 +1,148 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.model.*;
+import cop4331.taskflow.persistence.MappedTaskFile;
+import cop4331.taskflow.persistence.MappedTaskStore;
+import cop4331.taskflow.persistence.PersistenceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JUnit tests for MappedTaskStore.
+ */
+public class MappedTaskStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final MappedTaskStore store = new MappedTaskStore();
+
+    @Test
+    public void testSaveAndLoadKeepsEveryField() throws IOException {
+        Path file = tempDir.resolve("tasks.tfm");
+        Task task = new Task("custom-id", "Caf\u00e9", "Line one\nLine two", LocalDateTime.of(2025, 3, 10, 9, 0),
+                TaskPriority.HIGH, TaskStatus.COMPLETED, List.of("school", "exam"), LocalDateTime.of(2025, 3, 9, 8, 0));
+        task.setDueDateString("monday 9am");
+        task.setCategory("School");
+        task.setDependencies(List.of("other-id"));
+        task.setRecurrenceType(Task.RecurrenceType.MONTHLY);
+
+        store.save(List.of(task, new Task("Plain", null, null, TaskPriority.LOW)), file);
+        List<Task> loaded = store.load(file);
+
+        assertEquals(2, loaded.size());
+        Task copy = loaded.get(0);
+        assertEquals("custom-id", copy.getId());
+        assertEquals("Caf\u00e9", copy.getTitle());
+        assertEquals("Line one\nLine two", copy.getDescription());
+        assertEquals(task.getDueDateTime(), copy.getDueDateTime());
+        assertEquals("monday 9am", copy.getDueDateString());
+        assertEquals(TaskPriority.HIGH, copy.getPriority());
+        assertEquals(TaskStatus.COMPLETED, copy.getStatus());
+        assertEquals(List.of("school", "exam"), copy.getTags());
+        assertEquals("School", copy.getCategory());
+        assertEquals(List.of("other-id"), copy.getDependencies());
+        assertEquals(Task.RecurrenceType.MONTHLY, copy.getRecurrenceType());
+        assertEquals(task.getReminderTime(), copy.getReminderTime());
+        assertNull(loaded.get(1).getDescription());
+        assertTrue(loaded.get(1).getTags().isEmpty());
+    }
+
+    @Test
+    public void testRecordsAreReadableWithoutTasks() throws IOException {
+        Path file = tempDir.resolve("tasks.tfm");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Task task = new Task("Task " + i, null, LocalDateTime.of(2025, 1, 1, 0, 0).plusDays(i), TaskPriority.MEDIUM);
+            if (i % 3 == 0) {
+                task.setStatus(TaskStatus.COMPLETED);
+            }
+            tasks.add(task);
+        }
+        store.save(tasks, file);
+
+        MappedTaskFile mapped = store.open(file);
+
+        assertEquals(100, mapped.size());
+        for (int i = 0; i < 100; i++) {
+            int record = mapped.indexOf(tasks.get(i).getId());
+            assertEquals(i, record);
+            assertEquals(tasks.get(i).getStatus(), mapped.statusAt(record));
+            assertEquals(tasks.get(i).getDueDateTime(), mapped.dueAt(record));
+        }
+        assertEquals(-1, mapped.indexOf("missing"));
+    }
+
+    @Test
+    public void testEditedFieldsSurviveResave() throws IOException {
+        Path file = tempDir.resolve("tasks.tfm");
+        Task task = new Task("Task", "Old description", null, TaskPriority.LOW);
+        task.setTags(List.of("a"));
+        task.setDependencies(List.of("x"));
+        store.save(List.of(task), file);
+
+        Task loaded = store.load(file).get(0);
+        loaded.setTags(List.of("a", "b"));
+        loaded.addDependency("y");
+        loaded.setDescription("New description");
+        store.save(List.of(loaded), file);
+        Task reloaded = store.load(file).get(0);
+
+        assertEquals(List.of("a", "b"), reloaded.getTags());
+        assertEquals(List.of("x", "y"), reloaded.getDependencies());
+        assertEquals("New description", reloaded.getDescription());
+    }
+
+    @Test
+    public void testDamagedFileFallsBackToBackup() throws IOException {
+        Path file = tempDir.resolve("tasks.tfm");
+        Task task = new Task("Kept", "Description", null, TaskPriority.LOW);
+        store.save(List.of(task), file);
+        store.save(List.of(new Task("Newer", "Description", null, TaskPriority.LOW)), file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 10]++; // Trailer no longer matches the layout
+        Files.write(file, bytes);
+
+        assertEquals("Kept", store.load(file).get(0).getTitle());
+    }
+
+    @Test
+    public void testLoadedTasksAreSearchableAndSnapshotKeepsTheirValues() throws IOException {
+        Path file = tempDir.resolve("tasks.tfm");
+        Task report = new Task("Report", "Quarterly budget numbers", null, TaskPriority.HIGH);
+        report.setTags(List.of("finance"));
+        store.save(List.of(report, new Task("Groceries", "Milk and eggs", null, TaskPriority.LOW)), file);
+
+        TaskModel model = new TaskModel();
+        model.replaceAll(store.load(file));
+        Task loaded = model.findById(report.getId()).orElseThrow();
+
+        // Description and tags stay in the file until something asks for them
+        assertEquals(1, model.searchAllTerms("budg").size());
+        assertEquals(List.of("finance"), model.getTagNames());
+        assertEquals(1, model.query(new TaskQuery().withTag("finance")).size());
+
+        loaded.setTitle("Annual report");
+        PersistenceService.Snapshot snapshot = store.snapshot(model.getTasks());
+        loaded.setDescription("Changed after the snapshot");
+        snapshot.writeTo(file);
+
+        List<Task> reloaded = store.load(file);
+        Task copy = reloaded.stream().filter(t -> t.getId().equals(loaded.getId())).findFirst().orElseThrow();
+        assertEquals("Annual report", copy.getTitle());
+        assertEquals("Quarterly budget numbers", copy.getDescription());
+        assertEquals(List.of("finance"), copy.getTags());
+        assertEquals(Set.of(), model.searchAllTerms("budget"));
+        assertEquals(1, model.searchAllTerms("changed").size());
+    }
+}
@@ -0,0 +1,150 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.model.*;
+import cop4331.taskflow.persistence.JsonPersistenceService;
+import cop4331.taskflow.persistence.ShardedTaskStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit tests for ShardedTaskStore.
+ */
+public class ShardedTaskStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Task oldDone;
+    private Task oldDoneToo;
+    private Task current;
+    private Task undated;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        oldDone = new Task("Old", null, LocalDateTime.of(2023, 1, 10, 9, 0), TaskPriority.LOW);
+        oldDone.setStatus(TaskStatus.COMPLETED);
+        oldDoneToo = new Task("Old too", null, LocalDateTime.of(2023, 1, 20, 9, 0), TaskPriority.LOW);
+        oldDoneToo.setStatus(TaskStatus.COMPLETED);
+        current = new Task("Current", null, LocalDateTime.of(2025, 3, 10, 9, 0), TaskPriority.HIGH);
+        undated = new Task("Someday", null, null, TaskPriority.MEDIUM);
+        newStore().saveAll(List.of(oldDone, oldDoneToo, current, undated));
+    }
+
+    @Test
+    public void testOnlyActiveShardsLoadAtStartup() throws IOException {
+        ShardedTaskStore store = newStore();
+
+        assertEquals(List.of("Current", "Someday"), titles(store.load()));
+        assertFalse(store.isFullyLoaded());
+        assertTrue(store.loadDueBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).isEmpty());
+
+        List<Task> archived = store.loadDueBetween(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+        assertEquals(2, archived.size());
+        assertTrue(store.isFullyLoaded());
+        assertTrue(store.loadDueBetween(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31)).isEmpty());
+    }
+
+    @Test
+    public void testSaveRewritesOnlyChangedShards() throws IOException {
+        ShardedTaskStore store = newStore();
+        TaskModel model = openModel(store);
+
+        model.findById(current.getId()).orElseThrow().setTitle("Renamed");
+        ShardedTaskStore.PendingWrite pending = store.drain(model);
+        store.write(pending);
+
+        assertEquals(1, pending.getShardCount());
+        assertFalse(store.hasStagedChanges());
+        assertEquals(List.of("Renamed", "Someday"), titles(newStore().load()));
+    }
+
+    @Test
+    public void testMovingIntoArchivedShardKeepsItsTasks() throws IOException {
+        ShardedTaskStore store = newStore();
+        TaskModel model = openModel(store);
+
+        Task moved = model.findById(current.getId()).orElseThrow();
+        moved.setDueDateTime(LocalDateTime.of(2023, 1, 15, 9, 0)); // Into the January 2023 shard, not loaded
+        model.markCompleted(moved.getId());
+        store.write(store.drain(model));
+
+        ShardedTaskStore reopened = newStore();
+        assertEquals(List.of("Someday"), titles(reopened.load()));
+        List<String> january = titles(reopened.loadArchived());
+        assertEquals(3, january.size());
+        assertTrue(january.containsAll(List.of("Old", "Old too", "Current")));
+    }
+
+    @Test
+    public void testShardLoadedBeforeMergeIsWrittenKeepsItsTasks() throws IOException {
+        ShardedTaskStore store = newStore();
+        TaskModel model = openModel(store);
+
+        Task moved = model.findById(current.getId()).orElseThrow();
+        moved.setDueDateTime(LocalDateTime.of(2023, 1, 15, 9, 0));
+        model.markCompleted(moved.getId());
+        ShardedTaskStore.PendingWrite pending = store.drain(model); // Merge into the unloaded January shard
+        model.addAll(store.loadDueBetween(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31))); // Calendar got there first
+        store.write(pending);
+
+        ShardedTaskStore reopened = newStore();
+        reopened.load();
+        List<String> january = titles(reopened.loadArchived());
+        assertEquals(3, january.size());
+        assertTrue(january.containsAll(List.of("Old", "Old too", "Current")));
+    }
+
+    @Test
+    public void testDeletedTaskIsGoneFromItsShard() throws IOException {
+        ShardedTaskStore store = newStore();
+        TaskModel model = openModel(store);
+        model.addAll(store.loadArchived());
+        assertFalse(store.hasStagedChanges()); // Loading isn't a change
+
+        model.deleteTask(oldDone.getId());
+        store.write(store.drain(model));
+
+        ShardedTaskStore reopened = newStore();
+        reopened.load();
+        assertEquals(List.of("Old too"), titles(reopened.loadArchived()));
+    }
+
+    private ShardedTaskStore newStore() {
+        return new ShardedTaskStore(tempDir.resolve("shards"), ShardedTaskStore.ShardKey.DUE_MONTH,
+                new JsonPersistenceService());
+    }
+
+    private TaskModel openModel(ShardedTaskStore store) throws IOException {
+        TaskModel model = new TaskModel();
+        model.replaceAll(store.load());
+        model.addListener(new ModelListener() {
+            @Override
+            public void modelChanged() {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event) {
+                store.stage(event, model);
+            }
+        });
+        return model;
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        List<String> titles = new ArrayList<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        titles.sort(null);
+        return titles;
+    }
+}
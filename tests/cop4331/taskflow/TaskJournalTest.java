@@ -0,0 +1,195 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.model.*;
+import cop4331.taskflow.persistence.JsonPersistenceService;
+import cop4331.taskflow.persistence.TaskJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit tests for TaskJournal.
+ */
+public class TaskJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path dataFile;
+    private TaskModel model;
+    private TaskJournal journal;
+    private ModelListener recorder;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dataFile = tempDir.resolve("taskflow_data.json");
+        model = new TaskModel();
+        journal = new TaskJournal(dataFile, new JsonPersistenceService());
+        model.replaceAll(journal.load());
+        recorder = new ModelListener() {
+            @Override
+            public void modelChanged() {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event) {
+                try {
+                    journal.record(event, model);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+        };
+        model.addListener(recorder);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    public void testReplayRestoresChanges() throws IOException {
+        Task kept = new Task("Kept", "Description", LocalDateTime.now(), TaskPriority.LOW);
+        Task deleted = new Task("Deleted", "Description", LocalDateTime.now(), TaskPriority.LOW);
+        model.addTask(kept);
+        model.addTask(deleted);
+        kept.setTitle("Renamed");
+        model.markCompleted(kept.getId());
+        model.deleteTask(deleted.getId());
+
+        assertFalse(Files.exists(dataFile)); // Nothing was rewritten, only appended
+        assertEquals(5, journal.getRecordCount());
+
+        List<Task> loaded = reload();
+        assertEquals(1, loaded.size());
+        assertEquals("Renamed", loaded.get(0).getTitle());
+        assertEquals(TaskStatus.COMPLETED, loaded.get(0).getStatus());
+    }
+
+    @Test
+    public void testCompactWritesSnapshotAndEmptiesJournal() throws IOException {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < TaskJournal.MIN_COMPACT_RECORDS; i++) {
+            batch.add(new Task("Task " + i, "Description", LocalDateTime.now(), TaskPriority.MEDIUM));
+        }
+        model.addAll(batch);
+
+        assertTrue(Files.exists(dataFile));
+        assertEquals(0, journal.getRecordCount());
+        assertFalse(Files.exists(journal.getJournalFile()));
+
+        batch.get(0).setTitle("After snapshot");
+        List<Task> loaded = reload();
+        assertEquals(TaskJournal.MIN_COMPACT_RECORDS, loaded.size());
+        assertTrue(loaded.stream().anyMatch(t -> t.getTitle().equals("After snapshot")));
+    }
+
+    @Test
+    public void testOldJournalIsNotReplayedOverNewerSnapshot() throws IOException {
+        Task edited = new Task("Original", "Description", LocalDateTime.now(), TaskPriority.LOW);
+        Task deleted = new Task("Deleted", "Description", LocalDateTime.now(), TaskPriority.LOW);
+        model.addTask(edited);
+        model.addTask(deleted);
+        journal.close();
+        Path oldJournal = tempDir.resolve("old.journal");
+        Files.copy(journal.getJournalFile(), oldJournal);
+
+        model.removeListener(recorder); // The next changes only go into the snapshot
+        edited.setTitle("Edited");
+        model.deleteTask(deleted.getId());
+        journal.compact(model.getTasks());
+        Files.copy(oldJournal, journal.getJournalFile()); // Died before the journal was deleted
+
+        List<Task> loaded = reload();
+        assertEquals(1, loaded.size());
+        assertEquals("Edited", loaded.get(0).getTitle());
+        assertFalse(Files.exists(journal.getJournalFile()));
+    }
+
+    @Test
+    public void testTornRecordIsSkipped() throws IOException {
+        Task task = new Task("Saved", "Description", LocalDateTime.now(), TaskPriority.HIGH);
+        model.addTask(task);
+        journal.close();
+        Files.writeString(journal.getJournalFile(), "{\"op\":\"upsert\",\"task\":{\"id\"",
+                StandardOpenOption.APPEND);
+
+        List<Task> loaded = reload();
+        assertEquals(1, loaded.size());
+        assertEquals(task.getId(), loaded.get(0).getId());
+    }
+
+    @Test
+    public void testEditSessionWritesOnlyDirtyTasks() throws IOException {
+        TaskModel staging = new TaskModel();
+        TaskJournal stagingJournal = new TaskJournal(tempDir.resolve("staged.json"), new JsonPersistenceService());
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            batch.add(new Task("Task " + i, "Description", LocalDateTime.now(), TaskPriority.MEDIUM));
+        }
+        staging.addAll(batch);
+        stagingJournal.compact(staging.getTasks());
+        staging.addListener(new ModelListener() {
+            @Override
+            public void modelChanged() {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event) {
+                stagingJournal.stage(event, staging);
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            batch.get(i * 100).setTitle("Edited " + i);
+            batch.get(i * 100).setPriority(TaskPriority.HIGH); // Same task again - still one record
+        }
+        stagingJournal.write(stagingJournal.drain(staging));
+
+        assertEquals(10, stagingJournal.getRecordCount());
+        assertFalse(stagingJournal.hasStagedChanges());
+        stagingJournal.close();
+    }
+
+    @Test
+    public void testFailedWriteKeepsTasksDirty() throws IOException {
+        model.removeListener(recorder);
+        model.addListener(new ModelListener() {
+            @Override
+            public void modelChanged() {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event) {
+                journal.stage(event, model);
+            }
+        });
+        Task task = new Task("Unsaved", "Description", LocalDateTime.now(), TaskPriority.LOW);
+        model.addTask(task);
+
+        Files.createDirectories(journal.getJournalFile()); // Appending to it fails
+        assertThrows(IOException.class, () -> journal.write(journal.drain(model)));
+        assertTrue(journal.hasStagedChanges());
+
+        Files.delete(journal.getJournalFile());
+        journal.write(journal.drain(model));
+        assertFalse(journal.hasStagedChanges());
+        assertEquals(task.getId(), reload().get(0).getId());
+    }
+
+    private List<Task> reload() throws IOException {
+        journal.close();
+        return new TaskJournal(dataFile, new JsonPersistenceService()).load();
+    }
+}
@@ -0,0 +1,106 @@
+package cop4331.taskflow;
+
+import cop4331.taskflow.model.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Microbenchmark for TaskModel lookups.
+ *
+ * <p>Not a JUnit test - run it by hand with {@code java cop4331.taskflow.TaskModelBenchmark}.
+ * It fills a model with 1k up to 1M tasks and times random findById calls and
+ * full-text searches, so you can check the lookup cost stays flat as the store grows.
+ */
+public class TaskModelBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int LOOKUPS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int SEARCHES = 10_000;
+    private static final String[] WORDS = {"report", "essay", "groceries", "meeting", "repair", "budget"};
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %15s %15s%n", "tasks", "ns/findById", "ns/search");
+        for (int size : SIZES) {
+            System.out.printf("%10d %15.1f %15.1f%n", size, measureFindById(size), measureSearch(size));
+        }
+    }
+
+    private static double measureFindById(int size) {
+        TaskModel model = new TaskModel();
+        List<Task> tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task("Task " + i, "Benchmark task", now.plusMinutes(i), TaskPriority.MEDIUM));
+        }
+        model.addAll(tasks);
+
+        String[] ids = new String[LOOKUPS];
+        Random random = new Random(42);
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = tasks.get(random.nextInt(size)).getId();
+        }
+
+        // Warm up so the JIT has compiled the lookup path before we time it
+        int found = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String id : ids) {
+                if (model.findById(id).isPresent()) {
+                    found++;
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        for (String id : ids) {
+            if (model.findById(id).isPresent()) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (found != LOOKUPS * (WARMUP_ROUNDS + 1)) {
+            throw new IllegalStateException("Lookup missed a task");
+        }
+        return (double) elapsed / LOOKUPS;
+    }
+
+    private static double measureSearch(int size) {
+        TaskModel model = new TaskModel();
+        List<Task> tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            // Mostly unique words so a specific search has few matches, like real task titles
+            tasks.add(new Task(WORDS[i % WORDS.length] + " item" + i, "Benchmark task", now, TaskPriority.MEDIUM));
+        }
+        model.addAll(tasks);
+
+        String[] queries = new String[SEARCHES];
+        Random random = new Random(42);
+        for (int i = 0; i < SEARCHES; i++) {
+            int n = random.nextInt(size);
+            queries[i] = WORDS[n % WORDS.length].substring(0, 3) + " item" + n;
+        }
+
+        long found = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String query : queries) {
+                found += model.searchAllTerms(query).size();
+            }
+        }
+
+        long start = System.nanoTime();
+        for (String query : queries) {
+            found += model.searchAllTerms(query).size();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (found < (long) SEARCHES * (WARMUP_ROUNDS + 1)) {
+            throw new IllegalStateException("Search missed a task");
+        }
+        return (double) elapsed / SEARCHES;
+    }
+}
@@ -5,8 +5,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * JUnit tests for TaskModel.
@@ -48,6 +51,15 @@ public class TaskModelTest {
         assertEquals(0, model.getTasks().size());
     }
 
+    @Test
+    public void testFindByIdAfterDelete() {
+        Task task = new Task("Test Task", "Description", LocalDateTime.now(), TaskPriority.MEDIUM);
+        model.addTask(task);
+        model.deleteTask(task.getId());
+        
+        assertFalse(model.findById(task.getId()).isPresent());
+    }
+
     @Test
     public void testMarkCompleted() {
         Task task = new Task("Test Task", "Description", LocalDateTime.now(), TaskPriority.MEDIUM);
@@ -66,6 +78,173 @@ public class TaskModelTest {
         assertEquals(TaskStatus.TRASHED, model.findById(task.getId()).get().getStatus());
     }
 
+    @Test
+    public void testAddAllNotifiesOnce() {
+        int[] notifications = {0};
+        model.addListener(() -> notifications[0]++);
+
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Task("Task " + i, "Description", LocalDateTime.now(), TaskPriority.LOW));
+        }
+        model.addAll(batch);
+
+        assertEquals(100, model.getTasks().size());
+        assertEquals(1, notifications[0]);
+    }
+
+    @Test
+    public void testReplaceAll() {
+        Task old = new Task("Old Task", "Description", LocalDateTime.now(), TaskPriority.LOW);
+        model.addTask(old);
+
+        Task fresh = new Task("New Task", "Description", LocalDateTime.now(), TaskPriority.HIGH);
+        model.replaceAll(List.of(fresh));
+
+        assertEquals(1, model.getTasks().size());
+        assertFalse(model.findById(old.getId()).isPresent());
+        assertTrue(model.findById(fresh.getId()).isPresent());
+    }
+
+    @Test
+    public void testQueryIntersectsIndexes() {
+        Task school = new Task("Essay", "Description", LocalDateTime.now(), TaskPriority.HIGH);
+        school.setCategory("School");
+        school.setTags(List.of("urgent"));
+        Task work = new Task("Report", "Description", LocalDateTime.now(), TaskPriority.HIGH);
+        work.setCategory("Work");
+        work.setTags(List.of("urgent"));
+        model.addAll(List.of(school, work));
+
+        List<Task> result = model.query(new TaskQuery()
+                .withPriority(TaskPriority.HIGH)
+                .withTag("urgent")
+                .withCategory("School"));
+        assertEquals(1, result.size());
+        assertSame(school, result.get(0));
+    }
+
+    @Test
+    public void testQueryFollowsSetterChanges() {
+        Task task = new Task("Test Task", "Description", LocalDateTime.now(), TaskPriority.LOW);
+        model.addTask(task);
+
+        task.setCategory("Home");
+        task.setPriority(TaskPriority.HIGH);
+        model.markCompleted(task.getId());
+
+        assertEquals(1, model.query(new TaskQuery().withCategory("Home")).size());
+        assertEquals(0, model.query(new TaskQuery().withPriority(TaskPriority.LOW)).size());
+        assertEquals(1, model.countByStatus(TaskStatus.COMPLETED));
+        assertEquals(0, model.countByStatus(TaskStatus.PENDING));
+        assertEquals(List.of("Home"), model.getCategories());
+    }
+
+    @Test
+    public void testGetTasksDueBetween() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 10, 9, 0);
+        Task before = new Task("Before", "Description", base.minusDays(1), TaskPriority.LOW);
+        Task inside = new Task("Inside", "Description", base.plusDays(2), TaskPriority.LOW);
+        Task after = new Task("After", "Description", base.plusDays(10), TaskPriority.LOW);
+        Task undated = new Task("Undated", "Description", null, TaskPriority.LOW);
+        model.addAll(List.of(before, inside, after, undated));
+
+        LocalDate from = base.toLocalDate();
+        LocalDate to = from.plusDays(6);
+        assertEquals(List.of(inside), model.getTasksDueBetween(from, to));
+
+        after.setDueDateTime(base.plusDays(6));
+        assertEquals(List.of(inside, after), model.getTasksDueBetween(from, to));
+
+        model.markCompleted(inside.getId());
+        assertEquals(List.of(after), model.query(new TaskQuery()
+                .withStatuses(TaskStatus.PENDING)
+                .withDueBetween(from, to)));
+    }
+
+    @Test
+    public void testModelEventCarriesChangedFields() {
+        Task task = new Task("Test Task", "Description", LocalDateTime.now(), TaskPriority.MEDIUM);
+        model.addTask(task);
+
+        List<ModelEvent> events = new ArrayList<>();
+        model.addListener(new ModelListener() {
+            @Override
+            public void modelChanged() {
+                fail("Event-aware listener should get the detailed callback");
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event) {
+                events.add(event);
+            }
+        });
+
+        model.markCompleted(task.getId());
+        task.setReminderTime(LocalDateTime.now().plusHours(1));
+        model.deleteTask(task.getId());
+
+        assertEquals(3, events.size());
+        assertEquals(Set.of(task.getId()), events.get(0).getUpdatedIds());
+        assertEquals(Set.of(TaskField.STATUS), events.get(0).getChangedFields(task.getId()));
+        assertEquals(Set.of(TaskField.REMINDER), events.get(1).getChangedFields(task.getId()));
+        assertEquals(Set.of(task.getId()), events.get(2).getRemovedIds());
+    }
+
+    @Test
+    @SuppressWarnings("try") // tx is only there to be closed
+    public void testBatchMergesNotifications() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(new Task("Task " + i, "Description", LocalDateTime.now(), TaskPriority.LOW));
+        }
+        model.addAll(batch);
+
+        List<ModelEvent> events = new ArrayList<>();
+        model.addListener(new ModelListener() {
+            @Override
+            public void modelChanged() {
+            }
+
+            @Override
+            public void modelChanged(ModelEvent event) {
+                events.add(event);
+            }
+        });
+
+        try (TaskModel.Batch tx = model.beginBatch()) {
+            for (Task task : batch) {
+                model.markCompleted(task.getId());
+            }
+            model.batch(() -> batch.get(0).setTitle("Renamed")); // Nested batch doesn't notify early
+            assertTrue(events.isEmpty());
+        }
+
+        assertEquals(1, events.size());
+        assertEquals(50, events.get(0).getUpdatedIds().size());
+        assertEquals(Set.of(TaskField.STATUS, TaskField.TITLE), events.get(0).getChangedFields(batch.get(0).getId()));
+    }
+
+    @Test
+    public void testSearchMatchesWordPrefixes() {
+        Task report = new Task("Final Report", "Quarterly numbers", LocalDateTime.now(), TaskPriority.HIGH);
+        report.setCategory("Work");
+        Task repair = new Task("Repair bike", "Flat tire", LocalDateTime.now(), TaskPriority.LOW);
+        repair.setTags(List.of("errands"));
+        model.addAll(List.of(report, repair));
+
+        assertEquals(Set.of(report.getId(), repair.getId()), model.searchAllTerms("REP"));
+        assertEquals(Set.of(report.getId()), model.searchAllTerms("rep work"));
+        assertEquals(Set.of(report.getId(), repair.getId()), model.searchAnyTerm("quarter errand"));
+        assertTrue(model.searchAllTerms("port").isEmpty()); // Words match by prefix, not substring
+
+        repair.setTitle("Fix bike");
+        report.setTags(List.of("errands"));
+        model.deleteTask(repair.getId());
+        assertTrue(model.searchAllTerms("repair").isEmpty());
+        assertEquals(Set.of(report.getId()), model.searchAllTerms("errands"));
+    }
+
     @Test
     public void testSortStrategy() {
         Task task1 = new Task("Task 1", "Description", LocalDateTime.now().plusDays(2), TaskPriority.LOW);
@@ -78,5 +257,53 @@ public class TaskModelTest {
         List<Task> tasks = model.getTasks();
         assertEquals("Task 2", tasks.get(0).getTitle());
     }
-}
 
+    @Test
+    public void testSortedViewIsCachedAndRepaired() {
+        Task task1 = new Task("Task 1", "Description", LocalDateTime.now().plusDays(2), TaskPriority.LOW);
+        Task task2 = new Task("Task 2", "Description", LocalDateTime.now().plusDays(1), TaskPriority.HIGH);
+        model.addTask(task1);
+        model.addTask(task2);
+
+        List<Task> first = model.getTasks();
+        assertSame(first, model.getTasks());
+
+        task1.setDueDateTime(LocalDateTime.now());
+        List<Task> repaired = model.getTasks();
+        assertEquals("Task 1", repaired.get(0).getTitle());
+        assertEquals("Task 2", first.get(0).getTitle()); // Old snapshot doesn't change under the caller
+
+        Task task3 = new Task("Task 3", "Description", null, TaskPriority.MEDIUM);
+        model.addTask(task3);
+        assertSame(task3, model.getTasks().get(2));
+    }
+
+    @Test
+    public void testSortedViewPlacesManyChangesOnRead() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            batch.add(new Task(String.format("Task %03d", i), "Description", null, TaskPriority.LOW));
+        }
+        model.addAll(batch);
+        model.setSortStrategy(new SortAlphabeticallyStrategy());
+        model.getTasks(); // Warm the view
+
+        // A few changes get merged in
+        batch.get(10).setTitle("Task 999");
+        batch.get(400).setTitle("Task 000a");
+        model.deleteTask(batch.get(20).getId());
+        model.addTask(new Task("Task 250a", "Description", null, TaskPriority.LOW));
+        assertEquals(new SortAlphabeticallyStrategy().sort(model.getTasks()), model.getTasks());
+        assertEquals("Task 999", model.getTasks().get(499).getTitle());
+
+        // So many that the view gives up tracking them and re-sorts
+        model.batch(() -> {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setTitle(String.format("Renamed %03d", (i * 7) % 500));
+            }
+        });
+        List<Task> sorted = model.getTasks();
+        assertEquals(new SortAlphabeticallyStrategy().sort(sorted), sorted);
+        assertEquals(500, sorted.size());
+    }
+}